@@ -0,0 +1,54 @@
+package com.nexus_ledger.nexusLedger.bench;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Plain JDBC connection for the schema-level benchmarks. H2 in PostgreSQL mode by default; point
+ * -Dbench.jdbc.url (plus bench.jdbc.user / bench.jdbc.password) at a PostgreSQL instance to get real
+ * B-tree behaviour and index sizes.
+ */
+final class BenchDatabase {
+
+    private BenchDatabase() { }
+
+    static Connection connect(String name) throws SQLException {
+        String url = System.getProperty("bench.jdbc.url",
+                "jdbc:h2:mem:" + name + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        return DriverManager.getConnection(url,
+                System.getProperty("bench.jdbc.user", "sa"), System.getProperty("bench.jdbc.password", ""));
+    }
+
+    static boolean isPostgres(Connection connection) throws SQLException {
+        return connection.getMetaData().getDatabaseProductName().toLowerCase().contains("postgres");
+    }
+
+    static void execute(Connection connection, String... statements) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : statements) statement.execute(sql);
+        }
+    }
+
+    // Row count and primary key index size (PostgreSQL only) after a run
+    static void report(Connection connection, String table) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            long rows;
+            try (ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM " + table)) {
+                rs.next();
+                rows = rs.getLong(1);
+            }
+            String size = "n/a (H2)";
+            if (isPostgres(connection)) {
+                try (ResultSet rs = statement.executeQuery(
+                        "SELECT pg_size_pretty(pg_relation_size('" + table + "_pkey'))")) {
+                    rs.next();
+                    size = rs.getString(1);
+                }
+            }
+            System.out.printf("%n%s: %,d rows, primary key index %s%n", table, rows, size);
+        }
+    }
+}
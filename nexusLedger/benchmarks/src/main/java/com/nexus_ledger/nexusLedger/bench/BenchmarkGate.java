@@ -0,0 +1,75 @@
+package com.nexus_ledger.nexusLedger.bench;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Fails the build when a JMH run regresses past the limits in gate.properties.
+ * Keys are "Class.method.min-thrpt" (ops per score unit, Throughput mode) and
+ * "Class.method.max-p99" (score unit per op, SampleTime mode). Benchmarks without a limit are reported only.
+ */
+public final class BenchmarkGate {
+
+    private BenchmarkGate() { }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 2) {
+            System.err.println("usage: BenchmarkGate <jmh-result.json> <gate.properties>");
+            System.exit(2);
+        }
+
+        // 1. Load results and limits
+        JsonNode results = new ObjectMapper().readTree(new File(args[0]));
+        Properties limits = new Properties();
+        try (Reader reader = new FileReader(args[1])) {
+            limits.load(reader);
+        }
+
+        // 2. Compare every result against its limit, if any
+        List<String> violations = new ArrayList<>();
+        for (JsonNode result : results) {
+            String name = simpleName(result.path("benchmark").asText());
+            String mode = result.path("mode").asText();
+            JsonNode metric = result.path("primaryMetric");
+            String unit = metric.path("scoreUnit").asText();
+
+            if ("thrpt".equals(mode)) {
+                double score = metric.path("score").asDouble();
+                System.out.printf("%-55s thrpt %,14.3f %s%n", name, score, unit);
+                String min = limits.getProperty(name + ".min-thrpt");
+                if (min != null && score < Double.parseDouble(min)) {
+                    violations.add(name + " throughput " + score + " " + unit + " < " + min);
+                }
+            } else if ("sample".equals(mode)) {
+                double p99 = metric.path("scorePercentiles").path("99.0").asDouble();
+                System.out.printf("%-55s p99   %,14.3f %s%n", name, p99, unit);
+                String max = limits.getProperty(name + ".max-p99");
+                if (max != null && p99 > Double.parseDouble(max)) {
+                    violations.add(name + " p99 " + p99 + " " + unit + " > " + max);
+                }
+            }
+        }
+
+        // 3. Non-zero exit fails the Maven build
+        if (!violations.isEmpty()) {
+            System.err.println("Benchmark regression:");
+            violations.forEach(v -> System.err.println("  " + v));
+            System.exit(1);
+        }
+        System.out.println("Benchmark gate passed");
+    }
+
+    // "com.nexus_ledger.nexusLedger.bench.LedgerServiceBenchmark.transferSpread" -> "LedgerServiceBenchmark.transferSpread"
+    private static String simpleName(String benchmark) {
+        int method = benchmark.lastIndexOf('.');
+        int type = benchmark.lastIndexOf('.', method - 1);
+        return benchmark.substring(type + 1);
+    }
+}
@@ -0,0 +1,107 @@
+package com.nexus_ledger.nexusLedger.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nexus_ledger.nexusLedger.dto.TransferCommand;
+import com.nexus_ledger.nexusLedger.kafkaTransaction.TransactionConsumer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The consumer side of a transfer without any I/O: JSON decoding as the legacy JsonDeserializer did it,
+ * the Map -> TransferCommand step (BigDecimal and UUID parsing), and a full consume() call with
+ * a stub FraudSentryService and no-op ledger. The binary wire format is covered by WireFormatBenchmark.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ConsumerBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private static final Acknowledgment NO_ACK = () -> { }; // No container behind the benchmark
+
+    private TransactionConsumer consumer;
+    private byte[] json;
+    private Map<String, Object> message;
+    private TransferCommand command;
+    private String amountText;
+    private Double amountDouble;
+    private String uuidText;
+    private UUID uuid;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() throws Exception {
+        consumer = Stubs.transactionConsumer();
+
+        Map<String, Object> data = new HashMap<>();
+        data.put("fromId", UUID.randomUUID().toString());
+        data.put("toId", UUID.randomUUID().toString());
+        data.put("amount", new BigDecimal("1234.56"));
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("key", UUID.randomUUID().toString());
+        payload.put("data", data);
+
+        json = objectMapper.writeValueAsBytes(payload);
+        message = objectMapper.readValue(json, Map.class);
+        command = TransferCommand.fromMessage(message);
+        amountText = "1234.56";
+        amountDouble = 1234.56;
+        uuidText = UUID.randomUUID().toString();
+        uuid = UUID.fromString(uuidText);
+    }
+
+    @Benchmark
+    public Map<?, ?> decodeJson() throws Exception {
+        return objectMapper.readValue(json, Map.class);
+    }
+
+    @Benchmark
+    public TransferCommand decodeCommand() {
+        return TransferCommand.fromMessage(message);
+    }
+
+    @Benchmark
+    public void consumeWithStubs() {
+        consumer.consume(command, NO_ACK);
+    }
+
+    // What TransferEventDeserializer does (USE_BIG_DECIMAL_FOR_FLOATS): the number text straight to a BigDecimal
+    @Benchmark
+    public BigDecimal parseAmountText() {
+        return new BigDecimal(amountText);
+    }
+
+    // Legacy baseline, before USE_BIG_DECIMAL_FOR_FLOATS: JsonDeserializer handed back a Double, re-parsed via toString()
+    @Benchmark
+    public BigDecimal parseAmountViaDouble() {
+        return new BigDecimal(amountDouble.toString());
+    }
+
+    @Benchmark
+    public UUID parseUuid() {
+        return UUID.fromString(uuidText);
+    }
+
+    @Benchmark
+    public String formatUuid() {
+        return uuid.toString();
+    }
+}
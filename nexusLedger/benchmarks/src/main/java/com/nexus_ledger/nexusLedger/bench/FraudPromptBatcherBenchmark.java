@@ -0,0 +1,105 @@
+package com.nexus_ledger.nexusLedger.bench;
+
+import com.nexus_ledger.nexusLedger.service.ai.FraudPromptBatcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.Prompt;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * LLM-tier verdicts with and without prompt micro-batching, from 32 threads each waiting on its own
+ * verdict (what the async scoring stage looks like to the batcher). The model is a local stand-in that
+ * serves one call at a time for 10 ms plus 1 ms per transfer, so maxBatch=1 is one call per transfer and
+ * maxBatch=16 pays the fixed overhead once per batch. Compare the Throughput scores for the gain and the
+ * SampleTime p99 for what the wait for a batch to fill costs each transfer.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(32)
+@State(Scope.Benchmark)
+public class FraudPromptBatcherBenchmark {
+
+    @Param({"1", "16"})
+    public int maxBatch;
+
+    private FraudPromptBatcher batcher;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        batcher = new FraudPromptBatcher(new StubChatModel(), true, maxBatch, maxBatch == 1 ? 0 : 20);
+        batcher.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        batcher.shutdown();
+    }
+
+    @Benchmark
+    public boolean verdict() {
+        BigDecimal amount = BigDecimal.valueOf(ThreadLocalRandom.current().nextInt(10) == 0 ? 5000 : 250);
+        return batcher.submit(amount, UUID.randomUUID(), null).join();
+    }
+
+    // Fixed per-call overhead plus a small per-transfer cost; anything over $1000 is FRAUD
+    private static final class StubChatModel implements ChatModel {
+
+        private static final Pattern ITEM = Pattern.compile("(?m)^(\\d+)\\. Account \\S+ is attempting to move \\$(\\S+)\\.$");
+        private static final Pattern SINGLE = Pattern.compile("move \\$(\\S+)\\.");
+
+        @Override
+        public ChatResponse call(Prompt prompt) {
+            throw new UnsupportedOperationException("String prompts only");
+        }
+
+        @Override
+        public synchronized String call(String message) {
+            StringBuilder reply = new StringBuilder();
+            int items = 0;
+            Matcher item = ITEM.matcher(message);
+            while (item.find()) {
+                items++;
+                reply.append(item.group(1)).append(": ").append(verdict(item.group(2))).append('\n');
+            }
+            try {
+                Thread.sleep(10 + Math.max(items, 1));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            if (items == 0) {
+                Matcher single = SINGLE.matcher(message);
+                single.find();
+                return verdict(single.group(1));
+            }
+            return reply.toString();
+        }
+
+        private static String verdict(String amount) {
+            return new BigDecimal(amount).compareTo(BigDecimal.valueOf(1000)) > 0 ? "FRAUD" : "SAFE";
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.nexus_ledger.nexusLedger.bench;
+
+import com.nexus_ledger.nexusLedger.module.FxRate;
+import com.nexus_ledger.nexusLedger.service.fx.FxRateTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The conversion step of a cross-currency transfer: FxRateTable.convert on minor units against the
+ * straightforward BigDecimal multiply-and-round, and convert while another thread keeps publishing
+ * fresh rate tables (readers should not slow down: the swap is a volatile write, never a lock).
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FxConversionBenchmark {
+
+    private static final String[] CURRENCIES = {"USD", "EUR", "GBP", "JPY", "CHF", "BHD"};
+    private static final BigDecimal[] TO_USD = {
+            BigDecimal.ONE, new BigDecimal("1.085"), new BigDecimal("1.27"),
+            new BigDecimal("0.0067"), new BigDecimal("1.12"), new BigDecimal("2.65")};
+
+    private final FxRateTable table = new FxRateTable(null, null, "");
+    private List<FxRate> rates;
+
+    @Setup
+    public void setup() {
+        rates = new ArrayList<>();
+        for (int i = 0; i < CURRENCIES.length; i++) {
+            for (int j = 0; j < CURRENCIES.length; j++) {
+                if (i == j) continue;
+                rates.add(new FxRate(CURRENCIES[i], CURRENCIES[j],
+                        TO_USD[i].divide(TO_USD[j], 12, RoundingMode.HALF_EVEN), null));
+            }
+        }
+        table.publish(rates);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long convertMinor() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return table.convert(random.nextLong(1, 10_000_000), CURRENCIES[random.nextInt(3)], CURRENCIES[3 + random.nextInt(3)]);
+    }
+
+    // Same work on BigDecimal: amount * rate, rounded half-even to the target's minor unit
+    @Benchmark
+    @Threads(4)
+    public BigDecimal convertDecimal() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int from = random.nextInt(3);
+        int to = 3 + random.nextInt(3);
+        BigDecimal amount = BigDecimal.valueOf(random.nextLong(1, 10_000_000), 2);
+        return amount.multiply(table.rate(CURRENCIES[from], CURRENCIES[to]))
+                .setScale(to == 3 ? 0 : to == 5 ? 3 : 2, RoundingMode.HALF_EVEN);
+    }
+
+    @Benchmark
+    @Group("refreshing")
+    @GroupThreads(3)
+    public long convertWhileRefreshing() {
+        return convertMinor();
+    }
+
+    @Benchmark
+    @Group("refreshing")
+    @GroupThreads(1)
+    public void publishRates() {
+        table.publish(rates);
+    }
+}
@@ -0,0 +1,79 @@
+package com.nexus_ledger.nexusLedger.bench;
+
+import com.nexus_ledger.nexusLedger.repository.AccountRepository;
+import com.nexus_ledger.nexusLedger.service.LedgerService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Many threads moving money back and forth between a handful of accounts: every transfer touches
+ * two rows that other threads are locking in the opposite direction, which is the deadlock-prone
+ * shape the ordered locking in LedgerService exists for. Lock retries taken during the run are
+ * printed at teardown; with canonical ordering they should stay at (or near) zero.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HotAccountContentionBenchmark {
+
+    private static final BigDecimal AMOUNT = new BigDecimal("1.25");
+    private static final String CURRENCY = "USD"; // What LedgerBenchContext opens its accounts in
+
+    @Param({"2", "4"})
+    public int hotAccounts;
+
+    private ConfigurableApplicationContext context;
+    private LedgerService ledgerService;
+    private List<UUID> accounts;
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = LedgerBenchContext.start("contention-bench-" + hotAccounts);
+        ledgerService = context.getBean(LedgerService.class);
+        accounts = LedgerBenchContext.seedAccounts(context.getBean(AccountRepository.class), hotAccounts);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        MeterRegistry registry = context.getBean(MeterRegistry.class);
+        System.out.printf("%n%d hot accounts: %.0f lock retries, %.0f exhausted%n", hotAccounts,
+                registry.counter("ledger.lock.retries", "result", "retried").count(),
+                registry.counter("ledger.lock.retries", "result", "exhausted").count());
+        context.close();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public BigDecimal transferBetweenHotAccounts() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int from = random.nextInt(accounts.size());
+        int to = (from + random.nextInt(1, accounts.size())) % accounts.size();
+        return ledgerService.executeTransfer(accounts.get(from), accounts.get(to), AMOUNT, CURRENCY,
+                "CONTENTION-" + sequence.incrementAndGet());
+    }
+}
@@ -0,0 +1,119 @@
+package com.nexus_ledger.nexusLedger.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writing 100 journal legs the way Hibernate does under each id strategy:
+ *  - identity: the id comes back from the INSERT, so every row is its own statement round trip
+ *  - sequence: one nextval reserves 50 ids (pooled optimizer), then the rows go out as one JDBC batch
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class JournalIdBenchmark {
+
+    private static final int LEGS = 100;
+    private static final int ALLOCATION_SIZE = 50;
+
+    @Param({"identity", "sequence"})
+    public String strategy;
+
+    private Connection connection;
+    private PreparedStatement insertIdentity;
+    private PreparedStatement insertWithId;
+    private PreparedStatement nextBlock;
+    private String table;
+    private long nextId;
+    private long blockEnd;
+    private final UUID accountId = UUID.randomUUID();
+    private final UUID transactionId = UUID.randomUUID();
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        table = "bench_journal_" + strategy;
+        connection = BenchDatabase.connect("journal_ids");
+        BenchDatabase.execute(connection,
+                "DROP TABLE IF EXISTS " + table,
+                "DROP SEQUENCE IF EXISTS " + table + "_seq",
+                "CREATE SEQUENCE " + table + "_seq INCREMENT BY " + ALLOCATION_SIZE,
+                "CREATE TABLE " + table + " (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+                        + "transaction_id UUID, account_id UUID, amount NUMERIC(38, 2))");
+        connection.setAutoCommit(false);
+        insertIdentity = connection.prepareStatement(
+                "INSERT INTO " + table + " (transaction_id, account_id, amount) VALUES (?, ?, ?)",
+                Statement.RETURN_GENERATED_KEYS);
+        insertWithId = connection.prepareStatement(
+                "INSERT INTO " + table + " (id, transaction_id, account_id, amount) VALUES (?, ?, ?, ?)");
+        nextBlock = connection.prepareStatement("SELECT nextval('" + table + "_seq')");
+    }
+
+    @Benchmark
+    public long insertLegs() throws Exception {
+        long lastId = 0;
+        if (strategy.equals("identity")) {
+            for (int i = 0; i < LEGS; i++) {
+                insertIdentity.setObject(1, transactionId);
+                insertIdentity.setObject(2, accountId);
+                insertIdentity.setBigDecimal(3, BigDecimal.ONE);
+                insertIdentity.executeUpdate();
+                try (ResultSet keys = insertIdentity.getGeneratedKeys()) {
+                    keys.next();
+                    lastId = keys.getLong(1);
+                }
+            }
+        } else {
+            for (int i = 0; i < LEGS; i++) {
+                lastId = nextId();
+                insertWithId.setLong(1, lastId);
+                insertWithId.setObject(2, transactionId);
+                insertWithId.setObject(3, accountId);
+                insertWithId.setBigDecimal(4, BigDecimal.ONE);
+                insertWithId.addBatch();
+            }
+            insertWithId.executeBatch();
+        }
+        connection.commit();
+        return lastId;
+    }
+
+    // Pooled optimizer: nextval returns the top of a block of ALLOCATION_SIZE ids
+    private long nextId() throws Exception {
+        if (nextId == 0 || nextId > blockEnd) {
+            try (ResultSet rs = nextBlock.executeQuery()) {
+                rs.next();
+                blockEnd = rs.getLong(1) + ALLOCATION_SIZE;
+                nextId = blockEnd - ALLOCATION_SIZE + 1;
+            }
+        }
+        return nextId++;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        BenchDatabase.report(connection, table);
+        connection.close();
+    }
+}
@@ -0,0 +1,90 @@
+package com.nexus_ledger.nexusLedger.bench;
+
+import com.nexus_ledger.nexusLedger.module.Account;
+import com.nexus_ledger.nexusLedger.repository.AccountRepository;
+import com.nexus_ledger.nexusLedger.service.AccountSharding;
+import com.nexus_ledger.nexusLedger.service.LedgerJdbcWriter;
+import com.nexus_ledger.nexusLedger.service.LedgerService;
+import com.nexus_ledger.nexusLedger.service.LockRetry;
+import com.nexus_ledger.nexusLedger.service.fx.FxPositions;
+import com.nexus_ledger.nexusLedger.service.fx.FxRateTable;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.jpa.JpaRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Just the persistence slice of the ledger (entities, repositories, LedgerService) on an in-memory
+ * H2 database in PostgreSQL mode. Kafka, Ollama, security and the web layer are left out so the
+ * benchmarks measure the ledger and nothing else.
+ */
+@SpringBootConfiguration
+@ImportAutoConfiguration({
+        DataSourceAutoConfiguration.class,
+        DataSourceTransactionManagerAutoConfiguration.class,
+        JdbcTemplateAutoConfiguration.class,
+        HibernateJpaAutoConfiguration.class,
+        JpaRepositoriesAutoConfiguration.class,
+        TransactionAutoConfiguration.class
+})
+@EntityScan("com.nexus_ledger.nexusLedger.module")
+@EnableJpaRepositories("com.nexus_ledger.nexusLedger.repository")
+// write-path defaults to jpa: the jdbc statement is PostgreSQL-only
+@Import({LedgerService.class, LedgerJdbcWriter.class, LockRetry.class, AccountSharding.class, FxRateTable.class, FxPositions.class})
+public class LedgerBenchContext {
+
+    // Metrics auto-configuration is left out; this one holds the lock-retry counters
+    @Bean
+    MeterRegistry meterRegistry() {
+        return new SimpleMeterRegistry();
+    }
+
+    public static ConfigurableApplicationContext start(String name) {
+        return new SpringApplicationBuilder(LedgerBenchContext.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:" + name + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "spring.datasource.username=sa",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "spring.jpa.open-in-view=false",
+                        "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+                        "spring.jpa.properties.hibernate.order_inserts=true",
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN")
+                .run();
+    }
+
+    // Creates `count` accounts with a balance large enough that benchmarks never run dry
+    public static List<UUID> seedAccounts(AccountRepository accountRepo, int count) {
+        List<Account> accounts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Account account = new Account();
+            account.setId(UUID.randomUUID());
+            account.setAccountNumber("ACC-BENCH-" + i);
+            account.setOwnerName("Bench " + i);
+            account.setBalance(new BigDecimal("1000000000.00"));
+            account.setCurrency("USD");
+            accounts.add(account);
+        }
+        return accountRepo.saveAll(accounts).stream().map(Account::getId).toList();
+    }
+}
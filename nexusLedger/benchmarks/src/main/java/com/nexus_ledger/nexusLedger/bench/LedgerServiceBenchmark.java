@@ -0,0 +1,122 @@
+package com.nexus_ledger.nexusLedger.bench;
+
+import com.nexus_ledger.nexusLedger.module.IdempotencyRecord;
+import com.nexus_ledger.nexusLedger.repository.AccountRepository;
+import com.nexus_ledger.nexusLedger.repository.IdempotencyRepository;
+import com.nexus_ledger.nexusLedger.service.AccountSharding;
+import com.nexus_ledger.nexusLedger.service.LedgerService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * LedgerService.executeTransfer against an embedded database: spread across many accounts,
+ * and with every thread paying into one hot account (the seeded "System Receiver" pattern), both as
+ * a plain row and sharded over slot rows (AccountSharding).
+ * Throughput plus SampleTime, which reports p99 for the release gate.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LedgerServiceBenchmark {
+
+    private static final BigDecimal AMOUNT = new BigDecimal("1.25");
+    private static final String CURRENCY = "USD"; // What LedgerBenchContext opens its accounts in
+
+    private ConfigurableApplicationContext context;
+    private LedgerService ledgerService;
+    private IdempotencyRepository idempotencyRepo;
+    private List<UUID> accounts;
+    private UUID hotAccount;
+    private UUID shardedHotAccount;
+    private List<String> knownKeys;
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = LedgerBenchContext.start("ledger-bench");
+        ledgerService = context.getBean(LedgerService.class);
+        idempotencyRepo = context.getBean(IdempotencyRepository.class);
+        accounts = LedgerBenchContext.seedAccounts(context.getBean(AccountRepository.class), 1_000);
+        hotAccount = accounts.get(0);
+        shardedHotAccount = accounts.get(1);
+        context.getBean(AccountSharding.class).shard(shardedHotAccount, 16);
+
+        knownKeys = new ArrayList<>();
+        List<IdempotencyRecord> records = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            IdempotencyRecord record = new IdempotencyRecord();
+            record.setIdempotencyKey(UUID.randomUUID().toString());
+            record.setResponseBody("SUCCESS");
+            record.setStatusCode(200);
+            record.setFromId(accounts.get(i % accounts.size()).toString());
+            record.setToId(hotAccount.toString());
+            record.setAmount(AMOUNT);
+            records.add(record);
+            knownKeys.add(record.getIdempotencyKey());
+        }
+        idempotencyRepo.saveAll(records);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void transferSpread() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        UUID from = accounts.get(random.nextInt(2, accounts.size()));
+        UUID to = accounts.get(random.nextInt(2, accounts.size()));
+        ledgerService.executeTransfer(from, to, AMOUNT, CURRENCY, "BENCH-" + sequence.incrementAndGet());
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void transferIntoHotAccount() {
+        UUID from = accounts.get(ThreadLocalRandom.current().nextInt(2, accounts.size()));
+        ledgerService.executeTransfer(from, hotAccount, AMOUNT, CURRENCY, "BENCH-" + sequence.incrementAndGet());
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void transferIntoShardedHotAccount() {
+        UUID from = accounts.get(ThreadLocalRandom.current().nextInt(2, accounts.size()));
+        ledgerService.executeTransfer(from, shardedHotAccount, AMOUNT, CURRENCY, "BENCH-" + sequence.incrementAndGet());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean idempotencyLookupHit() {
+        return idempotencyRepo.existsById(knownKeys.get(ThreadLocalRandom.current().nextInt(knownKeys.size())));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean idempotencyLookupMiss() {
+        return idempotencyRepo.existsById(UUID.randomUUID().toString());
+    }
+}
@@ -0,0 +1,132 @@
+package com.nexus_ledger.nexusLedger.bench;
+
+import com.nexus_ledger.nexusLedger.dto.TransferCommand;
+import com.nexus_ledger.nexusLedger.kafkaTransaction.TransferEventSerializer;
+import com.nexus_ledger.nexusLedger.kafkaTransaction.TransferEventDeserializer;
+import com.nexus_ledger.nexusLedger.util.MoneyTally;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BigDecimal vs long minor units on the ledger's in-memory hot paths, each pair doing the same work:
+ * the running-balance validation of LedgerService.executeBatch over one consumer poll, a BalanceEngine
+ * debit + credit, and decoding a binary event up to the amount the consumer acts on.
+ * Run with "-prof gc" to see the allocation rate (gc.alloc.rate.norm = bytes per operation).
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MoneyBenchmark {
+
+    private static final int ACCOUNTS = 50;
+    private static final int BATCH = 500;
+
+    private final List<UUID> accounts = new ArrayList<>(ACCOUNTS);
+    private final List<TransferCommand> batch = new ArrayList<>(BATCH);
+    private final Map<UUID, BigDecimal> decimalBalances = new HashMap<>();
+    private final Map<UUID, MoneyTally> minorBalances = new HashMap<>();
+    private final TransferEventDeserializer deserializer = new TransferEventDeserializer();
+    private byte[] event;
+    private int next;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        for (int i = 0; i < ACCOUNTS; i++) {
+            UUID id = UUID.randomUUID();
+            accounts.add(id);
+            decimalBalances.put(id, new BigDecimal("1000000000.00"));
+            minorBalances.put(id, MoneyTally.of(new BigDecimal("1000000000.00"), "USD"));
+        }
+        for (int i = 0; i < BATCH; i++) {
+            batch.add(new TransferCommand(UUID.randomUUID().toString(), accounts.get(random.nextInt(ACCOUNTS)),
+                    accounts.get(random.nextInt(ACCOUNTS)), BigDecimal.valueOf(random.nextInt(1, 100_000), 2), "USD"));
+        }
+        TransferEventSerializer serializer = new TransferEventSerializer();
+        serializer.configure(Map.of(TransferEventSerializer.FORMAT_CONFIG, "binary"), false);
+        event = serializer.serialize("financial-transactions", batch.get(0));
+    }
+
+    // executeBatch step 2 as it was: a BigDecimal per compare operand, negate and merge
+    @Benchmark
+    public int validateBatchDecimal() {
+        Map<UUID, BigDecimal> balances = new HashMap<>(decimalBalances);
+        int applied = 0;
+        for (TransferCommand cmd : batch) {
+            BigDecimal amount = cmd.getAmount();
+            if (balances.get(cmd.getFromId()).compareTo(amount) < 0) continue;
+            balances.merge(cmd.getFromId(), amount.negate(), BigDecimal::add);
+            balances.merge(cmd.getToId(), amount, BigDecimal::add);
+            applied++;
+        }
+        return applied;
+    }
+
+    // executeBatch step 2 now: one tally per account, updated in place
+    @Benchmark
+    public int validateBatchMinor() {
+        Map<UUID, MoneyTally> balances = new HashMap<>(ACCOUNTS * 2);
+        minorBalances.forEach((id, tally) -> balances.put(id, new MoneyTally(tally.currency(), tally.minor())));
+        int applied = 0;
+        for (TransferCommand cmd : batch) {
+            long amount = cmd.getAmountMinor();
+            MoneyTally from = balances.get(cmd.getFromId());
+            if (!from.covers(amount)) continue;
+            from.subtract(amount);
+            balances.get(cmd.getToId()).add(amount);
+            applied++;
+        }
+        return applied;
+    }
+
+    @Benchmark
+    public BigDecimal engineTransferDecimal() {
+        TransferCommand cmd = batch.get(next++ % BATCH);
+        BigDecimal amount = cmd.getAmount();
+        BigDecimal after = decimalBalances.get(cmd.getFromId()).subtract(amount);
+        decimalBalances.put(cmd.getFromId(), after);
+        decimalBalances.put(cmd.getToId(), decimalBalances.get(cmd.getToId()).add(amount));
+        return after;
+    }
+
+    @Benchmark
+    public long engineTransferMinor() {
+        TransferCommand cmd = batch.get(next++ % BATCH);
+        MoneyTally from = minorBalances.get(cmd.getFromId());
+        from.subtract(cmd.getAmountMinor());
+        minorBalances.get(cmd.getToId()).add(cmd.getAmountMinor());
+        return from.minor();
+    }
+
+    // What the consumer used to get from the decoder (a BigDecimal amount)...
+    @Benchmark
+    public BigDecimal decodeToDecimal() {
+        return deserializer.deserialize("financial-transactions", event).getAmount();
+    }
+
+    // ...and what it gets now (minor units; the BigDecimal view is only built if asked for)
+    @Benchmark
+    public long decodeToMinor() {
+        return deserializer.deserialize("financial-transactions", event).getAmountMinor();
+    }
+}
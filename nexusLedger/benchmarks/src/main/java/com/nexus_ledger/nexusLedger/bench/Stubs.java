@@ -0,0 +1,97 @@
+package com.nexus_ledger.nexusLedger.bench;
+
+import com.nexus_ledger.nexusLedger.dto.TransferCommand;
+import com.nexus_ledger.nexusLedger.kafkaTransaction.AccountLanes;
+import com.nexus_ledger.nexusLedger.kafkaTransaction.AccountOrderedExecutor;
+import com.nexus_ledger.nexusLedger.kafkaTransaction.TransactionConsumer;
+import com.nexus_ledger.nexusLedger.repository.IdempotencyRepository;
+import com.nexus_ledger.nexusLedger.service.IdempotencyIndex;
+import com.nexus_ledger.nexusLedger.service.LedgerService;
+import com.nexus_ledger.nexusLedger.service.ai.FraudScoringStage;
+import com.nexus_ledger.nexusLedger.service.ai.FraudSentryService;
+import com.nexus_ledger.nexusLedger.service.push.BalancePushAggregator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * In-process stand-ins so TransactionConsumer can be driven without Kafka, a database or a model:
+ * the fraud check always clears, the ledger call is a no-op, the idempotency repository answers from
+ * memory and WebSocket pushes go to a channel that drops them.
+ */
+final class Stubs {
+
+    private Stubs() { }
+
+    static TransactionConsumer transactionConsumer() {
+        FraudSentryService fraud = safeFraudSentry();
+        return new TransactionConsumer(
+                noOpLedger(),
+                idempotencyRepository(),
+                idempotencyIndex(),
+                fraud,
+                new FraudScoringStage(fraud, new SimpleMeterRegistry(), false, 1, 1_000, FraudScoringStage.FallbackPolicy.ALLOW),
+                new AccountOrderedExecutor(1, 0),
+                new AccountLanes(1, 1, 1),
+                pushAggregator(),
+                null, // Only the batch listener needs a TransactionTemplate
+                Optional.empty());
+    }
+
+    static FraudSentryService safeFraudSentry() {
+        return new FraudSentryService(null, null, null, new SimpleMeterRegistry(), 16, 1_000) {
+            @Override
+            public Boolean screen(TransferCommand cmd) {
+                return false;
+            }
+        };
+    }
+
+    static LedgerService noOpLedger() {
+        return new LedgerService(null, null, null, null, null, null, null) {
+            @Override
+            public BigDecimal executeTransfer(UUID fromId, UUID toId, BigDecimal amount, String currency, String ref) {
+                return BigDecimal.ZERO;
+            }
+        };
+    }
+
+    // Every key is unseen, so each consume() takes the full path
+    static IdempotencyRepository idempotencyRepository() {
+        return repository(IdempotencyRepository.class, null);
+    }
+
+    // Disabled index: every lookup goes straight to the (stub) repository
+    static IdempotencyIndex idempotencyIndex() {
+        return new IdempotencyIndex(idempotencyRepository(), null, null, new SimpleMeterRegistry(),
+                false, 1, 0.01, 16, 1);
+    }
+
+    // Pushes straight through (no coalescing window) to a channel that drops them
+    static BalancePushAggregator pushAggregator() {
+        return new BalancePushAggregator(new SimpMessagingTemplate((message, timeout) -> true),
+                new SimpleMeterRegistry(), false, 250, 16, false);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T repository(Class<T> type, Object entity) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            return switch (method.getName()) {
+                case "existsById" -> false;
+                case "findById" -> Optional.ofNullable(entity);
+                case "findAllById" -> List.of();
+                case "save" -> args[0];
+                case "saveAll" -> args[0];
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "equals" -> proxy == args[0];
+                case "toString" -> type.getSimpleName() + "Stub";
+                default -> null;
+            };
+        });
+    }
+}
@@ -0,0 +1,80 @@
+package com.nexus_ledger.nexusLedger.bench;
+
+import com.nexus_ledger.nexusLedger.util.UuidV7;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transaction header inserts keyed by random (v4) vs time-ordered (v7) UUIDs, 100 rows per JDBC batch.
+ * The table grows through the whole run, so late iterations show the cost of a large, fragmented index;
+ * the primary key size is printed at the end (PostgreSQL only).
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class TransactionIdBenchmark {
+
+    private static final int BATCH = 100;
+
+    @Param({"random-v4", "time-v7"})
+    public String idType;
+
+    private Connection connection;
+    private PreparedStatement insert;
+    private String table;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        table = "bench_tx_" + idType.replace('-', '_');
+        connection = BenchDatabase.connect("tx_ids");
+        BenchDatabase.execute(connection,
+                "DROP TABLE IF EXISTS " + table,
+                "CREATE TABLE " + table + " (id UUID PRIMARY KEY, description VARCHAR(255), "
+                        + "reference_id VARCHAR(255), created_at TIMESTAMP)");
+        connection.setAutoCommit(false);
+        insert = connection.prepareStatement("INSERT INTO " + table
+                + " (id, description, reference_id, created_at) VALUES (?, 'TRANSFER', ?, ?)");
+    }
+
+    @Benchmark
+    public int[] insertBatch() throws Exception {
+        boolean ordered = idType.equals("time-v7");
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        for (int i = 0; i < BATCH; i++) {
+            UUID id = ordered ? UuidV7.next() : UUID.randomUUID();
+            insert.setObject(1, id);
+            insert.setString(2, id.toString());
+            insert.setTimestamp(3, now);
+            insert.addBatch();
+        }
+        int[] counts = insert.executeBatch();
+        connection.commit();
+        return counts;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        BenchDatabase.report(connection, table);
+        connection.close();
+    }
+}
@@ -0,0 +1,60 @@
+package com.nexus_ledger.nexusLedger.bench;
+
+import com.nexus_ledger.nexusLedger.service.ai.VelocityFeatureStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The per-transfer cost the fraud rule tier pays for its velocity features: record a transfer into
+ * the sender's 1m/1h/24h windows and read the features back, from 8 threads, over a working set that
+ * either fits the store or keeps evicting (accounts > tracked-accounts).
+ * Run with "-prof gc": after warm-up only the returned Features record should be allocated per call.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class VelocityFeatureBenchmark {
+
+    private static final int TRACKED = 10_000;
+    private static final int RECIPIENTS = 256;
+
+    @Param({"1000", "50000"})
+    public int accounts;
+
+    private final VelocityFeatureStore store = new VelocityFeatureStore(TRACKED, 32);
+    private UUID[] senders;
+    private UUID[] recipients;
+
+    @Setup
+    public void setup() {
+        senders = new UUID[accounts];
+        for (int i = 0; i < accounts; i++) senders[i] = UUID.randomUUID();
+        recipients = new UUID[RECIPIENTS];
+        for (int i = 0; i < RECIPIENTS; i++) recipients[i] = UUID.randomUUID();
+    }
+
+    @Benchmark
+    public VelocityFeatureStore.Features recordAndRead() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return store.record(senders[random.nextInt(accounts)], recipients[random.nextInt(RECIPIENTS)],
+                random.nextLong(1, 100_000), "USD", System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,75 @@
+package com.nexus_ledger.nexusLedger.bench;
+
+import com.nexus_ledger.nexusLedger.dto.TransferCommand;
+import com.nexus_ledger.nexusLedger.kafkaTransaction.TransferEventDeserializer;
+import com.nexus_ledger.nexusLedger.kafkaTransaction.TransferEventSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode/decode cost of a transfer event, legacy JSON map vs TransferEventCodec binary, through the
+ * actual Kafka Serializer/Deserializer. Record sizes are printed at setup; add JMH's "-prof gc" to see
+ * bytes allocated per operation.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class WireFormatBenchmark {
+
+    private static final String TOPIC = "financial-transactions";
+
+    private final TransferEventSerializer jsonSerializer = new TransferEventSerializer();
+    private final TransferEventSerializer binarySerializer = new TransferEventSerializer();
+    private final TransferEventDeserializer deserializer = new TransferEventDeserializer();
+    private TransferCommand event;
+    private byte[] jsonBytes;
+    private byte[] binaryBytes;
+
+    @Setup
+    public void setup() {
+        jsonSerializer.configure(Map.of(TransferEventSerializer.FORMAT_CONFIG, "json"), false);
+        binarySerializer.configure(Map.of(TransferEventSerializer.FORMAT_CONFIG, "binary"), false);
+
+        event = new TransferCommand(UUID.randomUUID().toString(), UUID.randomUUID(), UUID.randomUUID(),
+                new BigDecimal("1234.56"), "USD");
+        jsonBytes = jsonSerializer.serialize(TOPIC, event);
+        binaryBytes = binarySerializer.serialize(TOPIC, event);
+        System.out.printf("%nRecord size: json %d bytes, binary %d bytes%n", jsonBytes.length, binaryBytes.length);
+    }
+
+    @Benchmark
+    public byte[] encodeJson() {
+        return jsonSerializer.serialize(TOPIC, event);
+    }
+
+    @Benchmark
+    public byte[] encodeBinary() {
+        return binarySerializer.serialize(TOPIC, event);
+    }
+
+    @Benchmark
+    public TransferCommand decodeJson() {
+        return deserializer.deserialize(TOPIC, jsonBytes);
+    }
+
+    @Benchmark
+    public TransferCommand decodeBinary() {
+        return deserializer.deserialize(TOPIC, binaryBytes);
+    }
+}
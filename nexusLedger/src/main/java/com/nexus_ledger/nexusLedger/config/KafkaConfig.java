@@ -0,0 +1,42 @@
+package com.nexus_ledger.nexusLedger.config;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+
+@Configuration
+public class KafkaConfig {
+
+    // Declared so the partition count matches the listener concurrency (both nexus.kafka.partitions).
+    // KafkaAdmin creates the topic, or adds partitions to an existing one; it never removes them.
+    // Adding partitions remaps accounts, so drain the topic before raising the count.
+    @Bean
+    public NewTopic financialTransactionsTopic(@Value("${nexus.kafka.partitions:12}") int partitions,
+                                              @Value("${nexus.kafka.replicas:1}") short replicas) {
+        return TopicBuilder.name("financial-transactions")
+                .partitions(partitions)
+                .replicas(replicas)
+                .build();
+    }
+
+    // Record listener that acknowledges each record itself, once the ledger has settled it. Acks may come
+    // out of order (async fraud verdicts): the container commits up to the lowest unacknowledged offset and
+    // pauses the consumer until the previous poll is fully acknowledged, so at most max-poll-records
+    // transfers per listener are ever queued behind a verdict.
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> settledAckContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            ConsumerFactory<Object, Object> consumerFactory) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, consumerFactory);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.getContainerProperties().setAsyncAcks(true);
+        return factory;
+    }
+}
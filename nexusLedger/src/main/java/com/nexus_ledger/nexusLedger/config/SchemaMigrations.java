@@ -0,0 +1,142 @@
+package com.nexus_ledger.nexusLedger.config;
+
+import com.nexus_ledger.nexusLedger.module.JournalEntry;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Data fix-ups that ddl-auto=update cannot express. Runs once the EntityManagerFactory (and so the
+ * schema update) is ready, before the Kafka listeners start.
+ */
+@Slf4j
+@Component
+public class SchemaMigrations {
+
+    private static final Timestamp EPOCH = Timestamp.valueOf("1970-01-01 00:00:00");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean partitioningEnabled;
+
+    // Taking the EntityManagerFactory orders us after Hibernate has created the sequence
+    public SchemaMigrations(JdbcTemplate jdbcTemplate,
+                            PlatformTransactionManager transactionManager,
+                            EntityManagerFactory entityManagerFactory,
+                            @Value("${nexus.ledger.partitioning.enabled:false}") boolean partitioningEnabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.partitioningEnabled = partitioningEnabled;
+    }
+
+    @PostConstruct
+    void migrate() {
+        alignJournalSequence();
+        recordCommitXids();
+        if (partitioningEnabled) partitionByMonth();
+    }
+
+    // journal_entries ids used to come from an IDENTITY column; move the new pooled sequence past them.
+    // Hibernate's pooled optimizer hands out (value - allocationSize, value], hence the + allocationSize.
+    private void alignJournalSequence() {
+        Long floor = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(MAX(id), 0) + ? FROM journal_entries", Long.class, JournalEntry.ID_ALLOCATION_SIZE);
+        Long current = jdbcTemplate.queryForObject(
+                "SELECT last_value FROM " + JournalEntry.ID_SEQUENCE, Long.class);
+        if (current != null && floor != null && current < floor) {
+            jdbcTemplate.queryForObject("SELECT setval(?, ?)", Long.class, JournalEntry.ID_SEQUENCE, floor);
+            log.info("Moved {} from {} to {}", JournalEntry.ID_SEQUENCE, current, floor);
+        }
+    }
+
+    // journal_entries.tx_xid: the id of the transaction that wrote the leg. Unlike journal ids (drawn before
+    // commit, and in pooled blocks per instance) it gives replay a commit-ordered watermark, see
+    // ReplayEngine.commitMark. Added without a default first so existing rows are not rewritten; they stay
+    // NULL and count as committed before any mark.
+    private void recordCommitXids() {
+        jdbcTemplate.execute("ALTER TABLE journal_entries ADD COLUMN IF NOT EXISTS tx_xid bigint");
+        jdbcTemplate.execute("ALTER TABLE journal_entries ALTER COLUMN tx_xid SET DEFAULT (pg_current_xact_id()::text::bigint)");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_journal_tx_xid ON journal_entries (tx_xid)");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_journal_account_xid ON journal_entries (account_id, tx_xid)");
+
+        // Snapshots marked with a journal id can't be translated to an xid; they are derived data, so the
+        // next run bootstraps those accounts again from the projection
+        int stale = jdbcTemplate.update("DELETE FROM account_snapshots WHERE mark_xid IS NULL");
+        if (stale > 0) log.info("Dropped {} account snapshots taken against journal ids", stale);
+        jdbcTemplate.execute("ALTER TABLE account_snapshots DROP COLUMN IF EXISTS last_journal_id");
+
+        // Balance checkpoints likewise: the startup backfill rewrites every account's history against a mark
+        int stalePoints = jdbcTemplate.update("DELETE FROM balance_checkpoints WHERE mark_xid IS NULL");
+        if (stalePoints > 0) log.info("Dropped {} balance checkpoints taken against journal ids", stalePoints);
+    }
+
+    // One-time conversion of transactions and journal_entries into tables range-partitioned on created_at.
+    // The existing tables are attached as the first partition (MINVALUE up to next month), so no rows are
+    // copied; JournalPartitionManager creates the monthly partitions from there on.
+    private void partitionByMonth() {
+        String kind = jdbcTemplate.queryForObject(
+                "SELECT relkind::text FROM pg_class WHERE oid = to_regclass('journal_entries')", String.class);
+        if ("p".equals(kind)) return;
+
+        Timestamp boundary = Timestamp.valueOf(LocalDate.now().withDayOfMonth(1).plusMonths(1).atStartOfDay());
+        Map<String, String> journalIndexes = new LinkedHashMap<>();
+        journalIndexes.put("idx_journal_account_id", "account_id, id");
+        journalIndexes.put("idx_journal_transaction", "transaction_id");
+        journalIndexes.put("idx_journal_tx_xid", "tx_xid");
+        journalIndexes.put("idx_journal_account_xid", "account_id, tx_xid");
+
+        transactionTemplate.executeWithoutResult(status -> {
+            // 1. A foreign key into a partitioned table would have to include created_at; legs and their
+            //    header are always written in the same transaction, so the plain column is enough
+            jdbcTemplate.queryForList("""
+                    SELECT conname FROM pg_constraint WHERE conrelid = 'journal_entries'::regclass AND contype = 'f'
+                    """, String.class)
+                    .forEach(fk -> jdbcTemplate.execute("ALTER TABLE journal_entries DROP CONSTRAINT " + fk));
+
+            // 2. The partition key can't be NULL (legs from before created_at existed take their header's)
+            jdbcTemplate.update("""
+                    UPDATE journal_entries j SET created_at = t.created_at FROM transactions t
+                    WHERE j.created_at IS NULL AND t.id = j.transaction_id
+                    """);
+            jdbcTemplate.update("UPDATE journal_entries SET created_at = ? WHERE created_at IS NULL", EPOCH);
+            jdbcTemplate.update("UPDATE transactions SET created_at = ? WHERE created_at IS NULL", EPOCH);
+
+            // 3. Swap in the partitioned parents
+            attachAsFirstPartition("transactions", Map.of(), boundary);
+            attachAsFirstPartition("journal_entries", journalIndexes, boundary);
+        });
+        log.info("Partitioned transactions and journal_entries by month; existing rows kept in *_legacy up to {}", boundary);
+    }
+
+    private void attachAsFirstPartition(String table, Map<String, String> indexes, Timestamp boundary) {
+        String legacy = table + "_legacy";
+        String primaryKey = jdbcTemplate.queryForObject(
+                "SELECT conname FROM pg_constraint WHERE conrelid = ?::regclass AND contype = 'p'", String.class, table);
+
+        // 1. Free the names the new parent takes over
+        jdbcTemplate.execute("ALTER TABLE " + table + " RENAME TO " + legacy);
+        jdbcTemplate.execute("ALTER TABLE " + legacy + " RENAME CONSTRAINT " + primaryKey + " TO " + legacy + "_pkey");
+        indexes.keySet().forEach(index -> jdbcTemplate.execute("ALTER INDEX IF EXISTS " + index + " RENAME TO " + index + "_legacy"));
+        jdbcTemplate.execute("ALTER TABLE " + legacy + " ALTER COLUMN id DROP IDENTITY IF EXISTS");
+        jdbcTemplate.execute("ALTER TABLE " + legacy + " ALTER COLUMN created_at SET NOT NULL");
+
+        // 2. Partitioned parent with the same columns; the primary key has to include the partition key
+        jdbcTemplate.execute("CREATE TABLE " + table + " (LIKE " + legacy + " INCLUDING DEFAULTS) PARTITION BY RANGE (created_at)");
+        jdbcTemplate.execute("ALTER TABLE " + table + " ADD PRIMARY KEY (id, created_at)");
+        indexes.forEach((index, columns) -> jdbcTemplate.execute("CREATE INDEX " + index + " ON " + table + " (" + columns + ")"));
+
+        // 3. Existing rows become the first partition (matching legacy indexes are adopted, not rebuilt)
+        jdbcTemplate.execute("ALTER TABLE " + table + " ATTACH PARTITION " + legacy
+                + " FOR VALUES FROM (MINVALUE) TO ('" + boundary + "')");
+    }
+}
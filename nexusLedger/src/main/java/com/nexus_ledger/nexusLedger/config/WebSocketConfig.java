@@ -1,18 +1,77 @@
 package com.nexus_ledger.nexusLedger.config;
 
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
+/**
+ * STOMP over WebSocket for the dashboards. Two broker modes (nexus.ws.broker.mode):
+ *  - simple: in-process broker, fine for a single ledger instance
+ *  - relay:  subscriptions and fan-out live in an external STOMP broker (RabbitMQ, ActiveMQ Artemis),
+ *            so any ledger instance can publish to a dashboard connected to any other
+ * Channel thread pools, heartbeats and per-session send limits apply to both modes.
+ */
+@Slf4j
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    @Value("${nexus.ws.broker.mode:simple}")
+    private String mode;
+    @Value("${nexus.ws.broker.relay-host:localhost}")
+    private String relayHost;
+    @Value("${nexus.ws.broker.relay-port:61613}")
+    private int relayPort;
+    @Value("${nexus.ws.broker.relay-login:guest}")
+    private String relayLogin;
+    @Value("${nexus.ws.broker.relay-passcode:guest}")
+    private String relayPasscode;
+    @Value("${nexus.ws.broker.heartbeat-ms:10000}")
+    private long heartbeatMillis;
+    @Value("${nexus.ws.channel.inbound-threads:4}")
+    private int inboundThreads;
+    @Value("${nexus.ws.channel.outbound-threads:16}")
+    private int outboundThreads;
+    @Value("${nexus.ws.channel.queue-capacity:10000}")
+    private int queueCapacity;
+    @Value("${nexus.ws.transport.send-time-limit-ms:10000}")
+    private int sendTimeLimit;
+    @Value("${nexus.ws.transport.send-buffer-size-limit:524288}")
+    private int sendBufferSizeLimit;
+    @Value("${nexus.ws.transport.message-size-limit:65536}")
+    private int messageSizeLimit;
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        config.enableSimpleBroker("/topic"); // Outgoing messages
+        if ("relay".equalsIgnoreCase(mode)) {
+            log.info("WebSocket broker: relaying /topic to STOMP broker at {}:{}", relayHost, relayPort);
+            config.enableStompBrokerRelay("/topic") // Outgoing messages, fanned out by the external broker
+                    .setRelayHost(relayHost)
+                    .setRelayPort(relayPort)
+                    .setClientLogin(relayLogin)
+                    .setClientPasscode(relayPasscode)
+                    .setSystemLogin(relayLogin)
+                    .setSystemPasscode(relayPasscode)
+                    .setSystemHeartbeatSendInterval(heartbeatMillis)
+                    .setSystemHeartbeatReceiveInterval(heartbeatMillis);
+        } else {
+            // Heartbeats let the broker notice dead dashboards instead of buffering for them
+            ThreadPoolTaskScheduler heartbeats = new ThreadPoolTaskScheduler();
+            heartbeats.setPoolSize(1);
+            heartbeats.setThreadNamePrefix("ws-heartbeat-");
+            heartbeats.initialize();
+
+            config.enableSimpleBroker("/topic") // Outgoing messages
+                    .setTaskScheduler(heartbeats)
+                    .setHeartbeatValue(new long[]{heartbeatMillis, heartbeatMillis});
+        }
         config.setApplicationDestinationPrefixes("/app");
     }
 
@@ -20,4 +79,30 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     public void registerStompEndpoints(StompEndpointRegistry registry) {
         registry.addEndpoint("/ws-ledger").setAllowedOrigins("http://localhost:5173").withSockJS();
     }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor()
+                .corePoolSize(inboundThreads)
+                .maxPoolSize(inboundThreads)
+                .queueCapacity(queueCapacity);
+    }
+
+    // Fan-out to sessions happens here: one slow client only blocks a pool thread for sendTimeLimit
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor()
+                .corePoolSize(outboundThreads)
+                .maxPoolSize(outboundThreads)
+                .queueCapacity(queueCapacity);
+    }
+
+    // A session whose unsent buffer passes the size limit, or that stays blocked past the time limit,
+    // is closed rather than allowed to back up the outbound channel
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setSendTimeLimit(sendTimeLimit)
+                .setSendBufferSizeLimit(sendBufferSizeLimit)
+                .setMessageSizeLimit(messageSizeLimit);
+    }
 }
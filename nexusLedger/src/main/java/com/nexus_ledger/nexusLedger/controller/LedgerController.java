@@ -3,17 +3,29 @@ package com.nexus_ledger.nexusLedger.controller;
 import com.nexus_ledger.nexusLedger.dto.TransferRequest;
 import com.nexus_ledger.nexusLedger.kafkaTransaction.TransactionProducer;
 import com.nexus_ledger.nexusLedger.module.IdempotencyRecord;
-import com.nexus_ledger.nexusLedger.module.User;
 import com.nexus_ledger.nexusLedger.repository.IdempotencyRepository;
-import com.nexus_ledger.nexusLedger.repository.UserRepository;
+import com.nexus_ledger.nexusLedger.security.AccountIdentityCache;
+import com.nexus_ledger.nexusLedger.service.BulkTransferService;
+import com.nexus_ledger.nexusLedger.service.StatementService;
+import com.nexus_ledger.nexusLedger.service.replay.BalanceHistoryService;
+import com.nexus_ledger.nexusLedger.util.Money;
+import com.nexus_ledger.nexusLedger.util.UuidV7;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
+import java.net.URI;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 @CrossOrigin(origins = "http://localhost:5173")
 @RestController
@@ -23,7 +35,10 @@ public class LedgerController {
 
     private final TransactionProducer transactionProducer;
     private final IdempotencyRepository idempotencyRepo;
-    private final UserRepository userRepository;
+    private final AccountIdentityCache identityCache;
+    private final StatementService statementService;
+    private final BalanceHistoryService balanceHistoryService;
+    private final BulkTransferService bulkTransferService;
 
     @PostMapping("/transfer")
     public ResponseEntity<?> transfer(
@@ -36,11 +51,12 @@ public class LedgerController {
                 + " | Amt=" + request.getAmount());
 
         String githubId = principal.getAttribute("id").toString();
-        User currentUser = userRepository.findByGithubId(githubId)
+        AccountIdentityCache.AccountIdentity owner = identityCache.accountFor(githubId)
                 .orElseThrow(() -> new RuntimeException("User not found in system"));
+        UUID ownerAccountId = owner.accountId();
 
         // 2. Convert UUID to String for comparison
-        String actualOwnerId = currentUser.getAccount().getId().toString();
+        String actualOwnerId = ownerAccountId.toString();
         String requestedFromId = request.getFromId();
 
         System.out.println("COMPARE: Requested=" + requestedFromId + " | Actual=" + actualOwnerId);
@@ -54,27 +70,101 @@ public class LedgerController {
         if (request.getToId() == null || request.getAmount() == null) {
             return ResponseEntity.badRequest().body("{\"message\": \"Missing required fields\"}");
         }
+        // 4. Transfers move the sender account's currency; a stated one must be that (the ledger would refuse it)
+        String currency = owner.currency();
+        if (request.getCurrency() != null && !request.getCurrency().equals(currency)) {
+            return ResponseEntity.badRequest().body("{\"message\": \"Currency mismatch: the sending account holds " + currency + "\"}");
+        }
+        if (!Money.fitsMinorUnit(request.getAmount(), currency)) {
+            return ResponseEntity.badRequest().body("{\"message\": \"Amount is finer than the currency's minor unit\"}");
+        }
 
         try {
-            transactionProducer.sendTransaction(request, key);
+            transactionProducer.sendTransaction(request, currency, key);
             return ResponseEntity.accepted().body("{\"message\": \"Transaction queued\"}");
         } catch (Exception e) {
             return ResponseEntity.status(500).body("{\"message\": \"" + e.getMessage() + "\"}");
         }
     }
 
+    // Many transfers from the caller's account in one call: a JSON array or NDJSON of
+    // {"idempotencyKey", "toId", "amount", "currency"?}. Answers 202 with a job id and streams one status line per item;
+    // GET the Location for the items' status later.
+    @PostMapping(value = "/transfers/bulk", consumes = {"application/x-ndjson", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<StreamingResponseBody> bulkTransfer(
+            InputStream body,
+            @AuthenticationPrincipal OAuth2User principal) {
+        // 1. Authorize once for the whole submission
+        String githubId = principal.getAttribute("id").toString();
+        AccountIdentityCache.AccountIdentity account = identityCache.accountFor(githubId)
+                .orElseThrow(() -> new RuntimeException("User not found in system"));
+
+        // 2. Parse, publish and report as the body arrives
+        UUID jobId = UuidV7.next();
+        StreamingResponseBody response =
+                out -> bulkTransferService.submit(jobId, account.accountId(), account.currency(), body, out);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/ledger/transfers/bulk/" + jobId))
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(response);
+    }
+
+    // Status of every item of one of THEIR bulk jobs (QUEUED until the ledger has processed it)
+    @GetMapping("/transfers/bulk/{jobId}")
+    public ResponseEntity<StreamingResponseBody> getBulkJob(
+            @PathVariable UUID jobId,
+            @AuthenticationPrincipal OAuth2User principal) {
+        String githubId = principal.getAttribute("id").toString();
+        UUID accountId = identityCache.accountIdFor(githubId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        StreamingResponseBody response = out -> bulkTransferService.writeJob(jobId, accountId, out);
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType("application/x-ndjson")).body(response);
+    }
+
+    // Transfer attempts incl. fraud blocks (which never reach the journal); see /statement for the ledger view
     @GetMapping("/history")
     public ResponseEntity<List<IdempotencyRecord>> getHistory(@AuthenticationPrincipal OAuth2User principal) {
         // 1. Get the logged-in user
         String githubId = principal.getAttribute("id").toString();
-        User currentUser = userRepository.findByGithubId(githubId)
+        UUID accountId = identityCache.accountIdFor(githubId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         // 2. Fetch only THEIR records
-        String myId = currentUser.getAccount().getId().toString();
+        String myId = accountId.toString();
         List<IdempotencyRecord> myHistory = idempotencyRepo.findByFromId(myId);
 
         return ResponseEntity.ok(myHistory);
     }
 
+    // Debits and credits from the journal, newest first. Pass the previous page's nextCursor as ?before=
+    @GetMapping("/statement")
+    public ResponseEntity<StreamingResponseBody> getStatement(
+            @AuthenticationPrincipal OAuth2User principal,
+            @RequestParam(required = false) Long before,
+            @RequestParam(defaultValue = "50") int limit) {
+        // 1. Get the logged-in user
+        String githubId = principal.getAttribute("id").toString();
+        UUID accountId = identityCache.accountIdFor(githubId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        // 2. Stream one page of THEIR journal legs
+        StreamingResponseBody body = out -> statementService.writePage(accountId, before, limit, out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    // Balance at a point in time, e.g. /balance?asOf=2026-01-31T23:59:59 (defaults to now)
+    @GetMapping("/balance")
+    public ResponseEntity<Map<String, Object>> getBalance(
+            @AuthenticationPrincipal OAuth2User principal,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime asOf) {
+        String githubId = principal.getAttribute("id").toString();
+        UUID accountId = identityCache.accountIdFor(githubId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        LocalDateTime at = asOf == null ? LocalDateTime.now() : asOf;
+        return balanceHistoryService.balanceAsOf(accountId, at)
+                .map(balance -> ResponseEntity.ok(Map.<String, Object>of(
+                        "accountId", accountId, "asOf", at.toString(), "balance", balance)))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
 }
@@ -1,6 +1,7 @@
 package com.nexus_ledger.nexusLedger.controller;
 
 import com.nexus_ledger.nexusLedger.repository.UserRepository;
+import com.nexus_ledger.nexusLedger.security.AccountIdentityCache;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
@@ -21,13 +22,14 @@ import java.util.Map;
 public class UserController {
 
     private final UserRepository userRepo;
+    private final AccountIdentityCache identityCache;
 
     @GetMapping("/me")
     public ResponseEntity<?> getCurrentUser(@AuthenticationPrincipal OAuth2User principal) {
         if (principal == null) return ResponseEntity.status(401).build();
 
         String githubId = principal.getAttribute("id").toString();
-        return userRepo.findByGithubId(githubId)
+        return userRepo.findWithAccountByGithubId(githubId) // Balance is live, so no cache here; one query
                 .map(user -> ResponseEntity.ok(Map.of(
                         "name", user.getName(),
                         "email", user.getEmail(),
@@ -38,7 +40,11 @@ public class UserController {
     }
 
     @PostMapping("/logout")
-    public ResponseEntity<?> logout(HttpServletRequest request, HttpServletResponse response) {
+    public ResponseEntity<?> logout(HttpServletRequest request, HttpServletResponse response,
+                                    @AuthenticationPrincipal OAuth2User principal) {
+        if (principal != null && principal.getAttribute("id") != null) {
+            identityCache.forget(principal.getAttribute("id").toString());
+        }
         SecurityContextLogoutHandler logoutHandler = new SecurityContextLogoutHandler();
         logoutHandler.logout(request, response, null);
         return ResponseEntity.ok(Map.of("message", "Logged out successfully"));
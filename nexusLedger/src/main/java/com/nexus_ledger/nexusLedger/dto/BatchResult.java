@@ -0,0 +1,20 @@
+package com.nexus_ledger.nexusLedger.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Data
+public class BatchResult {
+
+    private final List<TransferCommand> applied = new ArrayList<>();
+    private final Map<String, String> failures = new LinkedHashMap<>(); // Idempotency key -> reason
+    private final Map<UUID, BigDecimal> balances = new HashMap<>();     // Balance after the batch, per account
+
+}
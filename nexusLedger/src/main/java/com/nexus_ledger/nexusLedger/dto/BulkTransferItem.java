@@ -0,0 +1,17 @@
+package com.nexus_ledger.nexusLedger.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+// One line of a bulk submission (NDJSON line or array element)
+@Data
+public class BulkTransferItem {
+
+    private String idempotencyKey;
+    private String fromId;          // Optional; must be the caller's account when present
+    private String toId;
+    private BigDecimal amount;
+    private String currency;        // Optional; must be the caller account's currency when present
+
+}
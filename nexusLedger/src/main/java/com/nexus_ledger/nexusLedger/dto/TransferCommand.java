@@ -0,0 +1,79 @@
+package com.nexus_ledger.nexusLedger.dto;
+
+import com.nexus_ledger.nexusLedger.util.Money;
+import lombok.AccessLevel;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+public class TransferCommand {
+
+    private String key; // Idempotency key sent by the client
+    private UUID fromId;
+    private UUID toId;
+    private long amountMinor; // Minor units of `currency` (cents for USD); what the wire and in-memory paths use
+    private String currency = "USD"; // ISO 4217 code, carried on the wire
+
+    // BigDecimal view for the JPA/JSON boundary, built on first use
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private transient BigDecimal amount;
+
+    public TransferCommand(String key, UUID fromId, UUID toId, long amountMinor, String currency) {
+        this.key = key;
+        this.fromId = fromId;
+        this.toId = toId;
+        this.amountMinor = amountMinor;
+        this.currency = currency;
+    }
+
+    // Throws ArithmeticException if the amount is finer than the currency's minor unit
+    public TransferCommand(String key, UUID fromId, UUID toId, BigDecimal amount, String currency) {
+        this(key, fromId, toId, Money.toMinor(amount, currency), currency);
+    }
+
+    public BigDecimal getAmount() {
+        if (amount == null) amount = Money.toDecimal(amountMinor, currency);
+        return amount;
+    }
+
+    public void setAmountMinor(long amountMinor) {
+        this.amountMinor = amountMinor;
+        this.amount = null;
+    }
+
+    // Relabels amountMinor; it is not rescaled. Decimal amounts go through the (BigDecimal, currency) constructor.
+    public void setCurrency(String currency) {
+        this.currency = currency;
+        this.amount = null;
+    }
+
+    public Money getMoney() {
+        return new Money(amountMinor, currency);
+    }
+
+    // Decodes the legacy JSON {"key": ..., "data": {...}} payload (see TransferEventCodec for the binary format)
+    @SuppressWarnings("unchecked")
+    public static TransferCommand fromMessage(Map<String, Object> message) {
+        Map<String, Object> data = (Map<String, Object>) message.get("data");
+        return new TransferCommand(
+                (String) message.get("key"),
+                UUID.fromString(data.get("fromId").toString()),
+                UUID.fromString(data.get("toId").toString()),
+                new BigDecimal(data.get("amount").toString()),
+                data.containsKey("currency") ? data.get("currency").toString() : "USD"
+        );
+    }
+
+}
@@ -10,5 +10,6 @@ public class TransferRequest {
     private String fromId;
     private String toId;
     private BigDecimal amount;
+    private String currency;    // Optional; must be the sender account's currency when present
 
 }
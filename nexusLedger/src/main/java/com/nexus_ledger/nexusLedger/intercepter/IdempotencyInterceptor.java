@@ -1,6 +1,6 @@
 package com.nexus_ledger.nexusLedger.intercepter;
 
-import com.nexus_ledger.nexusLedger.repository.IdempotencyRepository;
+import com.nexus_ledger.nexusLedger.service.IdempotencyIndex;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
@@ -10,14 +10,14 @@ import org.springframework.web.servlet.HandlerInterceptor;
 @Component
 @RequiredArgsConstructor
 public class IdempotencyInterceptor implements HandlerInterceptor {
-    private final IdempotencyRepository repository;
+    private final IdempotencyIndex idempotencyIndex;
 
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
         String key = request.getHeader("X-Idempotency-Key");
         if (key == null || key.isBlank()) return true;
 
-        var record = repository.findById(key);
+        var record = idempotencyIndex.find(key); // New keys are ruled out in memory
         if (record.isPresent()) {
             response.setStatus(record.get().getStatusCode());
             response.setContentType("application/json");
@@ -0,0 +1,72 @@
+package com.nexus_ledger.nexusLedger.kafkaTransaction;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Splits one partition's worth of work into lanes by account hash and runs the lanes in parallel.
+ * An account always maps to the same lane and a lane keeps the input order, so each account is
+ * still handled serially; {@link #run} returns only when every lane is done, so the listener's
+ * offset commit still follows the work.
+ *
+ * Every lane holds a DB connection for its commit, so all listener threads together can ask for
+ * partitions x lanes connections at once; the pool has to be at least that big, or lanes queue for
+ * connections and time out.
+ */
+@Slf4j
+@Component
+public class AccountLanes {
+
+    private final int lanes;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public AccountLanes(@Value("${nexus.ledger.consumer.lanes:4}") int lanes,
+                        @Value("${nexus.kafka.partitions:12}") int listeners,
+                        @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize) {
+        this.lanes = Math.max(1, lanes);
+        if (listeners * this.lanes > poolSize) {
+            log.warn("{} listeners x {} lanes can hold {} connections at once but the pool has {}; "
+                    + "raise spring.datasource.hikari.maximum-pool-size or lower nexus.ledger.consumer.lanes",
+                    listeners, this.lanes, listeners * this.lanes, poolSize);
+        }
+    }
+
+    public <T> void run(List<T> items, Function<T, UUID> account, Consumer<List<T>> laneAction) {
+        // 1. Assign items to lanes, preserving order within each lane
+        List<List<T>> split = new ArrayList<>(lanes);
+        for (int i = 0; i < lanes; i++) split.add(new ArrayList<>());
+        for (T item : items) {
+            split.get(Math.floorMod(account.apply(item).hashCode(), lanes)).add(item);
+        }
+        split.removeIf(List::isEmpty);
+
+        // 2. Nothing to overlap: stay on the caller's thread
+        if (split.size() <= 1) {
+            split.forEach(laneAction);
+            return;
+        }
+
+        // 3. One task per lane, then wait for all of them
+        List<CompletableFuture<Void>> running = new ArrayList<>(split.size());
+        for (List<T> lane : split) {
+            running.add(CompletableFuture.runAsync(() -> laneAction.accept(lane), executor));
+        }
+        running.forEach(CompletableFuture::join);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+}
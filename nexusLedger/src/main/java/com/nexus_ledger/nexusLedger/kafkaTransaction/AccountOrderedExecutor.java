@@ -0,0 +1,124 @@
+package com.nexus_ledger.nexusLedger.kafkaTransaction;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.listener.AbstractMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+/**
+ * Runs work that becomes ready out of order (e.g. after an async fraud verdict) while keeping a
+ * strict per-account order: a task for an account starts only after its own input is ready and
+ * every earlier task for that account has finished. Different accounts proceed in parallel.
+ *
+ * The Kafka records behind these tasks are only acknowledged once their task completes, so on shutdown
+ * the executor is drained before the listener containers stop and commit their offsets (it stops in a
+ * later lifecycle phase than they do, i.e. first).
+ */
+@Slf4j
+@Component
+public class AccountOrderedExecutor implements SmartLifecycle {
+
+    private final ConcurrentHashMap<UUID, CompletableFuture<Void>> tails = new ConcurrentHashMap<>();
+    private final ExecutorService executor;
+    private final long drainTimeoutMillis;
+    private volatile boolean running;
+
+    public AccountOrderedExecutor(@Value("${nexus.fraud.async.ledger-threads:8}") int threads,
+                                  @Value("${nexus.fraud.async.drain-timeout-ms:30000}") long drainTimeoutMillis) {
+        this.executor = Executors.newFixedThreadPool(threads);
+        this.drainTimeoutMillis = drainTimeoutMillis;
+    }
+
+    public <T> CompletableFuture<Void> submit(UUID accountId, CompletableFuture<T> input,
+                                              Consumer<T> action, Consumer<Throwable> onError) {
+        @SuppressWarnings("unchecked")
+        CompletableFuture<Void>[] created = new CompletableFuture[1];
+
+        tails.compute(accountId, (id, tail) -> {
+            CompletableFuture<Void> previous = tail == null ? CompletableFuture.completedFuture(null) : tail;
+            created[0] = previous
+                    .thenCombineAsync(input, (ignored, value) -> value, executor)
+                    .thenAccept(action)
+                    .exceptionally(error -> {
+                        // Swallow here so one failure never blocks the rest of the account's queue
+                        onError.accept(error instanceof CompletionException && error.getCause() != null
+                                ? error.getCause() : error);
+                        return null;
+                    });
+            return created[0];
+        });
+
+        CompletableFuture<Void> task = created[0];
+        task.whenComplete((v, error) -> tails.remove(accountId, task));
+        return task;
+    }
+
+    public int pendingAccounts() {
+        return tails.size();
+    }
+
+    // Waits until every queued task has run; tasks submitted meanwhile are waited for too
+    public boolean drain(long timeoutMillis) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        while (!tails.isEmpty()) {
+            long left = deadline - System.nanoTime();
+            if (left <= 0) return false;
+            try {
+                CompletableFuture.allOf(tails.values().toArray(CompletableFuture[]::new)).get(left, TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                return false;
+            } catch (ExecutionException e) {
+                // Tasks never complete exceptionally (see submit); keep waiting for the rest
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            if (!drain(drainTimeoutMillis)) {
+                log.warn("{} accounts still had transfers queued at shutdown; their records will be redelivered",
+                        tails.size());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Stops before the listener containers, which would otherwise commit offsets while tasks are queued
+    @Override
+    public int getPhase() {
+        return AbstractMessageListenerContainer.DEFAULT_PHASE + 1;
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,194 @@
+package com.nexus_ledger.nexusLedger.kafkaTransaction;
+
+import com.nexus_ledger.nexusLedger.dto.TransferCommand;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Publishes transfer_outbox rows to Kafka. Each round claims up to batch-size pending rows
+ * (FOR UPDATE SKIP LOCKED, so relays on several instances never claim the same row) and hands all of
+ * them to the producer at once, so they leave as a few large, compressed batches. It then waits for
+ * the broker acks and marks the acknowledged rows as sent, in the same transaction that holds the
+ * claim. Rows that were not acked stay pending and are retried on the next round, so a retried
+ * transfer can reach the topic after later ones from the same sender. Delivery is at least once; the
+ * consumer deduplicates by idempotency key.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "nexus.kafka.outbox.enabled", havingValue = "true")
+public class OutboxRelay {
+
+    private static final String CLAIM_SQL = """
+            SELECT id, event_key, from_id, to_id, amount, currency, created_at FROM transfer_outbox
+            WHERE sent_at IS NULL
+            ORDER BY id
+            LIMIT ?
+            FOR UPDATE SKIP LOCKED
+            """;
+
+    private static final String SENT_SQL = "UPDATE transfer_outbox SET sent_at = ?, attempts = attempts + 1 WHERE id = ?";
+    private static final String FAILED_SQL = "UPDATE transfer_outbox SET attempts = attempts + 1, last_error = ? WHERE id = ?";
+
+    record Pending(long id, TransferCommand command, LocalDateTime createdAt) { }
+
+    private final KafkaTemplate<String, TransferCommand> kafkaTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long pollIntervalMs;
+    private final long sendTimeoutMs;
+    private final long retentionMs;
+    private final Semaphore wake = new Semaphore(0);
+    private final Thread thread;
+    private final Counter sent;
+    private final Counter failed;
+    private final Timer lag;
+
+    private volatile boolean running = true;
+
+    public OutboxRelay(KafkaTemplate<String, TransferCommand> kafkaTemplate,
+                       JdbcTemplate jdbcTemplate,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry,
+                       @Value("${nexus.kafka.outbox.batch-size:500}") int batchSize,
+                       @Value("${nexus.kafka.outbox.poll-interval-ms:50}") long pollIntervalMs,
+                       @Value("${nexus.kafka.outbox.send-timeout-ms:10000}") long sendTimeoutMs,
+                       @Value("${nexus.kafka.outbox.retention-ms:3600000}") long retentionMs) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.pollIntervalMs = pollIntervalMs;
+        this.sendTimeoutMs = sendTimeoutMs;
+        this.retentionMs = retentionMs;
+        this.thread = new Thread(this::run, "outbox-relay");
+        this.sent = meterRegistry.counter("ledger.outbox.relayed", "result", "sent");
+        this.failed = meterRegistry.counter("ledger.outbox.relayed", "result", "failed");
+        this.lag = meterRegistry.timer("ledger.outbox.lag"); // Accepted -> acked by the broker
+    }
+
+    @PostConstruct
+    void start() {
+        thread.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        wake.release();
+        thread.join(TimeUnit.SECONDS.toMillis(30));
+    }
+
+    // Called by the request thread once its outbox row is committed: skips the idle poll wait
+    public void signal() {
+        if (wake.availablePermits() == 0) wake.release();
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                int relayed = relayBatch();
+                if (relayed < batchSize) {
+                    wake.tryAcquire(pollIntervalMs, TimeUnit.MILLISECONDS);
+                    wake.drainPermits();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Outbox relay round failed, retrying: {}", e.getMessage());
+                try {
+                    Thread.sleep(1000);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    // One claim -> send -> ack -> mark round; returns the number of rows claimed
+    int relayBatch() throws InterruptedException {
+        Integer claimed = transactionTemplate.execute(status -> {
+            // 1. Claim the oldest pending rows
+            List<Pending> batch = jdbcTemplate.query(CLAIM_SQL, (rs, n) -> new Pending(rs.getLong("id"),
+                    new TransferCommand(rs.getString("event_key"), rs.getObject("from_id", UUID.class),
+                            rs.getObject("to_id", UUID.class), rs.getBigDecimal("amount"), rs.getString("currency")),
+                    rs.getTimestamp("created_at").toLocalDateTime()), batchSize);
+            if (batch.isEmpty()) return 0;
+
+            // 2. Hand everything to the producer, then flush instead of waiting out linger.ms
+            List<CompletableFuture<SendResult<String, TransferCommand>>> acks = new ArrayList<>(batch.size());
+            for (Pending pending : batch) {
+                TransferCommand cmd = pending.command();
+                acks.add(kafkaTemplate.send(TransactionProducer.TOPIC, cmd.getFromId().toString(), cmd));
+            }
+            kafkaTemplate.flush();
+
+            // 3. Collect acks against one deadline for the whole batch
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            List<Object[]> delivered = new ArrayList<>(batch.size());
+            List<Object[]> undelivered = new ArrayList<>();
+            for (int i = 0; i < batch.size(); i++) {
+                Pending pending = batch.get(i);
+                try {
+                    acks.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                    delivered.add(new Object[]{now, pending.id()});
+                    lag.record(Duration.between(pending.createdAt(), now.toLocalDateTime()));
+                } catch (ExecutionException | TimeoutException e) {
+                    String error = e instanceof ExecutionException ? String.valueOf(e.getCause()) : "ack timeout";
+                    undelivered.add(new Object[]{error.length() > 255 ? error.substring(0, 255) : error, pending.id()});
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    undelivered.add(new Object[]{"interrupted", pending.id()});
+                }
+            }
+
+            // 4. Record the outcome; committing releases the claim
+            if (!delivered.isEmpty()) jdbcTemplate.batchUpdate(SENT_SQL, delivered);
+            if (!undelivered.isEmpty()) {
+                jdbcTemplate.batchUpdate(FAILED_SQL, undelivered);
+                log.warn("Outbox relay: {} of {} records not acknowledged, will retry", undelivered.size(), batch.size());
+            }
+            sent.increment(delivered.size());
+            failed.increment(undelivered.size());
+            return batch.size();
+        });
+        if (Thread.interrupted()) throw new InterruptedException();
+        return claimed == null ? 0 : claimed;
+    }
+
+    // Delivered rows are only kept for inspection
+    @Scheduled(fixedDelayString = "${nexus.kafka.outbox.purge-interval-ms:60000}")
+    public void purgeDelivered() {
+        int purged = jdbcTemplate.update("DELETE FROM transfer_outbox WHERE sent_at < ?",
+                Timestamp.valueOf(LocalDateTime.now().minus(Duration.ofMillis(retentionMs))));
+        if (purged > 0) log.debug("Purged {} delivered outbox rows", purged);
+    }
+}
@@ -1,21 +1,34 @@
 package com.nexus_ledger.nexusLedger.kafkaTransaction;
 
-import com.nexus_ledger.nexusLedger.module.Account;
+import com.nexus_ledger.nexusLedger.dto.BatchResult;
+import com.nexus_ledger.nexusLedger.dto.TransferCommand;
 import com.nexus_ledger.nexusLedger.module.IdempotencyRecord;
-import com.nexus_ledger.nexusLedger.repository.AccountRepository;
 import com.nexus_ledger.nexusLedger.repository.IdempotencyRepository;
+import com.nexus_ledger.nexusLedger.service.IdempotencyIndex;
 import com.nexus_ledger.nexusLedger.service.LedgerService;
+import com.nexus_ledger.nexusLedger.service.ai.FraudScoringStage;
 import com.nexus_ledger.nexusLedger.service.ai.FraudSentryService; // Import the AI Service
+import com.nexus_ledger.nexusLedger.service.engine.BalanceEngine;
+import com.nexus_ledger.nexusLedger.service.push.BalancePushAggregator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -24,77 +37,260 @@ public class TransactionConsumer {
 
     private final LedgerService ledgerService;
     private final IdempotencyRepository idempotencyRepo;
+    private final IdempotencyIndex idempotencyIndex; // Answers "never seen" without a DB round trip
     private final FraudSentryService fraudSentryService;
-    private final SimpMessagingTemplate messagingTemplate;
-    private final AccountRepository accountRepository; // Need this to fetch new balance
+    private final FraudScoringStage fraudScoringStage;
+    private final AccountOrderedExecutor orderedExecutor;
+    private final AccountLanes accountLanes;
+    private final BalancePushAggregator pushAggregator; // Coalesced per-account WebSocket pushes
+    private final TransactionTemplate transactionTemplate;
+    private final Optional<BalanceEngine> balanceEngine; // Present when nexus.ledger.engine.enabled=true
 
-    @KafkaListener(topics = "financial-transactions", groupId = "ledger-group")
-    public void consume(Map<String, Object> message) {
-        String key = (String) message.get("key");
-        Map<String, Object> data = (Map<String, Object>) message.get("data");
+    // Record-at-a-time mode (default). Disabled when nexus.ledger.consumer.batch-enabled=true.
+    // The offset is acknowledged only once the record has been settled (or rejected), never before.
+    @KafkaListener(id = "ledger-single", topics = "financial-transactions", groupId = "ledger-group",
+            concurrency = "${nexus.kafka.partitions:12}", containerFactory = "settledAckContainerFactory",
+            autoStartup = "#{!${nexus.ledger.consumer.batch-enabled:false}}")
+    public void consume(TransferCommand cmd, Acknowledgment ack) {
+        String key = cmd.getKey();
 
         log.info("Processing transaction for key: {}", key);
 
-        if (idempotencyRepo.existsById(key)) {
+        if (idempotencyIndex.exists(key)) {
             log.warn("Duplicate transaction detected for key: {}. Skipping...", key);
+            ack.acknowledge();
             return;
         }
 
         try {
-            BigDecimal amount = new BigDecimal(data.get("amount").toString());
-            UUID fromId = UUID.fromString(data.get("fromId").toString());
-            UUID toId = UUID.fromString(data.get("toId").toString());
-
             // 2. AI FRAUD ANALYSIS
-            boolean isFraud = fraudSentryService.isFraudulent(amount, fromId);
+            if (fraudScoringStage.isEnabled()) {
+                // Score off the listener thread; the ledger step still runs in per-account order.
+                // A redelivered key queues behind its first copy, so re-check once it is our turn.
+                // The record is acknowledged when its task has run, so a crash before that redelivers it.
+                orderedExecutor.submit(cmd.getFromId(), fraudScoringStage.score(cmd),
+                                isFraud -> {
+                                    if (!idempotencyIndex.exists(key)) settle(cmd, isFraud);
+                                },
+                                error -> handleFailure(cmd, error.getMessage()))
+                        .whenComplete((ignored, error) -> ack.acknowledge());
+                return;
+            }
 
-            if (isFraud) {
-                log.error("!!! FRAUD ALERT !!! AI blocked transaction {}", key);
-                saveIdempotencyRecord(key, "BLOCKED_BY_AI", 403, fromId, toId, amount);
+            settle(cmd, fraudSentryService.isFraudulent(cmd));
 
-                // NOTIFY UI: Fraud status (Balance won't change)
-                sendWsUpdate(fromId, "FRAUD", amount, null);
-                return;
+        } catch (Exception e) {
+            log.error("Critical failure processing transaction {}: {}", key, e.getMessage());
+            // Optionally send an error update
+        }
+        ack.acknowledge();
+    }
+
+    // Batch mode: one poll's worth of records is screened, then applied in one DB transaction per account
+    // lane (ledger legs + idempotency records). Enable with nexus.ledger.consumer.batch-enabled=true.
+    @KafkaListener(id = "ledger-batch", topics = "financial-transactions", groupId = "ledger-group",
+            concurrency = "${nexus.kafka.partitions:12}", batch = "true",
+            autoStartup = "${nexus.ledger.consumer.batch-enabled:false}")
+    public void consumeBatch(List<TransferCommand> messages) {
+        log.info("Processing batch of {} transactions", messages.size());
+
+        // 1. Drop duplicates within the batch (and records the deserializer could not decode, which arrive as null)
+        Map<String, TransferCommand> commands = new LinkedHashMap<>();
+        for (TransferCommand cmd : messages) {
+            if (cmd == null) {
+                log.error("Dropping undecodable message");
+                continue;
             }
+            commands.putIfAbsent(cmd.getKey(), cmd);
+        }
 
-            // 3. EXECUTE LEDGER (Balance changes here)
-            ledgerService.executeTransfer(fromId, toId, amount, key);
+        // 2. One idempotency lookup for the whole batch
+        Set<String> seen = idempotencyIndex.existing(commands.keySet());
+        seen.forEach(key -> log.warn("Duplicate transaction detected for key: {}. Skipping...", key));
+        commands.keySet().removeAll(seen);
 
-            // 4. FETCH NEW BALANCE
-            // We fetch the new balance directly from DB to ensure accuracy
-            BigDecimal newBalance = accountRepository.findById(fromId)
-                    .map(Account::getBalance)
-                    .orElse(BigDecimal.ZERO);
+        // 3. AI FRAUD ANALYSIS (all verdicts in flight at once when the async stage is on)
+        List<TransferCommand> candidates = new ArrayList<>(commands.values());
+        List<Boolean> verdicts = screen(candidates);
 
-            // 5. SAVE SUCCESS RECORD
-            saveIdempotencyRecord(key, "SUCCESS", 200, fromId, toId, amount);
+        List<TransferCommand> cleared = new ArrayList<>();
+        List<TransferCommand> blocked = new ArrayList<>();
+        for (int i = 0; i < candidates.size(); i++) {
+            (verdicts.get(i) ? blocked : cleared).add(candidates.get(i));
+        }
 
-            // 6. NOTIFY UI: Success status + New Balance
-            sendWsUpdate(fromId, "SUCCESS", amount, newBalance);
+        // 4a. In-memory engine: submit everything first so the partitions and journal writer pipeline it
+        if (engineAvailable()) {
+            List<IdempotencyRecord> records = blockedRecords(blocked);
+            if (!records.isEmpty()) {
+                idempotencyRepo.saveAll(records);
+                idempotencyIndex.recordAll(records);
+            }
+            blocked.forEach(cmd -> sendWsUpdate(cmd.getFromId(), "FRAUD", cmd.getAmount(), null));
 
-            log.info("Transaction {} processed. New Balance: {}", key, newBalance);
+            List<CompletableFuture<BigDecimal>> pending = new ArrayList<>(cleared.size());
+            cleared.forEach(cmd -> pending.add(balanceEngine.get().submit(cmd)));
+            for (int i = 0; i < cleared.size(); i++) {
+                TransferCommand cmd = cleared.get(i);
+                try {
+                    sendWsUpdate(cmd.getFromId(), "SUCCESS", cmd.getAmount(), await(pending.get(i)));
+                } catch (Exception e) {
+                    handleFailure(cmd, e.getMessage());
+                }
+            }
+            return;
+        }
+
+        // 4b. Group commit per account lane (records are keyed by fromId, so a partition carries many
+        // senders): lanes commit in parallel, each sender's transfers stay in one lane and in order.
+        // Only a sender's own lane ever debits it, so validating against balances read at the start is safe.
+        Set<String> blockedKeys = blocked.stream().map(TransferCommand::getKey).collect(Collectors.toSet());
+        accountLanes.run(candidates, TransferCommand::getFromId, lane -> {
+            List<TransferCommand> laneCleared = new ArrayList<>();
+            List<TransferCommand> laneBlocked = new ArrayList<>();
+            lane.forEach(cmd -> (blockedKeys.contains(cmd.getKey()) ? laneBlocked : laneCleared).add(cmd));
+            commitLane(laneCleared, laneBlocked);
+        });
+    }
 
+    // One DB transaction for a lane: ledger legs, netted balances and idempotency records
+    private void commitLane(List<TransferCommand> cleared, List<TransferCommand> blocked) {
+        List<IdempotencyRecord> records = blockedRecords(blocked);
+        BatchResult result;
+        try {
+            result = transactionTemplate.execute(status -> {
+                BatchResult batch = ledgerService.executeBatch(cleared);
+                for (TransferCommand cmd : batch.getApplied()) {
+                    records.add(newIdempotencyRecord(cmd.getKey(), "SUCCESS", 200,
+                            cmd.getFromId(), cmd.getToId(), cmd.getAmount()));
+                }
+                idempotencyRepo.saveAll(records);
+                return batch;
+            });
         } catch (Exception e) {
-            log.error("Critical failure processing transaction {}: {}", key, e.getMessage());
-            // Optionally send an error update
+            // The lane as a whole could not commit; isolate the culprit by replaying record by record
+            log.error("Batch commit failed ({}). Falling back to per-record processing", e.getMessage());
+            blocked.forEach(cmd -> saveIdempotencyRecord(cmd.getKey(), "BLOCKED_BY_AI", 403,
+                    cmd.getFromId(), cmd.getToId(), cmd.getAmount()));
+            blocked.forEach(cmd -> sendWsUpdate(cmd.getFromId(), "FRAUD", cmd.getAmount(), null));
+            for (TransferCommand cmd : cleared) {
+                try {
+                    applyTransfer(cmd);
+                } catch (Exception ex) {
+                    handleFailure(cmd, ex.getMessage());
+                }
+            }
+            return;
+        }
+        idempotencyIndex.recordAll(records);
+
+        // 5. NOTIFY UI
+        blocked.forEach(cmd -> sendWsUpdate(cmd.getFromId(), "FRAUD", cmd.getAmount(), null));
+        for (TransferCommand cmd : result.getApplied()) {
+            sendWsUpdate(cmd.getFromId(), "SUCCESS", cmd.getAmount(), result.getBalances().get(cmd.getFromId()));
         }
+        Map<String, TransferCommand> byKey = new HashMap<>();
+        cleared.forEach(cmd -> byKey.put(cmd.getKey(), cmd));
+        result.getFailures().forEach((key, reason) -> handleFailure(byKey.get(key), reason));
+
+        log.info("Batch processed: {} applied, {} blocked, {} failed",
+                result.getApplied().size(), blocked.size(), result.getFailures().size());
     }
 
-    // HELPER METHOD: This sends the actual WebSocket packet
-    private void sendWsUpdate(UUID accountId, String status, BigDecimal amount, BigDecimal newBalance) {
-        String destination = "/topic/updates/" + accountId.toString();
+    private List<IdempotencyRecord> blockedRecords(List<TransferCommand> blocked) {
+        List<IdempotencyRecord> records = new ArrayList<>();
+        for (TransferCommand cmd : blocked) {
+            log.error("!!! FRAUD ALERT !!! AI blocked transaction {}", cmd.getKey());
+            records.add(newIdempotencyRecord(cmd.getKey(), "BLOCKED_BY_AI", 403,
+                    cmd.getFromId(), cmd.getToId(), cmd.getAmount()));
+        }
+        return records;
+    }
+
+    private List<Boolean> screen(List<TransferCommand> candidates) {
+        List<Boolean> verdicts = new ArrayList<>(candidates.size());
+        if (fraudScoringStage.isEnabled()) {
+            List<CompletableFuture<Boolean>> pending = new ArrayList<>(candidates.size());
+            candidates.forEach(cmd -> pending.add(fraudScoringStage.score(cmd)));
+            pending.forEach(verdict -> verdicts.add(verdict.join())); // Never fails: the stage applies its fallback
+        } else {
+            candidates.forEach(cmd -> verdicts.add(fraudSentryService.isFraudulent(cmd)));
+        }
+        return verdicts;
+    }
+
+    // Acts on a fraud verdict: block and record it, or hand the transfer to the ledger
+    private void settle(TransferCommand cmd, boolean isFraud) {
+        if (isFraud) {
+            log.error("!!! FRAUD ALERT !!! AI blocked transaction {}", cmd.getKey());
+            saveIdempotencyRecord(cmd.getKey(), "BLOCKED_BY_AI", 403, cmd.getFromId(), cmd.getToId(), cmd.getAmount());
+
+            // NOTIFY UI: Fraud status (Balance won't change)
+            sendWsUpdate(cmd.getFromId(), "FRAUD", cmd.getAmount(), null);
+            return;
+        }
+
+        applyTransfer(cmd);
+    }
+
+    private void applyTransfer(TransferCommand cmd) {
+        String key = cmd.getKey();
+        UUID fromId = cmd.getFromId();
+        UUID toId = cmd.getToId();
+        BigDecimal amount = cmd.getAmount();
+
+        // In-memory engine: no DB locks on the hot path; the journal writer persists the legs
+        // and the idempotency record in its next group commit
+        if (engineAvailable()) {
+            BigDecimal newBalance = await(balanceEngine.get().submit(cmd));
+            sendWsUpdate(fromId, "SUCCESS", amount, newBalance);
+            log.info("Transaction {} processed in-memory. New Balance: {}", key, newBalance);
+            return;
+        }
 
-        Map<String, Object> payload = new HashMap<>();
-        payload.put("type", "TRANSACTION_UPDATE");
-        payload.put("status", status);
-        payload.put("amount", amount);
-        payload.put("newBalance", newBalance); // React will use this to update the UI
-        payload.put("timestamp", System.currentTimeMillis());
+        // 3. EXECUTE LEDGER (Balance changes here)
+        // 4. NEW BALANCE comes back from the ledger (exact unless the sender is sharded), no re-read
+        BigDecimal newBalance = ledgerService.executeTransfer(fromId, toId, amount, cmd.getCurrency(), key);
 
-        messagingTemplate.convertAndSend(destination, payload);
+        // 5. SAVE SUCCESS RECORD
+        saveIdempotencyRecord(key, "SUCCESS", 200, fromId, toId, amount);
+
+        // 6. NOTIFY UI: Success status + New Balance
+        sendWsUpdate(fromId, "SUCCESS", amount, newBalance);
+
+        log.info("Transaction {} processed. New Balance: {}", key, newBalance);
+    }
+
+    private boolean engineAvailable() {
+        return balanceEngine.isPresent() && balanceEngine.get().isAvailable();
+    }
+
+    // Waits for the journal commit and surfaces the engine's own exception (e.g. insufficient funds)
+    private BigDecimal await(CompletableFuture<BigDecimal> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+    }
+
+    // Failure path for a single transfer; the rest of its batch is unaffected
+    private void handleFailure(TransferCommand cmd, String reason) {
+        log.error("Critical failure processing transaction {}: {}", cmd.getKey(), reason);
+        sendWsUpdate(cmd.getFromId(), "FAILED", cmd.getAmount(), null);
+    }
+
+    // HELPER METHOD: Queues the WebSocket update; bursts for one account go out as a single message
+    private void sendWsUpdate(UUID accountId, String status, BigDecimal amount, BigDecimal newBalance) {
+        pushAggregator.publish(accountId, status, amount, newBalance); // React uses newBalance to update the UI
     }
 
     private void saveIdempotencyRecord(String key, String status, int code, UUID from, UUID to, BigDecimal amt) {
+        idempotencyIndex.record(idempotencyRepo.save(newIdempotencyRecord(key, status, code, from, to, amt)));
+    }
+
+    private IdempotencyRecord newIdempotencyRecord(String key, String status, int code, UUID from, UUID to, BigDecimal amt) {
         IdempotencyRecord record = new IdempotencyRecord();
         record.setIdempotencyKey(key);
         record.setResponseBody(status);
@@ -102,6 +298,6 @@ public class TransactionConsumer {
         record.setFromId(from.toString());
         record.setToId(to.toString());
         record.setAmount(amt);
-        idempotencyRepo.save(record);
+        return record;
     }
-}
\ No newline at end of file
+}
@@ -1,34 +1,140 @@
 package com.nexus_ledger.nexusLedger.kafkaTransaction;
 
+import com.nexus_ledger.nexusLedger.dto.TransferCommand;
 import com.nexus_ledger.nexusLedger.dto.TransferRequest;
-import lombok.RequiredArgsConstructor;
+import com.nexus_ledger.nexusLedger.module.OutboxEvent;
+import com.nexus_ledger.nexusLedger.repository.OutboxRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @Service
-@RequiredArgsConstructor
 public class TransactionProducer {
 
-    private final KafkaTemplate<String, Object> kafkaTemplate;
-    private static final String TOPIC = "financial-transactions";
+    static final String TOPIC = "financial-transactions";
 
-    public void sendTransaction(TransferRequest request, String key) {
-        Map<String, Object> message = new HashMap<>();
-        message.put("key", key);
+    private final KafkaTemplate<String, TransferCommand> kafkaTemplate; // Values written by TransferEventSerializer
+    private final OutboxRepository outboxRepository;
+    private final Optional<OutboxRelay> outboxRelay;
+    private final long sendTimeoutMs;
 
-        Map<String, Object> data = new HashMap<>();
+    public TransactionProducer(KafkaTemplate<String, TransferCommand> kafkaTemplate,
+                               OutboxRepository outboxRepository,
+                               Optional<OutboxRelay> outboxRelay,
+                               @Value("${nexus.kafka.outbox.send-timeout-ms:10000}") long sendTimeoutMs) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.outboxRepository = outboxRepository;
+        this.outboxRelay = outboxRelay;
+        this.sendTimeoutMs = sendTimeoutMs;
+    }
+
+    // Returns once the transfer is durably accepted: committed to the outbox, or acked by the broker
+    // `currency` is the one the amount was validated against
+    public void sendTransaction(TransferRequest request, String currency, String key) {
+        // Parse once here; the event carries typed ids and amount, so consumers never re-parse strings
+        TransferCommand event = new TransferCommand(key, UUID.fromString(request.getFromId()),
+                UUID.fromString(request.getToId()), request.getAmount(), currency);
+        sendBatch(List.of(event));
+    }
+
+    // Many transfers, one outbox insert batch or one producer flush. Joins the caller's transaction if any
+    // (outbox mode), so the caller's own bookkeeping commits or rolls back with the transfers.
+    public void sendBatch(List<TransferCommand> events) {
+        if (events.isEmpty()) return;
+
+        // 1. Outbox: local inserts; OutboxRelay publishes them with everything else pending
+        if (outboxRelay.isPresent()) {
+            List<OutboxEvent> rows = new ArrayList<>(events.size());
+            for (TransferCommand event : events) {
+                OutboxEvent row = new OutboxEvent();
+                row.setEventKey(event.getKey());
+                row.setFromId(event.getFromId());
+                row.setToId(event.getToId());
+                row.setAmount(event.getAmount());
+                row.setCurrency(event.getCurrency());
+                rows.add(row);
+            }
+            outboxRepository.saveAll(rows);
+            signalAfterCommit();
+            return;
+        }
 
-        // Using String.valueOf() is safer than .toString() because it handles nulls
-        data.put("fromId", String.valueOf(request.getFromId()));
-        data.put("toId", String.valueOf(request.getToId()));
-        data.put("amount", request.getAmount());
+        // 2. Direct: wait for the acks so the caller never reports a transfer as queued when it was lost
+        List<String> failures = sendEach(events);
+        int failed = (int) failures.stream().filter(Objects::nonNull).count();
+        if (failed > 0) {
+            throw new RuntimeException(events.size() == 1
+                    ? "Transfer " + events.get(0).getKey() + " was not accepted by Kafka: " + failures.get(0)
+                    : failed + " of " + events.size() + " transfers were not accepted by Kafka");
+        }
+    }
+
+    // true = sendBatch writes to the outbox in the caller's transaction; false = it sends to Kafka directly
+    public boolean usesOutbox() {
+        return outboxRelay.isPresent();
+    }
 
-        message.put("data", data);
+    // Direct mode: sends every event and waits for its ack. Returns, per event, null once the broker has it,
+    // or why it was not accepted (send error, or no ack by the deadline: it may still arrive, so a retry must
+    // reuse the idempotency key). Waits up to send-timeout-ms, so don't call it inside a DB transaction.
+    public List<String> sendEach(List<TransferCommand> events) {
+        // 1. Keyed by sender, so all of an account's transfers share a partition and are consumed in order by
+        // one listener thread (a redelivered idempotency key follows its original)
+        List<CompletableFuture<?>> acks = new ArrayList<>(events.size());
+        for (TransferCommand event : events) {
+            try {
+                acks.add(kafkaTemplate.send(TOPIC, event.getFromId().toString(), event));
+            } catch (RuntimeException e) {
+                acks.add(CompletableFuture.failedFuture(e)); // e.g. buffer full past max.block.ms
+            }
+        }
+        if (events.size() > 1) kafkaTemplate.flush(); // Don't wait out linger.ms for a batch that is complete
+
+        // 2. One outcome per event, against one deadline for the whole batch
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        List<String> failures = new ArrayList<>(events.size());
+        try {
+            for (CompletableFuture<?> ack : acks) {
+                try {
+                    ack.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                    failures.add(null);
+                } catch (ExecutionException e) {
+                    failures.add(e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+                } catch (TimeoutException e) {
+                    failures.add("No broker ack within " + sendTimeoutMs + " ms");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while publishing " + events.size() + " transfer(s)", e);
+        }
+        return failures;
+    }
 
-        kafkaTemplate.send("financial-transactions", key, message);
+    private void signalAfterCommit() {
+        OutboxRelay relay = outboxRelay.get();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    relay.signal();
+                }
+            });
+        } else {
+            relay.signal();
+        }
     }
 
 }
@@ -0,0 +1,166 @@
+package com.nexus_ledger.nexusLedger.kafkaTransaction;
+
+import com.nexus_ledger.nexusLedger.dto.TransferCommand;
+import com.nexus_ledger.nexusLedger.util.Money;
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Versioned binary encoding of a transfer event on "financial-transactions" (big-endian):
+ *
+ * <pre>
+ *  offset size
+ *   0      1   magic 0xB7 (never '{', so legacy JSON records are told apart by their first byte)
+ *   1      1   version (1)
+ *   2      1   flags: bit 0 = key is a canonical lower-case UUID, sent as 16 bytes
+ *   3     16   fromId  (most, least significant bits)
+ *  19     16   toId
+ *  35      8   amount unscaled value (minor units when encoded by this class)
+ *  43      1   amount scale         (the currency's minor-unit digits when encoded by this class)
+ *  44      3   currency, ASCII ISO 4217
+ *  47     16   key as UUID            (flag set)
+ *        2+n   key length + UTF-8     (flag clear)
+ * </pre>
+ *
+ * A typical event is 63 bytes against ~170 for the JSON map. Decoding reads the array directly:
+ * no intermediate Map, no string round trip for UUIDs, and no BigDecimal for the amount, which goes
+ * straight into TransferCommand's minor units. Records written with another scale are rescaled exactly.
+ */
+public final class TransferEventCodec {
+
+    public static final byte MAGIC = (byte) 0xB7;
+    public static final byte VERSION = 1;
+
+    private static final int FLAG_UUID_KEY = 1;
+    private static final int HEADER_SIZE = 47;
+
+    private TransferEventCodec() { }
+
+    public static byte[] encode(TransferCommand cmd) {
+        String currency = cmd.getCurrency();
+        if (currency == null || currency.length() != 3) {
+            throw new SerializationException("Currency must be a 3-letter code: " + currency);
+        }
+        int scale = fractionDigits(currency);
+
+        String key = cmd.getKey();
+        long[] keyBits = uuidBits(key);
+        byte[] keyBytes = keyBits == null ? key.getBytes(StandardCharsets.UTF_8) : null;
+        if (keyBytes != null && keyBytes.length > 0xFFFF) {
+            throw new SerializationException("Idempotency key too long: " + keyBytes.length + " bytes");
+        }
+
+        byte[] out = new byte[HEADER_SIZE + (keyBits != null ? 16 : 2 + keyBytes.length)];
+        out[0] = MAGIC;
+        out[1] = VERSION;
+        out[2] = (byte) (keyBits != null ? FLAG_UUID_KEY : 0);
+        putLong(out, 3, cmd.getFromId().getMostSignificantBits());
+        putLong(out, 11, cmd.getFromId().getLeastSignificantBits());
+        putLong(out, 19, cmd.getToId().getMostSignificantBits());
+        putLong(out, 27, cmd.getToId().getLeastSignificantBits());
+        putLong(out, 35, cmd.getAmountMinor());
+        out[43] = (byte) scale;
+        out[44] = (byte) currency.charAt(0);
+        out[45] = (byte) currency.charAt(1);
+        out[46] = (byte) currency.charAt(2);
+        if (keyBits != null) {
+            putLong(out, 47, keyBits[0]);
+            putLong(out, 55, keyBits[1]);
+        } else {
+            out[47] = (byte) (keyBytes.length >>> 8);
+            out[48] = (byte) keyBytes.length;
+            System.arraycopy(keyBytes, 0, out, 49, keyBytes.length);
+        }
+        return out;
+    }
+
+    public static boolean isBinary(byte[] data) {
+        return data.length > 0 && data[0] == MAGIC;
+    }
+
+    public static TransferCommand decode(byte[] data) {
+        if (data.length < HEADER_SIZE || data[0] != MAGIC) {
+            throw new SerializationException("Not a binary transfer event");
+        }
+        if (data[1] != VERSION) {
+            throw new SerializationException("Unsupported transfer event version " + data[1]);
+        }
+
+        String key;
+        if ((data[2] & FLAG_UUID_KEY) != 0) {
+            key = new UUID(getLong(data, 47), getLong(data, 55)).toString();
+        } else {
+            int length = ((data[47] & 0xFF) << 8) | (data[48] & 0xFF);
+            key = new String(data, 49, length, StandardCharsets.UTF_8);
+        }
+
+        String currency = new String(data, 44, 3, StandardCharsets.US_ASCII);
+        long unscaled = getLong(data, 35);
+        long amountMinor;
+        if (data[43] == fractionDigits(currency)) {
+            amountMinor = unscaled;
+        } else {
+            try {
+                amountMinor = Money.toMinor(BigDecimal.valueOf(unscaled, data[43]), currency);
+            } catch (ArithmeticException e) {
+                throw new SerializationException("Amount is finer than " + currency + " minor units");
+            }
+        }
+        return new TransferCommand(
+                key,
+                new UUID(getLong(data, 3), getLong(data, 11)),
+                new UUID(getLong(data, 19), getLong(data, 27)),
+                amountMinor,
+                currency
+        );
+    }
+
+    private static int fractionDigits(String currency) {
+        try {
+            return Money.fractionDigits(currency);
+        } catch (IllegalArgumentException e) {
+            throw new SerializationException("Unknown currency: " + currency);
+        }
+    }
+
+    // Parses a canonical lower-case UUID in one pass; null if the key is anything else,
+    // so that decoding always gives back exactly the string that was sent
+    static long[] uuidBits(String key) {
+        if (key == null || key.length() != 36) return null;
+        long msb = 0;
+        long lsb = 0;
+        int digits = 0;
+        for (int i = 0; i < 36; i++) {
+            char c = key.charAt(i);
+            if (i == 8 || i == 13 || i == 18 || i == 23) {
+                if (c != '-') return null;
+                continue;
+            }
+            int nibble;
+            if (c >= '0' && c <= '9') nibble = c - '0';
+            else if (c >= 'a' && c <= 'f') nibble = c - 'a' + 10;
+            else return null;
+            if (digits++ < 16) msb = (msb << 4) | nibble;
+            else lsb = (lsb << 4) | nibble;
+        }
+        return new long[]{msb, lsb};
+    }
+
+    private static void putLong(byte[] out, int offset, long value) {
+        for (int i = 7; i >= 0; i--) {
+            out[offset + i] = (byte) value;
+            value >>>= 8;
+        }
+    }
+
+    private static long getLong(byte[] in, int offset) {
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | (in[offset + i] & 0xFF);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,34 @@
+package com.nexus_ledger.nexusLedger.kafkaTransaction;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nexus_ledger.nexusLedger.dto.TransferCommand;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.util.Map;
+
+/**
+ * Kafka value deserializer for transfer events. Reads {@link TransferEventCodec} binary, and still
+ * accepts the legacy JSON map (first byte '{') so records already on the topic drain after an upgrade.
+ */
+public class TransferEventDeserializer implements Deserializer<TransferCommand> {
+
+    // Amounts bind straight to BigDecimal: through a Double, 12.50 would lose its scale and large
+    // amounts their last digits
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public TransferCommand deserialize(String topic, byte[] data) {
+        if (data == null) return null;
+        if (TransferEventCodec.isBinary(data)) return TransferEventCodec.decode(data);
+
+        try {
+            return TransferCommand.fromMessage(objectMapper.readValue(data, Map.class));
+        } catch (Exception e) {
+            throw new SerializationException("Undecodable transfer event on " + topic, e);
+        }
+    }
+}
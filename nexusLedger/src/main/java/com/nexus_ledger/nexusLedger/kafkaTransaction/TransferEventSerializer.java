@@ -0,0 +1,49 @@
+package com.nexus_ledger.nexusLedger.kafkaTransaction;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nexus_ledger.nexusLedger.dto.TransferCommand;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Kafka value serializer for transfer events. Writes {@link TransferEventCodec} binary by default;
+ * set producer property {@code nexus.wire.format=json} to keep emitting the legacy JSON map while
+ * consumers that predate the binary format are still running.
+ */
+public class TransferEventSerializer implements Serializer<TransferCommand> {
+
+    public static final String FORMAT_CONFIG = "nexus.wire.format";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private boolean json = false;
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        Object format = configs.get(FORMAT_CONFIG);
+        json = format != null && "json".equalsIgnoreCase(format.toString());
+    }
+
+    @Override
+    public byte[] serialize(String topic, TransferCommand cmd) {
+        if (cmd == null) return null;
+        if (!json) return TransferEventCodec.encode(cmd);
+
+        // Same shape TransactionProducer used to build by hand
+        Map<String, Object> data = new HashMap<>();
+        data.put("fromId", cmd.getFromId().toString());
+        data.put("toId", cmd.getToId().toString());
+        data.put("amount", cmd.getAmount());
+        data.put("currency", cmd.getCurrency());
+        Map<String, Object> message = new HashMap<>();
+        message.put("key", cmd.getKey());
+        message.put("data", data);
+        try {
+            return objectMapper.writeValueAsBytes(message);
+        } catch (Exception e) {
+            throw new SerializationException("Could not write transfer event " + cmd.getKey(), e);
+        }
+    }
+}
@@ -1,7 +1,12 @@
 package com.nexus_ledger.nexusLedger.module;
 
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.Formula;
 
 import java.math.BigDecimal;
 import java.util.UUID;
@@ -11,6 +16,10 @@ import java.util.UUID;
 @Data
 public class Account {
 
+    // Total balance of accounts row `a` in native SQL: the row's own balance plus any slot rows
+    public static final String TOTAL_BALANCE_SQL =
+            "(a.balance + COALESCE((SELECT SUM(s.balance) FROM account_slots s WHERE s.account_id = a.id), 0))";
+
     @Id
     private UUID id;
 
@@ -20,12 +29,30 @@ public class Account {
     @Column(nullable = false)
     private String ownerName;
 
+    // Own part of the balance; a sharded account keeps (almost) all of it in its AccountSlot rows
+    @Getter(AccessLevel.NONE)
     private BigDecimal balance;
 
+    // 0 = plain account; N = credits and debits are spread over N AccountSlot rows (see AccountSharding)
+    @Column(columnDefinition = "integer not null default 0")
+    private int slotCount;
+
+    @Formula("(SELECT COALESCE(SUM(s.balance), 0) FROM account_slots s WHERE s.account_id = id)")
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    private BigDecimal slotBalance;
+
     @Column(nullable = false, length = 3)
     private String currency = "USD";
 
     @Version
     private Long version; // Optimistic Locking to prevent double-spending
 
+    // Readers see one balance whether or not the account is sharded
+    public BigDecimal getBalance() {
+        if (balance == null || slotBalance == null) return balance;
+        return balance.add(slotBalance);
+    }
+
 }
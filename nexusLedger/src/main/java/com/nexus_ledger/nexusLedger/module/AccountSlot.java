@@ -0,0 +1,42 @@
+package com.nexus_ledger.nexusLedger.module;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.UUID;
+
+// One shard of a hot account's balance. The account's balance is its own row plus the sum of its slots,
+// so writers can take different slot rows instead of all queueing on the one accounts row.
+@Entity
+@Table(name = "account_slots")
+@IdClass(AccountSlot.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountSlot {
+
+    @Id
+    private UUID accountId;
+
+    @Id
+    private int slot;
+
+    @Column(nullable = false)
+    private BigDecimal balance;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private UUID accountId;
+        private int slot;
+    }
+}
@@ -0,0 +1,27 @@
+package com.nexus_ledger.nexusLedger.module;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "account_snapshots")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountSnapshot {
+
+    @Id
+    private UUID accountId;
+    private BigDecimal balance;     // Balance after folding every journal entry with tx_xid < markXid
+    private Long markXid;           // Commit-ordered high-water mark: replay resumes from tx_xid >= markXid
+    private LocalDateTime takenAt;
+
+}
@@ -0,0 +1,31 @@
+package com.nexus_ledger.nexusLedger.module;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// One row per journal partition moved into the archive, committed together with the partition's drop.
+// Every instance checks its archive directory against these (see JournalArchive).
+@Entity
+@Table(name = "journal_archive_partitions")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedPartition {
+
+    @Id
+    @Column(length = 63)
+    private String partitionName;   // journal_entries_pYYYY_MM; the file is <partitionName>.nxa
+
+    private long legs;
+    private BigDecimal total;
+    private LocalDateTime archivedAt;
+
+}
@@ -0,0 +1,38 @@
+package com.nexus_ledger.nexusLedger.module;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Append-only running-balance history; rows are written in bulk by BalanceHistoryService
+@Entity
+@Table(name = "balance_checkpoints", indexes = {
+        @Index(name = "idx_checkpoint_account_as_of", columnList = "accountId, asOf"),
+        @Index(name = "idx_checkpoint_account_mark", columnList = "accountId, markXid, lastJournalId")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceCheckpoint {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private UUID accountId;
+    private Long lastJournalId;     // Balance includes this account's legs up to this journal id...
+    private Long markXid;           // ...written by transactions below this commit mark (ReplayEngine#commitMark)
+    private BigDecimal balance;
+    private LocalDateTime asOf;     // Latest created_at among those legs (opening rows use 1970-01-01)
+
+}
@@ -0,0 +1,32 @@
+package com.nexus_ledger.nexusLedger.module;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+// Per-item outcome of a bulk submission at intake; rows are written in bulk by BulkTransferService
+@Entity
+@Table(name = "bulk_job_items", indexes = {
+        @Index(name = "idx_bulk_job_item", columnList = "jobId, itemIndex")
+})
+@Data
+@NoArgsConstructor
+public class BulkJobItem {
+
+    public static final String ID_SEQUENCE = "bulk_job_items_seq";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+    @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = 50)
+    private Long id;
+
+    private UUID jobId;
+    private UUID accountId;         // Submitting account; only it can read the job
+    private int itemIndex;
+    private String idempotencyKey;
+    private String status;          // ACCEPTED, DUPLICATE or REJECTED
+    private String message;
+
+}
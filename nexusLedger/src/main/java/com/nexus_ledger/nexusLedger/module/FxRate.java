@@ -0,0 +1,46 @@
+package com.nexus_ledger.nexusLedger.module;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// 1 unit of baseCurrency = rate units of quoteCurrency. Read into FxRateTable; the inverse pair is derived
+// when it isn't listed.
+@Entity
+@Table(name = "fx_rates")
+@IdClass(FxRate.Pair.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FxRate {
+
+    @Id
+    @Column(length = 3)
+    private String baseCurrency;
+
+    @Id
+    @Column(length = 3)
+    private String quoteCurrency;
+
+    @Column(nullable = false, precision = 24, scale = 12)
+    private BigDecimal rate;
+
+    private LocalDateTime updatedAt = LocalDateTime.now();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Pair implements Serializable {
+        private String baseCurrency;
+        private String quoteCurrency;
+    }
+}
@@ -1,16 +1,26 @@
 package com.nexus_ledger.nexusLedger.module;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.data.domain.Persistable;
 
 import java.math.BigDecimal;
 
 @Entity
-@Table(name = "idempotency_records")
+@Table(name = "idempotency_records", indexes = @Index(name = "idx_idempotency_from_id", columnList = "fromId"))
 @Data
-public class IdempotencyRecord {
+public class IdempotencyRecord implements Persistable<String> {
 
     @Id
     private String idempotencyKey;
@@ -21,4 +31,29 @@ public class IdempotencyRecord {
     private String toId;
     private BigDecimal amount;
 
+    // Keys are client supplied, so saveAll() must persist() rather than merge() (one SELECT per record)
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    private boolean newEntity = true;
+
+    @Override
+    @JsonIgnore
+    public String getId() {
+        return idempotencyKey;
+    }
+
+    @Override
+    @JsonIgnore
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.newEntity = false;
+    }
+
 }
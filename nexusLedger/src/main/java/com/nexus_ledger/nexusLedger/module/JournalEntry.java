@@ -6,24 +6,46 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "journal_entries")
+@Table(name = "journal_entries", indexes = {
+        // Statement pages: WHERE account_id = ? AND id < ? ORDER BY id DESC is one index range scan
+        @Index(name = "idx_journal_account_id", columnList = "accountId, id"),
+        // Finding the other leg(s) of a transaction
+        @Index(name = "idx_journal_transaction", columnList = "transaction_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class JournalEntry {
 
+    public static final String ID_SEQUENCE = "journal_entries_seq";
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // Pooled sequence: Hibernate reserves 50 ids per nextval, so legs go out as JDBC batch inserts
+    // (IDENTITY forces one INSERT ... RETURNING per row). Ids are unique but say nothing about commit
+    // order: every instance posts from its own block, so a leg can commit after legs with higher ids.
+    // Nothing that has to see every leg watermarks on the id; replay and balance history use tx_xid
+    // (see ReplayEngine#commitMark), and the id only orders statement pages.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+    @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
+    // No FK constraint: transactions may be range-partitioned (see SchemaMigrations), and a key into a
+    // partitioned table has to include created_at. Legs are only ever written together with their header.
     @ManyToOne
-    @JoinColumn(name = "transaction_id")
+    @JoinColumn(name = "transaction_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private Transaction transaction;
 
     private UUID accountId;
     private BigDecimal amount; // Negative for Debit, Positive for Credit
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    public JournalEntry(Long id, Transaction transaction, UUID accountId, BigDecimal amount) {
+        this(id, transaction, accountId, amount, LocalDateTime.now());
+    }
 
 }
@@ -0,0 +1,39 @@
+package com.nexus_ledger.nexusLedger.module;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Accepted transfer waiting to be published to Kafka; written by the request thread, drained by OutboxRelay
+@Entity
+@Table(name = "transfer_outbox", indexes = {
+        // Relay poll: WHERE sent_at IS NULL ORDER BY id
+        @Index(name = "idx_outbox_pending", columnList = "sentAt, id")
+})
+@Data
+@NoArgsConstructor
+public class OutboxEvent {
+
+    public static final String ID_SEQUENCE = "transfer_outbox_seq";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+    @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = 50)
+    private Long id;
+
+    private String eventKey;        // Idempotency key of the request
+    private UUID fromId;
+    private UUID toId;
+    private BigDecimal amount;
+    private String currency;
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    private LocalDateTime sentAt;   // Set once the broker acknowledged the record; null = pending
+    private int attempts;
+    private String lastError;
+
+}
@@ -0,0 +1,20 @@
+package com.nexus_ledger.nexusLedger.repository;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.UUID;
+
+// Balance writes for AccountRepository. Implemented by hand (AccountBalancesImpl) so a sharded account
+// can be routed to its slot rows without callers knowing.
+public interface AccountBalances {
+
+    // Returns rows updated (0 = no such account). Bumps @Version so a stale entity can't overwrite the balance.
+    int updateBalance(UUID id, BigDecimal amount);
+
+    // Funds check and debit in one statement, returning the balance it leaves (UPDATE ... RETURNING); empty
+    // when the account is missing or can't cover the amount. The row lock it takes is held until commit, so
+    // no other transfer can spend the same funds. A sharded account's balance is re-summed over its slots.
+    Optional<BigDecimal> debitIfFunded(UUID id, BigDecimal amount);
+
+    Optional<BigDecimal> findBalanceById(UUID id);
+}
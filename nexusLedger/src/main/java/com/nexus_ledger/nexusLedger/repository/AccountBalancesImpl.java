@@ -0,0 +1,166 @@
+package com.nexus_ledger.nexusLedger.repository;
+
+import com.nexus_ledger.nexusLedger.service.AccountSharding;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Plain accounts are one row. A sharded account is its own row plus N account_slots rows:
+ * credits land on a random slot, debits claim a slot that can cover the amount, and only when no
+ * single slot can do they lock the whole account (row + slots, in slot order) and drain across it.
+ *
+ * The shard map in {@link AccountSharding} is only a per-instance hint; accounts.slot_count decides.
+ * Row writes carry "slot_count = 0" in their WHERE clause, so a write aimed at an account another
+ * instance has sharded updates nothing, and the layout is then read from the row and the hint fixed.
+ * Slot writes against an account that has been unsharded update nothing and fall back to the row.
+ */
+@RequiredArgsConstructor
+public class AccountBalancesImpl implements AccountBalances {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final AccountSharding sharding;
+
+    @Override
+    public int updateBalance(UUID id, BigDecimal amount) {
+        int slots = sharding.slotsOf(id);
+        if (slots == 0) {
+            if (updateRow(id, amount, true) == 1) return 1;
+            slots = refresh(id);
+            if (slots == 0) return updateRow(id, amount, false); // No such account, or unsharded meanwhile
+        }
+
+        if (amount.signum() < 0) {
+            // Netted batch debit: funds were checked by the caller, so it must land, but never push a slot
+            // below zero; what no slot covers is spread over all of them, the rest left on the row
+            BigDecimal debit = amount.negate();
+            return debitOneSlot(id, slots, debit) == 1 ? 1 : drain(id, debit, false);
+        }
+        // Slot rows gone (account unsharded meanwhile): the row itself always takes the credit
+        int updated = updateSlot(id, ThreadLocalRandom.current().nextInt(slots), amount);
+        return updated == 1 ? 1 : updateRow(id, amount, false);
+    }
+
+    @Override
+    public Optional<BigDecimal> debitIfFunded(UUID id, BigDecimal amount) {
+        int slots = sharding.slotsOf(id);
+        if (slots == 0) {
+            Optional<BigDecimal> balance = debitRow(id, amount, true);
+            if (balance.isPresent()) return balance;
+            // Short of funds, missing, or sharded by another instance: the row says which
+            slots = refresh(id);
+            if (slots == 0) return debitRow(id, amount, false);
+        }
+
+        // 1. Any one slot that covers the amount
+        // 2. Funds are spread too thin (or sit on the row): lock the whole account and drain across it
+        // Either way the money is spread over several rows, so the balance has to be summed
+        if (debitOneSlot(id, slots, amount) == 1 || drain(id, amount, true) == 1) return findBalanceById(id);
+        return Optional.empty();
+    }
+
+    @Override
+    public Optional<BigDecimal> findBalanceById(UUID id) {
+        return entityManager.createQuery("""
+                        SELECT a.balance + COALESCE((SELECT SUM(s.balance) FROM AccountSlot s WHERE s.accountId = a.id), 0)
+                        FROM Account a WHERE a.id = :id
+                        """, BigDecimal.class)
+                .setParameter("id", id)
+                .getResultStream()
+                .findFirst();
+    }
+
+    // The random start keeps concurrent debits of one account on different slots
+    private int debitOneSlot(UUID id, int slots, BigDecimal amount) {
+        int start = ThreadLocalRandom.current().nextInt(slots);
+        for (int i = 0; i < slots; i++) {
+            if (debitSlot(id, (start + i) % slots, amount) == 1) return 1;
+        }
+        return 0;
+    }
+
+    // Takes the amount from the slots, each down to zero at most, and the rest from the row. With
+    // requireFunds it updates nothing unless row + slots cover the amount.
+    private int drain(UUID id, BigDecimal amount, boolean requireFunds) {
+        // Row first, then slots in slot order: the same order AccountSharding.rebalance locks them in
+        List<?> row = entityManager.createNativeQuery("SELECT balance FROM accounts WHERE id = ? FOR UPDATE")
+                .setParameter(1, id)
+                .getResultList();
+        if (row.isEmpty()) return 0;
+        @SuppressWarnings("unchecked")
+        List<Object[]> slotRows = entityManager.createNativeQuery(
+                        "SELECT slot, balance FROM account_slots WHERE account_id = ? ORDER BY slot FOR UPDATE")
+                .setParameter(1, id)
+                .getResultList();
+
+        BigDecimal total = (BigDecimal) row.get(0);
+        for (Object[] slot : slotRows) total = total.add((BigDecimal) slot[1]);
+        if (requireFunds && total.compareTo(amount) < 0) return 0;
+
+        BigDecimal remaining = amount;
+        for (Object[] slot : slotRows) {
+            BigDecimal take = remaining.min((BigDecimal) slot[1]);
+            if (take.signum() <= 0) continue;
+            updateSlot(id, ((Number) slot[0]).intValue(), take.negate());
+            remaining = remaining.subtract(take);
+            if (remaining.signum() == 0) return 1;
+        }
+        return updateRow(id, remaining.negate(), false);
+    }
+
+    // The account's layout as the row has it now; the shard map learns it too
+    private int refresh(UUID id) {
+        int slots = entityManager.createQuery("SELECT a.slotCount FROM Account a WHERE a.id = :id", Integer.class)
+                .setParameter("id", id)
+                .getResultStream()
+                .findFirst()
+                .orElse(0);
+        sharding.observe(id, slots);
+        return slots;
+    }
+
+    // plainOnly: leave the row alone if the account is sharded (its money lives on the slots)
+    private int updateRow(UUID id, BigDecimal amount, boolean plainOnly) {
+        return entityManager.createQuery("UPDATE Account a SET a.balance = a.balance + :amount, a.version = a.version + 1 "
+                        + "WHERE a.id = :id" + (plainOnly ? " AND a.slotCount = 0" : ""))
+                .setParameter("id", id)
+                .setParameter("amount", amount)
+                .executeUpdate();
+    }
+
+    // The balance the debit left, straight from the UPDATE; empty if nothing was debited
+    private Optional<BigDecimal> debitRow(UUID id, BigDecimal amount, boolean plainOnly) {
+        List<?> balance = entityManager.createNativeQuery("UPDATE accounts SET balance = balance - ?1, version = version + 1 "
+                        + "WHERE id = ?2 AND balance >= ?1" + (plainOnly ? " AND slot_count = 0" : "") + " RETURNING balance")
+                .setParameter(1, amount)
+                .setParameter(2, id)
+                .getResultList();
+        return balance.stream().findFirst().map(BigDecimal.class::cast);
+    }
+
+    private int updateSlot(UUID id, int slot, BigDecimal amount) {
+        return entityManager.createQuery(
+                        "UPDATE AccountSlot s SET s.balance = s.balance + :amount WHERE s.accountId = :id AND s.slot = :slot")
+                .setParameter("id", id)
+                .setParameter("slot", slot)
+                .setParameter("amount", amount)
+                .executeUpdate();
+    }
+
+    private int debitSlot(UUID id, int slot, BigDecimal amount) {
+        return entityManager.createQuery("UPDATE AccountSlot s SET s.balance = s.balance - :amount "
+                        + "WHERE s.accountId = :id AND s.slot = :slot AND s.balance >= :amount")
+                .setParameter("id", id)
+                .setParameter("slot", slot)
+                .setParameter("amount", amount)
+                .executeUpdate();
+    }
+}
@@ -1,16 +1,22 @@
 package com.nexus_ledger.nexusLedger.repository;
 
 import com.nexus_ledger.nexusLedger.module.Account;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
-import java.math.BigDecimal;
+import java.util.Optional;
 import java.util.UUID;
 
-public interface AccountRepository extends JpaRepository<Account, UUID> {
-    @Modifying
-    @Query("UPDATE Account a SET a.balance = a.balance + :amount WHERE a.id = :id")
-    void updateBalance(@Param("id") UUID id, @Param("amount") BigDecimal amount);
+// Balance writes (updateBalance, debitIfFunded, findBalanceById) come from AccountBalances
+public interface AccountRepository extends JpaRepository<Account, UUID>, AccountBalances {
+    @Query("SELECT a.currency FROM Account a WHERE a.id = :id")
+    Optional<String> findCurrencyById(@Param("id") UUID id);
+
+    // SELECT ... FOR UPDATE: the balance read stays exact until the transaction commits
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Account a WHERE a.id = :id")
+    Optional<Account> findByIdForUpdate(@Param("id") UUID id);
 }
\ No newline at end of file
@@ -0,0 +1,6 @@
+package com.nexus_ledger.nexusLedger.repository;
+
+import com.nexus_ledger.nexusLedger.module.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface OutboxRepository extends JpaRepository<OutboxEvent, Long> { }
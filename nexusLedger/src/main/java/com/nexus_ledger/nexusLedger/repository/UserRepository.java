@@ -2,6 +2,8 @@ package com.nexus_ledger.nexusLedger.repository;
 
 import com.nexus_ledger.nexusLedger.module.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 
@@ -9,4 +11,8 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     // Spring generates: SELECT * FROM users WHERE github_id = ?
     Optional<User> findByGithubId(String githubId);
+
+    // User and account in one query (the account is needed on every authenticated request)
+    @Query("SELECT u FROM User u JOIN FETCH u.account WHERE u.githubId = :githubId")
+    Optional<User> findWithAccountByGithubId(@Param("githubId") String githubId);
 }
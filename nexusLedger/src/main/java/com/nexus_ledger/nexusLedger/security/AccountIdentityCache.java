@@ -0,0 +1,69 @@
+package com.nexus_ledger.nexusLedger.security;
+
+import com.nexus_ledger.nexusLedger.module.User;
+import com.nexus_ledger.nexusLedger.repository.UserRepository;
+import com.nexus_ledger.nexusLedger.util.LruCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * GitHub id -> account id and currency for authenticated requests. Filled at login by {@link OAuth2SuccessHandler},
+ * dropped at logout; a miss (e.g. after a restart with a live session) costs one fetch-join query.
+ * A user's account (and its currency) never changes, so entries can't go stale, and every instance can
+ * cache independently.
+ */
+@Component
+public class AccountIdentityCache {
+
+    public record AccountIdentity(UUID accountId, String currency) { }
+
+    private final UserRepository userRepository;
+    private final LruCache<String, AccountIdentity> cache;
+    private final Counter hits;
+    private final Counter misses;
+
+    public AccountIdentityCache(UserRepository userRepository,
+                                MeterRegistry meterRegistry,
+                                @Value("${nexus.identity.cache.max-entries:100000}") int maxEntries) {
+        this.userRepository = userRepository;
+        this.cache = new LruCache<>(maxEntries);
+        this.hits = meterRegistry.counter("ledger.identity.lookups", "result", "hit");
+        this.misses = meterRegistry.counter("ledger.identity.lookups", "result", "miss");
+        meterRegistry.gauge("ledger.identity.cached", cache, LruCache::size);
+    }
+
+    public Optional<UUID> accountIdFor(String githubId) {
+        return accountFor(githubId).map(AccountIdentity::accountId);
+    }
+
+    public Optional<AccountIdentity> accountFor(String githubId) {
+        AccountIdentity identity = cache.get(githubId);
+        if (identity != null) {
+            hits.increment();
+            return Optional.of(identity);
+        }
+        misses.increment();
+        Optional<AccountIdentity> loaded = userRepository.findWithAccountByGithubId(githubId).map(AccountIdentityCache::identityOf);
+        loaded.ifPresent(loadedIdentity -> cache.put(githubId, loadedIdentity));
+        return loaded;
+    }
+
+    public void remember(User user) {
+        if (user.getGithubId() != null && user.getAccount() != null) {
+            cache.put(user.getGithubId(), identityOf(user));
+        }
+    }
+
+    public void forget(String githubId) {
+        cache.remove(githubId);
+    }
+
+    private static AccountIdentity identityOf(User user) {
+        return new AccountIdentity(user.getAccount().getId(), user.getAccount().getCurrency());
+    }
+}
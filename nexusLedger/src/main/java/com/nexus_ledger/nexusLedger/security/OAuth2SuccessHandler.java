@@ -23,6 +23,7 @@ public class OAuth2SuccessHandler extends SimpleUrlAuthenticationSuccessHandler
 
     private final UserRepository userRepo;
     private final AccountRepository accountRepo;
+    private final AccountIdentityCache identityCache;
 
     @Override
     public void onAuthenticationSuccess(HttpServletRequest request, HttpServletResponse response,
@@ -73,6 +74,7 @@ public class OAuth2SuccessHandler extends SimpleUrlAuthenticationSuccessHandler
                 });
 
         System.out.println("Login Success for: " + user.getEmail());
+        identityCache.remember(user); // Later requests resolve their account without a query
 
         // 3. Redirect to React
         getRedirectStrategy().sendRedirect(request, response, "http://localhost:5173/dashboard");
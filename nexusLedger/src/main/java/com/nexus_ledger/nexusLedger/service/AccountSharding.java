@@ -0,0 +1,171 @@
+package com.nexus_ledger.nexusLedger.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-account sharded balances. A sharded account keeps its money in N account_slots rows next to its
+ * accounts row, so credits from many concurrent transfers take different row locks instead of
+ * queueing on one (AccountBalancesImpl does the routing). The slot counts live in accounts.slot_count;
+ * this keeps a copy in memory as a routing hint (writes check the row, and every rebalance reloads it,
+ * so accounts sharded by another instance are picked up), applies the configured list on startup, and
+ * periodically evens the slots out so debits keep finding a slot that can cover them.
+ */
+@Slf4j
+@Service
+public class AccountSharding {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LockRetry lockRetry;
+    private final List<String> accountNumbers;
+    private final int defaultSlots;
+    private final Map<UUID, Integer> slotCounts = new ConcurrentHashMap<>();
+
+    // Taking the EntityManagerFactory orders us after Hibernate has added slot_count and account_slots
+    public AccountSharding(JdbcTemplate jdbcTemplate,
+                           LockRetry lockRetry,
+                           EntityManagerFactory entityManagerFactory,
+                           @Value("${nexus.ledger.sharding.accounts:}") List<String> accountNumbers,
+                           @Value("${nexus.ledger.sharding.slots:16}") int defaultSlots) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.lockRetry = lockRetry;
+        this.accountNumbers = accountNumbers;
+        this.defaultSlots = defaultSlots;
+    }
+
+    @PostConstruct
+    void load() {
+        reload();
+        if (!slotCounts.isEmpty()) log.info("{} sharded account(s) loaded", slotCounts.size());
+    }
+
+    // 0 for a plain account (as far as this instance knows)
+    public int slotsOf(UUID accountId) {
+        return slotCounts.getOrDefault(accountId, 0);
+    }
+
+    // A write found a different layout on the row than the hint had
+    public void observe(UUID accountId, int slots) {
+        if (slots > 0) slotCounts.put(accountId, slots);
+        else slotCounts.remove(accountId);
+    }
+
+    // Replaces the hint with what accounts.slot_count says now
+    private void reload() {
+        Map<UUID, Integer> current = new HashMap<>();
+        jdbcTemplate.query("SELECT id, slot_count FROM accounts WHERE slot_count > 0",
+                rs -> { current.put(rs.getObject("id", UUID.class), rs.getInt("slot_count")); });
+        slotCounts.putAll(current);
+        slotCounts.keySet().retainAll(current.keySet());
+    }
+
+    // After the seeder, so the configured system accounts exist
+    @EventListener(ApplicationReadyEvent.class)
+    public void applyConfiguredAccounts() {
+        for (String accountNumber : accountNumbers) {
+            if (accountNumber.isBlank()) continue;
+            List<UUID> ids = jdbcTemplate.queryForList(
+                    "SELECT id FROM accounts WHERE account_number = ?", UUID.class, accountNumber.trim());
+            if (ids.isEmpty()) {
+                log.warn("Sharding configured for unknown account {}", accountNumber);
+            } else if (slotsOf(ids.get(0)) != defaultSlots) {
+                shard(ids.get(0), defaultSlots);
+            }
+        }
+    }
+
+    // Switches an account to `slots` slot rows (0 = back to a plain account). Money on removed slots is
+    // folded into the accounts row, then everything is spread evenly over the remaining slots.
+    public void shard(UUID accountId, int slots) {
+        lockRetry.inTransaction(() -> {
+            // 1. Row first, then slots in slot order (the order drains and rebalances use)
+            lockRow(accountId);
+            List<BigDecimal> existing = lockSlots(accountId);
+
+            // 2. Fold surplus slots into the row, create missing ones empty
+            BigDecimal folded = BigDecimal.ZERO;
+            for (int slot = slots; slot < existing.size(); slot++) folded = folded.add(existing.get(slot));
+            jdbcTemplate.update("DELETE FROM account_slots WHERE account_id = ? AND slot >= ?", accountId, slots);
+            List<Object[]> fresh = new ArrayList<>();
+            for (int slot = existing.size(); slot < slots; slot++) fresh.add(new Object[]{accountId, slot});
+            jdbcTemplate.batchUpdate("INSERT INTO account_slots (account_id, slot, balance) VALUES (?, ?, 0)", fresh);
+            jdbcTemplate.update("UPDATE accounts SET balance = balance + ?, slot_count = ?, version = version + 1 WHERE id = ?",
+                    folded, slots, accountId);
+
+            // 3. Spread the row's money over the slots
+            if (slots > 0) spread(accountId, slots);
+            return null;
+        });
+        observe(accountId, slots);
+        log.info("Account {} now has {} balance slot(s)", accountId, slots);
+    }
+
+    // Credits land on random slots and debits drain whichever slot they hit, so slots drift apart
+    @Scheduled(fixedDelayString = "${nexus.ledger.sharding.rebalance-interval-ms:10000}",
+            initialDelayString = "${nexus.ledger.sharding.rebalance-interval-ms:10000}")
+    public void rebalance() {
+        reload();
+        slotCounts.forEach((accountId, slots) -> {
+            try {
+                lockRetry.inTransaction(() -> {
+                    lockRow(accountId);
+                    lockSlots(accountId);
+                    return spread(accountId, slots);
+                });
+            } catch (RuntimeException e) {
+                log.warn("Rebalancing account {} failed: {}", accountId, e.getMessage());
+            }
+        });
+    }
+
+    // Caller holds the row and slot locks. Sets every slot to an equal share of row + slots (the rounding
+    // remainder goes to slot 0) and empties the row; skipped while the slots are still reasonably even.
+    private boolean spread(UUID accountId, int slots) {
+        BigDecimal row = jdbcTemplate.queryForObject("SELECT balance FROM accounts WHERE id = ?", BigDecimal.class, accountId);
+        List<BigDecimal> current = jdbcTemplate.queryForList(
+                "SELECT balance FROM account_slots WHERE account_id = ? ORDER BY slot", BigDecimal.class, accountId);
+        if (row == null || current.size() != slots) return false;
+
+        BigDecimal total = row;
+        for (BigDecimal balance : current) total = total.add(balance);
+        BigDecimal share = total.divide(BigDecimal.valueOf(slots), Math.max(total.scale(), 2), RoundingMode.DOWN);
+        BigDecimal halfShare = share.divide(BigDecimal.TWO, share.scale(), RoundingMode.DOWN);
+        if (row.signum() == 0 && current.stream().allMatch(balance -> balance.compareTo(halfShare) >= 0)) return false;
+
+        BigDecimal remainder = total.subtract(share.multiply(BigDecimal.valueOf(slots)));
+        List<Object[]> updates = new ArrayList<>(slots);
+        for (int slot = 0; slot < slots; slot++) {
+            updates.add(new Object[]{slot == 0 ? share.add(remainder) : share, accountId, slot});
+        }
+        jdbcTemplate.batchUpdate("UPDATE account_slots SET balance = ? WHERE account_id = ? AND slot = ?", updates);
+        jdbcTemplate.update("UPDATE accounts SET balance = 0, version = version + 1 WHERE id = ?", accountId);
+        return true;
+    }
+
+    private void lockRow(UUID accountId) {
+        if (jdbcTemplate.queryForList("SELECT id FROM accounts WHERE id = ? FOR UPDATE", UUID.class, accountId).isEmpty()) {
+            throw new RuntimeException("Account not found: " + accountId);
+        }
+    }
+
+    private List<BigDecimal> lockSlots(UUID accountId) {
+        return jdbcTemplate.queryForList("SELECT balance FROM account_slots WHERE account_id = ? ORDER BY slot FOR UPDATE",
+                BigDecimal.class, accountId);
+    }
+}
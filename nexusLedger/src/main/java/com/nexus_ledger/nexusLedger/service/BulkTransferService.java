@@ -0,0 +1,303 @@
+package com.nexus_ledger.nexusLedger.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nexus_ledger.nexusLedger.dto.BulkTransferItem;
+import com.nexus_ledger.nexusLedger.dto.TransferCommand;
+import com.nexus_ledger.nexusLedger.kafkaTransaction.TransactionProducer;
+import com.nexus_ledger.nexusLedger.util.Money;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Bulk transfer intake for payroll-style submissions. The body is a JSON array or NDJSON of
+ * {@link BulkTransferItem}s and is parsed as it arrives; the caller was authorized once by the controller.
+ * Items are handled in chunks: validation, an in-memory/DB idempotency check for the whole chunk, and one
+ * producer call per chunk (one outbox insert batch, or one Kafka flush). With the outbox the chunk's
+ * bulk_job_items rows commit with its transfers; sending directly, they are written after the broker's
+ * acks, one outcome per record. The response streams one NDJSON status line per item, then a summary line.
+ *
+ * {@link #writeJob} replays those lines later. For accepted items it adds the ledger outcome from
+ * idempotency_records once the consumer has processed them.
+ */
+@Slf4j
+@Service
+public class BulkTransferService {
+
+    public static final String ACCEPTED = "ACCEPTED";
+    public static final String DUPLICATE = "DUPLICATE";
+    public static final String REJECTED = "REJECTED";
+
+    private static final String INSERT_ITEM_SQL = """
+            INSERT INTO bulk_job_items (id, job_id, account_id, item_index, idempotency_key, status, message)
+            VALUES (nextval('bulk_job_items_seq'), ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String JOB_SQL = """
+            SELECT i.item_index, i.idempotency_key, i.status, i.message, r.response_body AS outcome
+            FROM bulk_job_items i
+            LEFT JOIN idempotency_records r ON r.idempotency_key = i.idempotency_key AND i.status = 'ACCEPTED'
+            WHERE i.job_id = ? AND i.account_id = ?
+            ORDER BY i.item_index
+            """;
+
+    private record Item(int index, String key, TransferCommand command, String status, String message) { }
+
+    private final TransactionProducer producer;
+    private final IdempotencyIndex idempotencyIndex;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTx;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+    private final int maxItems;
+
+    public BulkTransferService(TransactionProducer producer,
+                               IdempotencyIndex idempotencyIndex,
+                               JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               ObjectMapper objectMapper,
+                               @Value("${nexus.ledger.bulk.chunk-size:1000}") int chunkSize,
+                               @Value("${nexus.ledger.bulk.max-items:100000}") int maxItems) {
+        this.producer = producer;
+        this.idempotencyIndex = idempotencyIndex;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+        this.maxItems = maxItems;
+    }
+
+    // `accountCurrency` is the caller account's: every item moves it
+    public void submit(UUID jobId, UUID accountId, String accountCurrency, InputStream body, OutputStream out) throws IOException {
+        int[] totals = new int[3]; // accepted, duplicate, rejected
+        Set<String> seenKeys = new HashSet<>();
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(body);
+             JsonGenerator json = lineWriter(out)) {
+            List<Item> chunk = new ArrayList<>(chunkSize);
+            String error = null;
+            int index = 0;
+            try {
+                // 1. A top-level array, or a sequence of root-level objects (NDJSON)
+                JsonToken token = parser.nextToken();
+                boolean array = token == JsonToken.START_ARRAY;
+                if (array) token = parser.nextToken();
+
+                while (token == JsonToken.START_OBJECT) {
+                    if (index == maxItems) {
+                        error = "More than " + maxItems + " items; the rest were ignored";
+                        break;
+                    }
+                    chunk.add(validate(index++, parser.readValueAs(BulkTransferItem.class), accountId, accountCurrency, seenKeys));
+                    if (chunk.size() == chunkSize) {
+                        publish(jobId, accountId, chunk, json, totals);
+                        chunk.clear();
+                    }
+                    token = parser.nextToken();
+                }
+                if (error == null && token != null && !(array && token == JsonToken.END_ARRAY)) {
+                    error = "Expected a transfer object at item " + index + ", found " + token;
+                }
+            } catch (IOException e) {
+                error = "Malformed input at item " + index + ": " + e.getOriginalMessage(); // Earlier items still count
+            }
+            publish(jobId, accountId, chunk, json, totals);
+
+            // 2. Summary line
+            json.writeStartObject();
+            json.writeStringField("jobId", jobId.toString());
+            json.writeNumberField("accepted", totals[0]);
+            json.writeNumberField("duplicates", totals[1]);
+            json.writeNumberField("rejected", totals[2]);
+            if (error != null) json.writeStringField("error", error);
+            json.writeEndObject();
+            json.writeRaw('\n');
+        }
+        log.info("Bulk job {}: {} accepted, {} duplicates, {} rejected", jobId, totals[0], totals[1], totals[2]);
+    }
+
+    // Stored intake status per item, plus the ledger outcome for accepted items that have been processed
+    public void writeJob(UUID jobId, UUID accountId, OutputStream out) throws IOException {
+        try (JsonGenerator json = lineWriter(out)) {
+            readOnlyTx.executeWithoutResult(status -> jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(JOB_SQL);
+                ps.setFetchSize(1000);
+                ps.setObject(1, jobId);
+                ps.setObject(2, accountId);
+                return ps;
+            }, rs -> {
+                String outcome = rs.getString("outcome");
+                String intake = rs.getString("status");
+                try {
+                    writeLine(json, jobId, rs.getInt("item_index"), rs.getString("idempotency_key"),
+                            ACCEPTED.equals(intake) && outcome == null ? "QUEUED" : outcome != null ? outcome : intake,
+                            rs.getString("message"));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e); // Client went away; abandons the query
+                }
+            }));
+            json.writeRaw('\n');
+        }
+    }
+
+    private Item validate(int index, BulkTransferItem item, UUID accountId, String accountCurrency, Set<String> seenKeys) {
+        String key = item.getIdempotencyKey();
+        if (key == null || key.isBlank()) return rejected(index, key, "Missing idempotencyKey");
+        if (!seenKeys.add(key)) return rejected(index, key, "Duplicate idempotencyKey in this submission");
+        if (item.getFromId() != null && !item.getFromId().equals(accountId.toString())) {
+            return rejected(index, key, "Security Violation: Account ownership mismatch!");
+        }
+        if (item.getToId() == null || item.getAmount() == null) return rejected(index, key, "Missing required fields");
+        if (item.getAmount().signum() <= 0) return rejected(index, key, "Amount must be positive");
+        if (item.getCurrency() != null && !item.getCurrency().equals(accountCurrency)) {
+            return rejected(index, key, "Currency mismatch: the sending account holds " + accountCurrency);
+        }
+        if (!Money.fitsMinorUnit(item.getAmount(), accountCurrency)) {
+            return rejected(index, key, "Amount is finer than the currency's minor unit");
+        }
+
+        UUID toId;
+        try {
+            toId = UUID.fromString(item.getToId());
+        } catch (IllegalArgumentException e) {
+            return rejected(index, key, "Invalid toId");
+        }
+        TransferCommand command = new TransferCommand(key, accountId, toId, item.getAmount(), accountCurrency);
+        return new Item(index, key, command, ACCEPTED, null);
+    }
+
+    private static Item rejected(int index, String key, String message) {
+        return new Item(index, key, null, REJECTED, message);
+    }
+
+    private void publish(UUID jobId, UUID accountId, List<Item> chunk, JsonGenerator json, int[] totals) throws IOException {
+        if (chunk.isEmpty()) return;
+
+        // 1. Keys the ledger has already seen are not sent again (one lookup for the whole chunk)
+        List<String> keys = chunk.stream().filter(i -> i.command() != null).map(Item::key).toList();
+        Set<String> known = idempotencyIndex.existing(keys);
+        List<Item> outcomes = new ArrayList<>(chunk.size());
+        List<TransferCommand> commands = new ArrayList<>(chunk.size());
+        for (Item item : chunk) {
+            if (item.command() != null && known.contains(item.key())) {
+                outcomes.add(new Item(item.index(), item.key(), null, DUPLICATE, "Already processed"));
+            } else {
+                outcomes.add(item);
+                if (item.command() != null) commands.add(item.command());
+            }
+        }
+
+        // 2. Outbox: job items and transfers commit together. Direct: see publishDirect.
+        if (producer.usesOutbox()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    insertItems(jobId, accountId, outcomes);
+                    producer.sendBatch(commands);
+                });
+            } catch (RuntimeException e) {
+                // Nothing of this chunk was recorded; report it as rejected so the client can resubmit those items
+                log.error("Bulk job {}: chunk of {} items failed: {}", jobId, chunk.size(), e.getMessage());
+                outcomes.replaceAll(item -> rejected(item.index(), item.key(), "Not accepted, resubmit: " + e.getMessage()));
+            }
+        } else {
+            publishDirect(jobId, accountId, outcomes, commands);
+        }
+
+        // 3. One status line per item
+        for (Item item : outcomes) {
+            writeLine(json, jobId, item.index(), item.key(), item.status(), item.message());
+            totals[switch (item.status()) {
+                case ACCEPTED -> 0;
+                case DUPLICATE -> 1;
+                default -> 2;
+            }]++;
+        }
+        json.flush();
+    }
+
+    // Direct mode: the chunk is sent first, outside any DB transaction, and each item is then recorded with
+    // what the broker actually did with it. Items Kafka acked are ACCEPTED even if others in the chunk failed,
+    // so a resubmission only carries the failed ones.
+    private void publishDirect(UUID jobId, UUID accountId, List<Item> outcomes, List<TransferCommand> commands) {
+        List<String> failures;
+        try {
+            failures = producer.sendEach(commands);
+        } catch (RuntimeException e) {
+            // Interrupted mid-wait: some may have been delivered; the idempotency key makes a resubmission safe
+            log.error("Bulk job {}: chunk of {} items interrupted: {}", jobId, outcomes.size(), e.getMessage());
+            outcomes.replaceAll(item -> item.command() == null ? item
+                    : rejected(item.index(), item.key(), "Not confirmed, resubmit with the same idempotencyKey"));
+            failures = null;
+        }
+
+        if (failures != null) {
+            int sent = 0;
+            for (int i = 0; i < outcomes.size(); i++) {
+                Item item = outcomes.get(i);
+                if (item.command() == null) continue;
+                String failure = failures.get(sent++);
+                if (failure != null) {
+                    outcomes.set(i, rejected(item.index(), item.key(), "Not accepted, resubmit: " + failure));
+                }
+            }
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> insertItems(jobId, accountId, outcomes));
+        } catch (RuntimeException e) {
+            // The transfers are out either way; only GET /transfers/bulk/{jobId} will be missing these items
+            log.error("Bulk job {}: could not record {} items: {}", jobId, outcomes.size(), e.getMessage());
+        }
+    }
+
+    private void insertItems(UUID jobId, UUID accountId, List<Item> items) {
+        jdbcTemplate.batchUpdate(INSERT_ITEM_SQL, items, items.size(), (ps, item) -> {
+            ps.setObject(1, jobId);
+            ps.setObject(2, accountId);
+            ps.setInt(3, item.index());
+            ps.setString(4, item.key());
+            ps.setString(5, item.status());
+            ps.setString(6, item.message());
+        });
+    }
+
+    private static void writeLine(JsonGenerator json, UUID jobId, int index, String key, String status,
+                                  String message) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("jobId", jobId.toString());
+        json.writeNumberField("index", index);
+        json.writeStringField("idempotencyKey", key);
+        json.writeStringField("status", status);
+        if (message != null) json.writeStringField("message", message);
+        json.writeEndObject();
+    }
+
+    // NDJSON: root-level values separated by newlines
+    private JsonGenerator lineWriter(OutputStream out) throws IOException {
+        JsonGenerator json = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+        json.setRootValueSeparator(new SerializedString("\n"));
+        return json;
+    }
+}
@@ -0,0 +1,209 @@
+package com.nexus_ledger.nexusLedger.service;
+
+import com.nexus_ledger.nexusLedger.module.IdempotencyRecord;
+import com.nexus_ledger.nexusLedger.repository.IdempotencyRepository;
+import com.nexus_ledger.nexusLedger.util.BloomFilter;
+import com.nexus_ledger.nexusLedger.util.LruCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process front for idempotency_records, so the common case (a key never seen before) costs no
+ * DB round trip:
+ *  1. LRU    - recent outcomes, answered from memory (also serves the interceptor's stored response)
+ *  2. filter - Bloom filter over every stored key; "definitely not seen" ends the lookup
+ *  3. db     - only when the filter reports a possible hit (a real duplicate or a false positive)
+ *
+ * The filter is rebuilt from idempotency_records on startup; until that finishes every lookup goes to
+ * the DB. Writers must call {@link #record} once the record has committed. The filter only knows keys
+ * written by this instance, so keep it off when several ledger instances may see the same key
+ * (Kafka routes by key, but a rebalance moves partitions between instances).
+ */
+@Slf4j
+@Service
+public class IdempotencyIndex {
+
+    private final IdempotencyRepository repository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTx;
+    private final boolean enabled;
+    private final long expectedKeys;
+    private final double falsePositiveRate;
+    private final int fetchSize;
+    private final LruCache<String, IdempotencyRecord> recent;
+    private final AtomicLong keyCount = new AtomicLong();
+
+    private final Counter cacheHit;
+    private final Counter filterMiss;
+    private final Counter dbHit;
+    private final Counter dbMiss;
+
+    private volatile BloomFilter filter;
+    private volatile boolean ready = false;
+
+    public IdempotencyIndex(IdempotencyRepository repository,
+                            JdbcTemplate jdbcTemplate,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry registry,
+                            @Value("${nexus.idempotency.index.enabled:false}") boolean enabled,
+                            @Value("${nexus.idempotency.index.expected-keys:10000000}") long expectedKeys,
+                            @Value("${nexus.idempotency.index.false-positive-rate:0.01}") double falsePositiveRate,
+                            @Value("${nexus.idempotency.index.recent-entries:100000}") int recentEntries,
+                            @Value("${nexus.ledger.replay.fetch-size:5000}") int fetchSize) {
+        this.repository = repository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true); // PostgreSQL only honours the fetch size inside a transaction
+        this.enabled = enabled;
+        this.expectedKeys = expectedKeys;
+        this.falsePositiveRate = falsePositiveRate;
+        this.fetchSize = fetchSize;
+        this.recent = new LruCache<>(recentEntries);
+        this.filter = enabled ? new BloomFilter(expectedKeys, falsePositiveRate) : null;
+
+        this.cacheHit = lookupCounter(registry, "cache_hit");
+        this.filterMiss = lookupCounter(registry, "filter_miss");
+        this.dbHit = lookupCounter(registry, "db_hit");
+        this.dbMiss = lookupCounter(registry, "db_miss");
+        Gauge.builder("ledger.idempotency.index.keys", keyCount, AtomicLong::get).register(registry);
+        Gauge.builder("ledger.idempotency.index.recent", recent, LruCache::size).register(registry);
+    }
+
+    // Loading can take a while on a big table, so it runs in the background and lookups fall through until then
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (!enabled) return;
+        Thread.ofPlatform().name("idempotency-index-loader").daemon().start(this::rebuild);
+    }
+
+    public void rebuild() {
+        ready = false;
+        BloomFilter fresh = new BloomFilter(expectedKeys, falsePositiveRate);
+        filter = fresh; // Keys recorded while loading land in the new filter too
+        keyCount.set(0);
+        long start = System.currentTimeMillis();
+        try {
+            readOnlyTx.executeWithoutResult(status -> jdbcTemplate.query(con -> {
+                var ps = con.prepareStatement("SELECT idempotency_key FROM idempotency_records");
+                ps.setFetchSize(fetchSize);
+                return ps;
+            }, rs -> {
+                fresh.put(rs.getString(1));
+                keyCount.incrementAndGet();
+            }));
+        } catch (RuntimeException e) {
+            log.error("Idempotency index rebuild failed, lookups stay on the DB: {}", e.getMessage());
+            return;
+        }
+        ready = true;
+        log.info("Idempotency index loaded {} keys in {} ms ({} bits, {} hashes)",
+                keyCount.get(), System.currentTimeMillis() - start, fresh.bitCount(), fresh.hashCount());
+        warnIfSaturated();
+    }
+
+    public Optional<IdempotencyRecord> find(String key) {
+        if (!enabled) return repository.findById(key);
+
+        // 1. LRU tier
+        IdempotencyRecord cached = recent.get(key);
+        if (cached != null) {
+            cacheHit.increment();
+            return Optional.of(cached);
+        }
+        // 2. Filter tier
+        if (definitelyAbsent(key)) {
+            filterMiss.increment();
+            return Optional.empty();
+        }
+        // 3. DB tier
+        Optional<IdempotencyRecord> stored = repository.findById(key);
+        stored.ifPresentOrElse(record -> {
+            dbHit.increment();
+            recent.put(key, record);
+        }, dbMiss::increment);
+        return stored;
+    }
+
+    public boolean exists(String key) {
+        return find(key).isPresent();
+    }
+
+    // Batch form: only keys the filter cannot rule out are sent to the DB, in one query
+    public Set<String> existing(Collection<String> keys) {
+        Set<String> found = new HashSet<>();
+        if (!enabled) {
+            repository.findAllById(keys).forEach(r -> found.add(r.getIdempotencyKey()));
+            return found;
+        }
+
+        List<String> unresolved = new ArrayList<>();
+        for (String key : keys) {
+            if (recent.get(key) != null) {
+                cacheHit.increment();
+                found.add(key);
+            } else if (definitelyAbsent(key)) {
+                filterMiss.increment();
+            } else {
+                unresolved.add(key);
+            }
+        }
+        if (unresolved.isEmpty()) return found;
+
+        int hits = 0;
+        for (IdempotencyRecord record : repository.findAllById(unresolved)) {
+            recent.put(record.getIdempotencyKey(), record);
+            found.add(record.getIdempotencyKey());
+            hits++;
+        }
+        dbHit.increment(hits);
+        dbMiss.increment(unresolved.size() - hits);
+        return found;
+    }
+
+    // Call after the record has committed
+    public void record(IdempotencyRecord record) {
+        if (!enabled) return;
+        filter.put(record.getIdempotencyKey());
+        recent.put(record.getIdempotencyKey(), record);
+        if (keyCount.incrementAndGet() == expectedKeys) warnIfSaturated();
+    }
+
+    public void recordAll(Collection<IdempotencyRecord> records) {
+        records.forEach(this::record);
+    }
+
+    private boolean definitelyAbsent(String key) {
+        return ready && !filter.mightContain(key);
+    }
+
+    private void warnIfSaturated() {
+        if (keyCount.get() >= expectedKeys) {
+            log.warn("Idempotency index holds {} keys (sized for {}); false positives will rise, "
+                    + "raise nexus.idempotency.index.expected-keys", keyCount.get(), expectedKeys);
+        }
+    }
+
+    private static Counter lookupCounter(MeterRegistry registry, String result) {
+        return Counter.builder("ledger.idempotency.lookups")
+                .description("Idempotency lookups by the tier that answered them")
+                .tag("result", result)
+                .register(registry);
+    }
+}
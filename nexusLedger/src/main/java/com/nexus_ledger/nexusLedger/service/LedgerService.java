@@ -1,60 +1,290 @@
 package com.nexus_ledger.nexusLedger.service;
 
+import com.nexus_ledger.nexusLedger.dto.BatchResult;
+import com.nexus_ledger.nexusLedger.dto.TransferCommand;
 import com.nexus_ledger.nexusLedger.module.Account;
 import com.nexus_ledger.nexusLedger.module.JournalEntry;
 import com.nexus_ledger.nexusLedger.module.Transaction;
 import com.nexus_ledger.nexusLedger.repository.AccountRepository;
 import com.nexus_ledger.nexusLedger.repository.JournalRepository;
 import com.nexus_ledger.nexusLedger.repository.TransactionRepository;
+import com.nexus_ledger.nexusLedger.service.fx.FxPositions;
+import com.nexus_ledger.nexusLedger.service.fx.FxRateTable;
+import com.nexus_ledger.nexusLedger.util.LruCache;
+import com.nexus_ledger.nexusLedger.util.Money;
+import com.nexus_ledger.nexusLedger.util.MoneyTally;
+import com.nexus_ledger.nexusLedger.util.UuidV7;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
-import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.UUID;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class LedgerService {
 
+    private static final int CURRENCY_CACHE_SIZE = 100_000;
+
     private final AccountRepository accountRepo;
     private final TransactionRepository txRepo;
     private final JournalRepository journalRepo;
+    private final LedgerJdbcWriter jdbcWriter;
+    private final LockRetry lockRetry;
+    private final FxRateTable fxRates;
+    private final FxPositions fxPositions;
+    private final LruCache<UUID, String> currencies = new LruCache<>(CURRENCY_CACHE_SIZE); // Never changes per account
 
-    @Transactional
-    public void executeTransfer(UUID fromId, UUID toId, BigDecimal amount, String ref) {
-        // 1. Validation - Fetch both accounts safely
-        Account from = accountRepo.findById(fromId)
-                .orElseThrow(() -> new RuntimeException("Sender account not found: " + fromId));
+    // Returns the sender's balance after the transfer, so callers don't have to re-read it (approximate for a
+    // sharded sender, see transfer).
+    // Runs in its own transaction, retried with backoff if it loses a deadlock or lock wait (see LockRetry).
+    public BigDecimal executeTransfer(UUID fromId, UUID toId, BigDecimal amount, String currency, String ref) {
+        return lockRetry.inTransaction(() -> transfer(fromId, toId, amount, currency, ref));
+    }
 
-        Account to = accountRepo.findById(toId)
-                .orElseThrow(() -> new RuntimeException("Receiver account not found: " + toId));
+    // `amount` is in `currency`, which must be the sender's; a receiver in another currency gets it
+    // converted (fxTransfer)
+    private BigDecimal transfer(UUID fromId, UUID toId, BigDecimal amount, String currency, String ref) {
+        String fromCurrency = currencyOf(fromId, "Sender");
+        if (!fromCurrency.equals(currency)) {
+            throw new RuntimeException("Currency mismatch: " + currency + " transfer from a " + fromCurrency + " account");
+        }
+        if (!Money.fitsMinorUnit(amount, currency)) {
+            throw new RuntimeException("Amount " + amount + " is finer than " + currency + " minor units");
+        }
+        String toCurrency = currencyOf(toId, "Receiver");
+        if (!fromCurrency.equals(toCurrency)) {
+            return fxTransfer(fromId, fromCurrency, toId, toCurrency, amount, ref);
+        }
 
-        // 2. Check Funds
-        if (from.getBalance().compareTo(amount) < 0) {
-            throw new RuntimeException("Insufficient Funds in account: " + fromId);
+        // 1. Move the money with row-locking UPDATEs in canonical UUID order (the same order postTransfers
+        //    uses), so A->B and B->A can't deadlock. The debit carries the funds check itself, so there is
+        //    no unlocked read for a concurrent transfer to race, and it hands back the balance it left.
+        BigDecimal balance;
+        if (fromId.compareTo(toId) <= 0) {
+            balance = debit(fromId, amount);
+            credit(toId, amount);
+        } else {
+            credit(toId, amount);
+            balance = debit(fromId, amount);
         }
 
-        // 3. Create Transaction Header
+        // 2. Header and double-entry legs (lean path: one statement, no entities)
+        if (jdbcWriter.isEnabled()) {
+            jdbcWriter.post(UuidV7.next(), fromId, toId, amount, ref);
+        } else {
+            writeEntities(fromId, toId, amount, ref);
+        }
+
+        log.debug("Moved {} from {} to {}", amount, fromId, toId);
+        // 3. Plain sender: exactly the balance this transfer produced. Sharded sender: only the slot we
+        //    debited is locked, so the sum also reflects whatever other transfers committed on the other
+        //    slots by now; good for display, not for a funds check.
+        return balance;
+    }
+
+    // Cross-currency: four legs, each in a single currency. The sender's money goes into the FX position of
+    // their currency and the converted amount comes out of the position of the receiver's currency.
+    private BigDecimal fxTransfer(UUID fromId, String fromCurrency, UUID toId, String toCurrency,
+                                  BigDecimal amount, String ref) {
+        // 1. Price it off the current rate snapshot (no locks), rounded to the receiver's minor unit
+        long amountMinor = Money.toMinor(amount, fromCurrency); // Checked by transfer
+        BigDecimal credited = Money.toDecimal(fxRates.convert(amountMinor, fromCurrency, toCurrency), toCurrency);
+        UUID fxIn = fxPositions.accountFor(fromCurrency);
+        UUID fxOut = fxPositions.accountFor(toCurrency);
+
+        // 2. Debit, FX in, FX out, credit, applied in canonical UUID order like any other transfer
+        List<JournalEntry> legs = List.of(
+                new JournalEntry(null, null, fromId, amount.negate()),
+                new JournalEntry(null, null, fxIn, amount),
+                new JournalEntry(null, null, fxOut, credited.negate()),
+                new JournalEntry(null, null, toId, credited));
+        BigDecimal[] balance = new BigDecimal[1];
+        legs.stream().sorted(Comparator.comparing(JournalEntry::getAccountId)).forEach(leg -> {
+            if (leg.getAccountId().equals(fromId) && leg.getAmount().signum() < 0) balance[0] = debit(fromId, amount);
+            else credit(leg.getAccountId(), leg.getAmount());
+        });
+
+        // 3. One header, four legs (always through JPA: the JDBC write path is shaped for two legs)
         Transaction tx = new Transaction();
-        tx.setId(UUID.randomUUID());
+        tx.setId(UuidV7.next());
+        tx.setDescription("FX_TRANSFER");
+        tx.setReferenceId(ref);
+        Transaction header = txRepo.save(tx);
+        for (JournalEntry leg : legs) leg.setTransaction(header);
+        journalRepo.saveAll(legs);
+
+        log.debug("Moved {} {} from {} as {} {} to {}", amount, fromCurrency, fromId, credited, toCurrency, toId);
+        return balance[0];
+    }
+
+    private String currencyOf(UUID accountId, String role) {
+        String currency = currencies.get(accountId);
+        if (currency == null) {
+            currency = accountRepo.findCurrencyById(accountId)
+                    .orElseThrow(() -> new RuntimeException(role + " account not found: " + accountId));
+            currencies.put(accountId, currency);
+        }
+        return currency;
+    }
+
+    // Returns the sender's balance after the debit
+    private BigDecimal debit(UUID fromId, BigDecimal amount) {
+        return accountRepo.debitIfFunded(fromId, amount).orElseThrow(() -> new RuntimeException(
+                accountRepo.existsById(fromId)
+                        ? "Insufficient Funds in account: " + fromId
+                        : "Sender account not found: " + fromId));
+    }
+
+    private void credit(UUID toId, BigDecimal amount) {
+        if (accountRepo.updateBalance(toId, amount) == 0) {
+            throw new RuntimeException("Receiver account not found: " + toId);
+        }
+    }
+
+    // JPA fallback for executeTransfer
+    private void writeEntities(UUID fromId, UUID toId, BigDecimal amount, String ref) {
+        // Create Transaction Header
+        Transaction tx = new Transaction();
+        tx.setId(UuidV7.next()); // Time-ordered: appends to the PK index instead of splitting random pages
         tx.setDescription("TRANSFER"); // Maps to your 'description' field
         tx.setReferenceId(ref);        // Maps to your 'referenceId' field
         // Note: createdAt is already initialized to LocalDateTime.now() in your Entity
         tx = txRepo.save(tx);
 
-        // 4. Double-Entry Legs (Atomic Persistence)
+        // Double-Entry Legs (Atomic Persistence)
         // Debit the Sender
         journalRepo.save(new JournalEntry(null, tx, fromId, amount.negate()));
         // Credit the Receiver
         journalRepo.save(new JournalEntry(null, tx, toId, amount));
+    }
 
-        // 5. Update Balances (Using your Repository's atomic update)
-        accountRepo.updateBalance(fromId, amount.negate());
-        accountRepo.updateBalance(toId, amount);
+    // Group-commit variant used by the batch Kafka listener: every transfer in the batch shares one
+    // DB transaction, headers and legs go out as batched inserts, and each account gets a single
+    // netted balance update. A transfer that fails validation is reported back instead of aborting the batch.
+    @Transactional
+    public BatchResult executeBatch(List<TransferCommand> commands) {
+        BatchResult result = new BatchResult();
+
+        // 1. Fetch every account touched by the batch in one query
+        Set<UUID> accountIds = new HashSet<>();
+        for (TransferCommand cmd : commands) {
+            accountIds.add(cmd.getFromId());
+            accountIds.add(cmd.getToId());
+        }
+        Map<UUID, MoneyTally> balances = new HashMap<>();
+        for (Account account : accountRepo.findAllById(accountIds)) {
+            balances.put(account.getId(), MoneyTally.of(account.getBalance(), account.getCurrency()));
+        }
+
+        // 2. Validate transfers in order against running balances (minor units, updated in place)
+        for (TransferCommand cmd : commands) {
+            UUID fromId = cmd.getFromId();
+            UUID toId = cmd.getToId();
+            long amount = cmd.getAmountMinor();
+            MoneyTally from = balances.get(fromId);
+            MoneyTally to = balances.get(toId);
+
+            if (from == null) {
+                result.getFailures().put(cmd.getKey(), "Sender account not found: " + fromId);
+                continue;
+            }
+            if (to == null) {
+                result.getFailures().put(cmd.getKey(), "Receiver account not found: " + toId);
+                continue;
+            }
+            if (!from.currency().equals(cmd.getCurrency()) || !to.currency().equals(cmd.getCurrency())) {
+                result.getFailures().put(cmd.getKey(), "Currency mismatch: " + cmd.getCurrency()
+                        + " transfer between " + from.currency() + " and " + to.currency() + " accounts");
+                continue;
+            }
+            if (!from.covers(amount)) {
+                result.getFailures().put(cmd.getKey(), "Insufficient Funds in account: " + fromId);
+                continue;
+            }
+
+            from.subtract(amount);
+            to.add(amount);
+            result.getApplied().add(cmd);
+        }
+
+        // 3. Persist the survivors
+        Map<UUID, MoneyTally> netDeltas = postTransfers(result.getApplied());
+
+        for (UUID accountId : netDeltas.keySet()) {
+            result.getBalances().put(accountId, balances.get(accountId).toBigDecimal());
+        }
+
+        log.debug("Batch committed: {} applied, {} rejected", result.getApplied().size(), result.getFailures().size());
+        return result;
+    }
+
+    // Writes headers, double-entry legs and one netted balance update per account for transfers that
+    // were already validated by the caller (executeBatch, or the in-memory BalanceEngine's journal writer).
+    // Returns the net delta applied to each account.
+    @Transactional
+    public Map<UUID, MoneyTally> postTransfers(List<TransferCommand> commands) {
+        List<UUID> txIds = new ArrayList<>(commands.size());
+        Map<UUID, MoneyTally> netDeltas = new TreeMap<>(); // Sorted so concurrent batches lock rows in the same order
+
+        for (TransferCommand cmd : commands) {
+            txIds.add(UuidV7.next()); // Time-ordered: appends to the PK index instead of splitting random pages
+            netDelta(netDeltas, cmd.getFromId(), cmd.getCurrency()).subtract(cmd.getAmountMinor());
+            netDelta(netDeltas, cmd.getToId(), cmd.getCurrency()).add(cmd.getAmountMinor());
+        }
+
+        if (jdbcWriter.isEnabled()) {
+            // One JDBC batch: header + both legs per transfer, no persistence context
+            jdbcWriter.postAll(txIds, commands);
+        } else {
+            List<Transaction> headers = new ArrayList<>(commands.size());
+            List<JournalEntry> legs = new ArrayList<>(commands.size() * 2);
+            for (int i = 0; i < commands.size(); i++) {
+                TransferCommand cmd = commands.get(i);
+                Transaction tx = new Transaction();
+                tx.setId(txIds.get(i));
+                tx.setDescription("TRANSFER");
+                tx.setReferenceId(cmd.getKey());
+                headers.add(tx);
 
-        System.out.println("Successfully moved $" + amount + " from " + fromId + " to " + toId);
+                legs.add(new JournalEntry(null, tx, cmd.getFromId(), cmd.getAmount().negate()));
+                legs.add(new JournalEntry(null, tx, cmd.getToId(), cmd.getAmount()));
+            }
+
+            // Batched inserts (see hibernate.jdbc.batch_size in application.yml)
+            txRepo.saveAll(headers);
+            journalRepo.saveAll(legs);
+        }
+
+        // One UPDATE per account instead of two per transfer
+        netDeltas.forEach((accountId, delta) -> {
+            if (delta.minor() != 0) {
+                accountRepo.updateBalance(accountId, delta.toBigDecimal());
+            }
+        });
+        return netDeltas;
+    }
+
+    private static MoneyTally netDelta(Map<UUID, MoneyTally> netDeltas, UUID accountId, String currency) {
+        MoneyTally delta = netDeltas.get(accountId);
+        if (delta == null) {
+            delta = new MoneyTally(currency, 0);
+            netDeltas.put(accountId, delta);
+        } else if (!delta.currency().equals(currency)) {
+            throw new RuntimeException("Currency mismatch on account " + accountId + ": " + delta.currency() + " vs " + currency);
+        }
+        return delta;
     }
 
 }
@@ -0,0 +1,71 @@
+package com.nexus_ledger.nexusLedger.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Runs a unit of work in its own transaction and re-runs it when the database aborted it over a lock:
+ * deadlock victim, lock timeout or serialization failure (all PessimisticLockingFailureException
+ * after Spring's translation). Backoff is exponential with jitter and capped, so colliding transfers
+ * on a hot account spread out instead of colliding again in lock-step.
+ */
+@Slf4j
+@Component
+public class LockRetry {
+
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final long backoffMs;
+    private final long maxBackoffMs;
+    private final Counter retried;
+    private final Counter exhausted;
+
+    public LockRetry(PlatformTransactionManager transactionManager,
+                     MeterRegistry meterRegistry,
+                     @Value("${nexus.ledger.lock-retry.max-attempts:5}") int maxAttempts,
+                     @Value("${nexus.ledger.lock-retry.backoff-ms:5}") long backoffMs,
+                     @Value("${nexus.ledger.lock-retry.max-backoff-ms:200}") long maxBackoffMs) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxAttempts = maxAttempts;
+        this.backoffMs = backoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.retried = meterRegistry.counter("ledger.lock.retries", "result", "retried");
+        this.exhausted = meterRegistry.counter("ledger.lock.retries", "result", "exhausted");
+    }
+
+    public <T> T inTransaction(Supplier<T> work) {
+        // Inside someone else's transaction a lock failure has already doomed it; only the owner can retry
+        if (TransactionSynchronizationManager.isActualTransactionActive()) return work.get();
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> work.get());
+            } catch (PessimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    exhausted.increment();
+                    throw e;
+                }
+                retried.increment();
+                long cap = Math.min(maxBackoffMs, backoffMs << Math.min(attempt - 1, 20));
+                long sleep = cap / 2 + ThreadLocalRandom.current().nextLong(cap / 2 + 1);
+                log.debug("Lock conflict (attempt {}), retrying in {} ms: {}", attempt, sleep, e.getMessage());
+                try {
+                    Thread.sleep(sleep);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.nexus_ledger.nexusLedger.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nexus_ledger.nexusLedger.service.archive.ArchivedLeg;
+import com.nexus_ledger.nexusLedger.service.archive.JournalArchive;
+import com.nexus_ledger.nexusLedger.service.fx.FxPositions;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Account statement straight from journal_entries: both debits and credits, newest first, paged by
+ * keyset on the journal id (idx_journal_account_id) so every page is one index range scan no matter how
+ * deep the client has scrolled. Rows are written to the response as they are read, never collected.
+ * Once the live journal runs out, the page continues from the {@link JournalArchive}, so archived months
+ * read the same way.
+ *
+ * Page shape: {"entries": [...], "nextCursor": 1234} where nextCursor is null on the last page.
+ */
+@Service
+public class StatementService {
+
+    public static final int MAX_PAGE_SIZE = 500;
+
+    // The other party of leg `j`: the earliest opposite-signed leg of the same transaction that is not an FX
+    // position, so an FX transfer's sender and receiver name each other rather than a position account
+    public static final String COUNTERPARTY_SQL = """
+            (SELECT o.account_id FROM journal_entries o JOIN accounts a ON a.id = o.account_id
+             WHERE o.transaction_id = j.transaction_id AND o.account_id <> j.account_id
+               AND sign(o.amount) <> sign(j.amount) AND NOT starts_with(a.account_number, '%s')
+             ORDER BY o.id
+             LIMIT 1)""".formatted(FxPositions.NUMBER_PREFIX);
+
+    // Fetch one extra row to learn whether another page exists
+    private static final String PAGE_SQL = """
+            SELECT j.id, j.transaction_id, j.amount, COALESCE(j.created_at, t.created_at) AS created_at,
+                   t.reference_id, %s AS counterparty
+            FROM journal_entries j
+            LEFT JOIN transactions t ON t.id = j.transaction_id
+            WHERE j.account_id = ? AND j.id < ?
+            ORDER BY j.id DESC
+            LIMIT ?
+            """.formatted(COUNTERPARTY_SQL);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTx;
+    private final ObjectMapper objectMapper;
+    private final JournalArchive archive;
+
+    public StatementService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                            ObjectMapper objectMapper, JournalArchive archive) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true); // PostgreSQL only honours the fetch size inside a transaction
+        this.objectMapper = objectMapper;
+        this.archive = archive;
+    }
+
+    public void writePage(UUID accountId, Long before, int limit, OutputStream out) throws IOException {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        long cursor = before == null ? Long.MAX_VALUE : before;
+
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            json.writeStartObject();
+            json.writeArrayFieldStart("entries");
+
+            long[] written = {0, 0}; // rows written, last id written
+            boolean[] more = {false};
+            readOnlyTx.executeWithoutResult(status -> jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(PAGE_SQL);
+                ps.setFetchSize(Math.min(pageSize + 1, 100));
+                ps.setObject(1, accountId);
+                ps.setLong(2, cursor);
+                ps.setInt(3, pageSize + 1);
+                return ps;
+            }, rs -> {
+                if (written[0] == pageSize) {
+                    more[0] = true;
+                    return;
+                }
+                try {
+                    long id = rs.getLong("id");
+                    Timestamp createdAt = rs.getTimestamp("created_at");
+                    writeEntry(json, id, rs.getString("transaction_id"), rs.getString("reference_id"),
+                            rs.getBigDecimal("amount"), rs.getString("counterparty"),
+                            createdAt == null ? null : createdAt.toLocalDateTime());
+                    written[0]++;
+                    written[1] = id;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e); // Client went away; abandons the query
+                }
+            }));
+
+            // Live journal exhausted: continue below the last id from the archive
+            if (!more[0] && !archive.isEmpty()) {
+                long archiveCursor = written[0] == 0 ? cursor : written[1];
+                List<ArchivedLeg> legs = archive.page(accountId, archiveCursor, pageSize - (int) written[0] + 1);
+                for (ArchivedLeg leg : legs) {
+                    if (written[0] == pageSize) {
+                        more[0] = true;
+                        break;
+                    }
+                    writeEntry(json, leg.id(), leg.transactionId().toString(), leg.referenceId(), leg.amount(),
+                            leg.counterparty() == null ? null : leg.counterparty().toString(), leg.createdAt());
+                    written[0]++;
+                    written[1] = leg.id();
+                }
+            }
+
+            json.writeEndArray();
+            if (more[0]) {
+                json.writeNumberField("nextCursor", written[1]);
+            } else {
+                json.writeNullField("nextCursor");
+            }
+            json.writeEndObject();
+        }
+    }
+
+    private static void writeEntry(JsonGenerator json, long id, String transactionId, String referenceId,
+                                   BigDecimal amount, String counterparty, LocalDateTime createdAt) throws IOException {
+        json.writeStartObject();
+        json.writeNumberField("id", id);
+        json.writeStringField("transactionId", transactionId);
+        json.writeStringField("referenceId", referenceId);
+        json.writeStringField("direction", amount.signum() < 0 ? "DEBIT" : "CREDIT");
+        json.writeNumberField("amount", amount);
+        json.writeStringField("counterparty", counterparty);
+        json.writeStringField("createdAt", createdAt == null ? null : createdAt.toString());
+        json.writeEndObject();
+    }
+}
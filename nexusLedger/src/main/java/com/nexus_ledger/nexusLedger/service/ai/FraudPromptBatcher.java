@@ -0,0 +1,155 @@
+package com.nexus_ledger.nexusLedger.service.ai;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micro-batching for the LLM tier: pending transfers are collected until either maxBatch of them
+ * are waiting or the oldest has waited maxWait, then scored with one structured prompt, so the
+ * model's fixed per-call overhead is paid once per batch. If the reply cannot be parsed into one
+ * verdict per transfer, each transfer in the batch is re-scored with the single-transaction prompt.
+ *
+ * Batches only fill when several callers wait at once, i.e. together with the async scoring stage.
+ */
+@Slf4j
+@Component
+public class FraudPromptBatcher {
+
+    private record Pending(FraudPrompts.Item item, CompletableFuture<Boolean> verdict) { }
+
+    private final ChatModel chatModel;
+    private final boolean enabled;
+    private final int maxBatch;
+    private final long maxWaitNanos;
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor(); // Batches in flight
+    private final Thread dispatcher;
+    private volatile boolean running = true;
+
+    public FraudPromptBatcher(ChatModel chatModel,
+                              @Value("${nexus.fraud.batch.enabled:false}") boolean enabled,
+                              @Value("${nexus.fraud.batch.max-size:16}") int maxBatch,
+                              @Value("${nexus.fraud.batch.max-wait-ms:20}") long maxWaitMillis) {
+        this.chatModel = chatModel;
+        this.enabled = enabled;
+        this.maxBatch = maxBatch;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+        this.dispatcher = new Thread(this::collect, "fraud-prompt-batcher");
+        this.dispatcher.setDaemon(true);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (enabled) dispatcher.start();
+    }
+
+    // Batches already dispatched finish; transfers still waiting are failed, so their callers fall back
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        dispatcher.interrupt();
+        callers.shutdown();
+        fail(drainQueue());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Completes with true for FRAUD; completes exceptionally if the model cannot be reached
+    public CompletableFuture<Boolean> submit(BigDecimal amount, UUID fromId, VelocityFeatureStore.Features features) {
+        CompletableFuture<Boolean> verdict = new CompletableFuture<>();
+        queue.add(new Pending(new FraudPrompts.Item(amount, fromId, features), verdict));
+        if (!running) fail(drainQueue()); // Raced with shutdown: nothing will take it off the queue
+        return verdict;
+    }
+
+    private void collect() {
+        while (running) {
+            List<Pending> batch = new ArrayList<>(maxBatch);
+            try {
+                batch.add(queue.take());
+                long deadline = System.nanoTime() + maxWaitNanos;
+                while (batch.size() < maxBatch) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) break;
+                    Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) break;
+                    batch.add(next);
+                }
+                queue.drainTo(batch, maxBatch - batch.size());
+                callers.execute(() -> dispatch(batch));
+            } catch (InterruptedException | RejectedExecutionException e) {
+                // Shutting down: the batch being collected is owned by nobody else
+                fail(batch);
+                return;
+            }
+        }
+    }
+
+    private List<Pending> drainQueue() {
+        List<Pending> pending = new ArrayList<>();
+        queue.drainTo(pending);
+        return pending;
+    }
+
+    private static void fail(List<Pending> pending) {
+        IllegalStateException stopped = new IllegalStateException("Fraud prompt batcher is shut down");
+        pending.forEach(p -> p.verdict().completeExceptionally(stopped));
+    }
+
+    private void dispatch(List<Pending> batch) {
+        if (batch.size() == 1) {
+            scoreIndividually(batch);
+            return;
+        }
+
+        List<FraudPrompts.Item> items = batch.stream().map(Pending::item).toList();
+        boolean[] verdicts;
+        try {
+            String response = chatModel.call(FraudPrompts.batch(items));
+            verdicts = FraudPrompts.parseBatch(response, batch.size());
+        } catch (Exception e) {
+            log.error("Batched fraud prompt failed: {}", e.getMessage());
+            batch.forEach(p -> p.verdict().completeExceptionally(e));
+            return;
+        }
+
+        if (verdicts == null) {
+            log.warn("Unparseable batched verdict for {} transfers, scoring them one by one", batch.size());
+            scoreIndividually(batch);
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).verdict().complete(verdicts[i]);
+        }
+    }
+
+    private void scoreIndividually(List<Pending> batch) {
+        for (Pending pending : batch) {
+            try {
+                FraudPrompts.Item item = pending.item();
+                String response = chatModel.call(FraudPrompts.single(item.amount(), item.fromId(), item.features()));
+                pending.verdict().complete(FraudPrompts.isFraud(response));
+            } catch (Exception e) {
+                pending.verdict().completeExceptionally(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.nexus_ledger.nexusLedger.service.ai;
+
+import com.nexus_ledger.nexusLedger.util.Money;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Prompt templates and response parsing shared by the single and batched LLM tiers
+final class FraudPrompts {
+
+    record Item(BigDecimal amount, UUID fromId, VelocityFeatureStore.Features features) { }
+
+    private static final Pattern VERDICT_LINE =
+            Pattern.compile("^\\s*(\\d+)\\s*[:.)\\-]\\s*(SAFE|FRAUD)\\b", Pattern.MULTILINE | Pattern.CASE_INSENSITIVE);
+
+    private FraudPrompts() { }
+
+    static String single(BigDecimal amount, UUID fromId, VelocityFeatureStore.Features features) {
+        return """
+            You are a Financial Fraud Detection AI. 
+            Analyze this transaction: Account %s is attempting to move $%s.%s
+            Rule: Any transaction over $1000 is considered HIGH RISK.
+            Respond with ONLY one word: 'SAFE' or 'FRAUD'.
+            """.formatted(fromId, amount, activity(features));
+    }
+
+    static String batch(List<Item> items) {
+        StringBuilder prompt = new StringBuilder("""
+            You are a Financial Fraud Detection AI.
+            Analyze each of the following transactions independently.
+            Rule: Any transaction over $1000 is considered HIGH RISK.
+            """);
+        for (int i = 0; i < items.size(); i++) {
+            Item item = items.get(i);
+            prompt.append(i + 1).append(". Account ").append(item.fromId())
+                    .append(" is attempting to move $").append(item.amount()).append('.')
+                    .append(activity(item.features())).append('\n');
+        }
+        prompt.append("""
+            Respond with exactly one line per transaction, in the same order, formatted as
+            '<number>: SAFE' or '<number>: FRAUD'. No other text.
+            """);
+        return prompt.toString();
+    }
+
+    // The account's recent activity, this transfer included; empty when no features were recorded
+    static String activity(VelocityFeatureStore.Features f) {
+        if (f == null) return "";
+        return " Its activity so far: %d transfers in the last minute (largest $%s); %d in the last hour totalling $%s to %d distinct recipients; %d in the last 24 hours totalling $%s (largest $%s)."
+                .formatted(f.count1m(), decimal(f.max1m(), f), f.count1h(), decimal(f.sum1h(), f), f.fanOut1h(),
+                        f.count24h(), decimal(f.sum24h(), f), decimal(f.max24h(), f));
+    }
+
+    private static BigDecimal decimal(long minor, VelocityFeatureStore.Features f) {
+        return Money.toDecimal(minor, f.currency());
+    }
+
+    static boolean isFraud(String response) {
+        return response.trim().toUpperCase().contains("FRAUD");
+    }
+
+    // Returns null unless the response carries exactly one verdict for each of the 1..count items
+    static boolean[] parseBatch(String response, int count) {
+        Map<Integer, Boolean> verdicts = new HashMap<>();
+        Matcher matcher = VERDICT_LINE.matcher(response);
+        while (matcher.find()) {
+            int index = Integer.parseInt(matcher.group(1));
+            boolean fraud = matcher.group(2).equalsIgnoreCase("FRAUD");
+            if (index < 1 || index > count || verdicts.put(index, fraud) != null) return null;
+        }
+        if (verdicts.size() != count) return null;
+
+        boolean[] result = new boolean[count];
+        verdicts.forEach((index, fraud) -> result[index - 1] = fraud);
+        return result;
+    }
+}
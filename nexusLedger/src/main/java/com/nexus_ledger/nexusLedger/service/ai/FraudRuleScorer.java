@@ -0,0 +1,58 @@
+package com.nexus_ledger.nexusLedger.service.ai;
+
+import com.nexus_ledger.nexusLedger.dto.TransferCommand;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+
+/**
+ * First, in-process tier of the fraud pipeline. Amount thresholds plus the account's sliding-window
+ * velocity features ({@link VelocityFeatureStore}) settle the obvious cases in microseconds; only
+ * what is left AMBIGUOUS is worth an LLM call, and the features travel with it into the prompt.
+ */
+@Component
+public class FraudRuleScorer {
+
+    public enum Risk { SAFE, AMBIGUOUS, FRAUD }
+
+    public record Assessment(Risk risk, VelocityFeatureStore.Features features) { }
+
+    private final BigDecimal safeAmount;
+    private final BigDecimal blockAmount;
+    private final int velocityLimit;
+    private final int fanOutLimit;
+    private final VelocityFeatureStore featureStore;
+
+    public FraudRuleScorer(@Value("${nexus.fraud.rules.safe-amount:100}") BigDecimal safeAmount,
+                           @Value("${nexus.fraud.rules.block-amount:10000}") BigDecimal blockAmount,
+                           @Value("${nexus.fraud.rules.velocity-per-minute:10}") int velocityLimit,
+                           @Value("${nexus.fraud.rules.fan-out-per-hour:20}") int fanOutLimit,
+                           VelocityFeatureStore featureStore) {
+        this.safeAmount = safeAmount;
+        this.blockAmount = blockAmount;
+        this.velocityLimit = velocityLimit;
+        this.fanOutLimit = fanOutLimit;
+        this.featureStore = featureStore;
+    }
+
+    // Records the transfer in the account's windows, then scores it against them
+    public Assessment score(TransferCommand cmd) {
+        VelocityFeatureStore.Features features = featureStore.record(cmd);
+        return new Assessment(classify(cmd, features), features);
+    }
+
+    private Risk classify(TransferCommand cmd, VelocityFeatureStore.Features features) {
+        BigDecimal amount = cmd.getAmount();
+        if (amount.compareTo(blockAmount) > 0) return Risk.FRAUD;
+        if (features.count1m() > velocityLimit) return Risk.AMBIGUOUS; // Burst: let the model look at it
+        if (features.fanOut1h() > fanOutLimit) return Risk.AMBIGUOUS;  // Spraying funds over many recipients
+
+        if (amount.compareTo(safeAmount) <= 0) return Risk.SAFE;
+        // In line with what this account moved over the rest of the day
+        long value = cmd.getAmountMinor();
+        int earlier = features.count24h() - 1;
+        if (earlier > 5 && value <= 2 * ((features.sum24h() - value) / earlier)) return Risk.SAFE;
+        return Risk.AMBIGUOUS;
+    }
+}
@@ -0,0 +1,111 @@
+package com.nexus_ledger.nexusLedger.service.ai;
+
+import com.nexus_ledger.nexusLedger.dto.TransferCommand;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs {@link FraudSentryService} as its own pipeline stage on virtual threads, so a slow model
+ * response no longer stalls the Kafka listener. The number of calls in flight is capped (callers
+ * block for a permit, which is the backpressure), each verdict has a deadline, and a late or failed
+ * verdict is replaced according to the fallback policy.
+ */
+@Slf4j
+@Service
+public class FraudScoringStage {
+
+    public enum FallbackPolicy { ALLOW, BLOCK }
+
+    private final FraudSentryService fraudSentryService;
+    private final boolean enabled;
+    private final long timeoutMillis;
+    private final FallbackPolicy fallback;
+    private final Semaphore permits;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Counter timeouts;
+    private final Counter fallbacks;
+
+    public FraudScoringStage(FraudSentryService fraudSentryService,
+                             MeterRegistry registry,
+                             @Value("${nexus.fraud.async.enabled:false}") boolean enabled,
+                             @Value("${nexus.fraud.async.max-concurrency:64}") int maxConcurrency,
+                             @Value("${nexus.fraud.async.timeout-ms:5000}") long timeoutMillis,
+                             @Value("${nexus.fraud.async.fallback:ALLOW}") FallbackPolicy fallback) {
+        this.fraudSentryService = fraudSentryService;
+        this.enabled = enabled;
+        this.timeoutMillis = timeoutMillis;
+        this.fallback = fallback;
+        this.permits = new Semaphore(maxConcurrency);
+        this.timeouts = Counter.builder("ledger.fraud.async.timeouts")
+                .description("Fraud verdicts that missed their deadline")
+                .register(registry);
+        this.fallbacks = Counter.builder("ledger.fraud.async.fallbacks")
+                .description("Fraud verdicts replaced by the fallback policy")
+                .register(registry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Completes with true when the transfer must be blocked
+    public CompletableFuture<Boolean> score(TransferCommand cmd) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.completedFuture(fallbackVerdict(cmd, e));
+        }
+
+        CompletableFuture<Boolean> call;
+        try {
+            call = CompletableFuture.supplyAsync(() -> verdictOf(cmd), executor);
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            return CompletableFuture.completedFuture(fallbackVerdict(cmd, e));
+        }
+        // The permit follows the real call, not the deadline, so abandoned calls still count against the limit
+        call.whenComplete((verdict, error) -> permits.release());
+
+        return call.copy()
+                .orTimeout(timeoutMillis, TimeUnit.MILLISECONDS)
+                .exceptionally(error -> fallbackVerdict(cmd, error));
+    }
+
+    // A model outage fails the call like a timeout would, so the fallback policy decides it too
+    private boolean verdictOf(TransferCommand cmd) {
+        Boolean verdict = fraudSentryService.screen(cmd);
+        if (verdict == null) throw new RuntimeException("Fraud model unavailable");
+        return verdict;
+    }
+
+    private boolean fallbackVerdict(TransferCommand cmd, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof TimeoutException) {
+            timeouts.increment();
+            log.warn("Fraud verdict for {} timed out after {} ms, applying {} policy", cmd.getKey(), timeoutMillis, fallback);
+        } else {
+            log.error("Fraud scoring failed for {}: {}. Applying {} policy", cmd.getKey(), cause.getMessage(), fallback);
+        }
+        fallbacks.increment();
+        return fallback == FallbackPolicy.BLOCK;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+}
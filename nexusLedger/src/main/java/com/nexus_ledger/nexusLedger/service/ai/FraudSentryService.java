@@ -1,54 +1,186 @@
 package com.nexus_ledger.nexusLedger.service.ai;
 
+import com.nexus_ledger.nexusLedger.dto.TransferCommand;
+import com.nexus_ledger.nexusLedger.util.LruCache;
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.ai.ollama.OllamaChatModel;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.util.UUID;
 
+/**
+ * Tiered fraud screening:
+ *  1. rules   - in-process thresholds and sliding-window velocity ({@link FraudRuleScorer}) clear or
+ *               block the obvious cases
+ *  2. cache   - recent LLM verdicts, keyed on (account, amount bucket, activity bucket)
+ *  3. llm     - the Ollama model, only for what is still ambiguous, with the account's velocity
+ *               features in the prompt (optionally micro-batched, see {@link FraudPromptBatcher})
+ * Each tier exposes a timer ("ledger.fraud.tier.latency") and a decision counter
+ * ("ledger.fraud.tier.decisions") tagged by tier and verdict, from which hit rates follow.
+ */
 @Service
 @Slf4j
 public class FraudSentryService {
 
-    private final OllamaChatModel chatModel;
+    private final ChatModel chatModel;
+    private final FraudPromptBatcher promptBatcher;
+    private final FraudRuleScorer ruleScorer;
     private final Counter fraudCounter;
+    private final LruCache<VerdictKey, CachedVerdict> verdictCache;
+    private final long verdictTtlNanos;
+
+    private final Timer rulesTimer;
+    private final Timer cacheTimer;
+    private final Timer llmTimer;
+    private final Counter rulesSafe;
+    private final Counter rulesFraud;
+    private final Counter cacheHit;
+    private final Counter cacheMiss;
+    private final Counter llmSafe;
+    private final Counter llmFraud;
+
+    record VerdictKey(UUID accountId, int amountBucket, int activityBucket) { }
+
+    record CachedVerdict(boolean fraud, long expiresAt) { }
 
     // We use a manual constructor to initialize the Micrometer Counter correctly
-    public FraudSentryService(OllamaChatModel chatModel, MeterRegistry registry) {
+    public FraudSentryService(ChatModel chatModel,
+                              FraudPromptBatcher promptBatcher,
+                              FraudRuleScorer ruleScorer,
+                              MeterRegistry registry,
+                              @Value("${nexus.fraud.cache.max-entries:10000}") int cacheSize,
+                              @Value("${nexus.fraud.cache.ttl-ms:600000}") long cacheTtlMillis) {
         this.chatModel = chatModel;
+        this.promptBatcher = promptBatcher;
+        this.ruleScorer = ruleScorer;
         this.fraudCounter = Counter.builder("ledger.fraud.detected")
                 .description("Number of fraud transactions blocked by AI")
                 .register(registry);
+        this.verdictCache = new LruCache<>(cacheSize);
+        this.verdictTtlNanos = cacheTtlMillis * 1_000_000;
+
+        this.rulesTimer = tierTimer(registry, "rules");
+        this.cacheTimer = tierTimer(registry, "cache");
+        this.llmTimer = tierTimer(registry, "llm");
+        this.rulesSafe = decisionCounter(registry, "rules", "safe");
+        this.rulesFraud = decisionCounter(registry, "rules", "fraud");
+        this.cacheHit = decisionCounter(registry, "cache", "hit");
+        this.cacheMiss = decisionCounter(registry, "cache", "miss");
+        this.llmSafe = decisionCounter(registry, "llm", "safe");
+        this.llmFraud = decisionCounter(registry, "llm", "fraud");
+        Gauge.builder("ledger.fraud.cache.size", verdictCache, LruCache::size).register(registry);
+        Gauge.builder("ledger.fraud.cache.evictions", verdictCache, LruCache::evictions).register(registry);
     }
 
-    public boolean isFraudulent(BigDecimal amount, UUID fromId) {
-        log.info("AI Sentry analyzing transaction: Account {} moving ${}", fromId, amount);
+    // Synchronous path: a model outage lets the transfer through (Safe Mode)
+    public boolean isFraudulent(TransferCommand cmd) {
+        Boolean verdict = screen(cmd);
+        if (verdict == null) {
+            log.error("AI Sentry offline! Defaulting to Safe Mode for {}", cmd.getKey());
+            return false;
+        }
+        return verdict;
+    }
 
-        String prompt = """
-            You are a Financial Fraud Detection AI. 
-            Analyze this transaction: Account %s is attempting to move $%s.
-            Rule: Any transaction over $1000 is considered HIGH RISK.
-            Respond with ONLY one word: 'SAFE' or 'FRAUD'.
-            """.formatted(fromId, amount);
+    // True for FRAUD, false for SAFE, null when the LLM tier was needed but the model could not be reached
+    // (the caller decides what that means; FraudScoringStage applies its fallback policy)
+    public Boolean screen(TransferCommand cmd) {
+        BigDecimal amount = cmd.getAmount();
+        UUID fromId = cmd.getFromId();
 
-        try {
-            String response = chatModel.call(prompt).trim().toUpperCase();
-            log.info("AI Analysis Result: {}", response);
+        // 1. Rules tier (also feeds the transfer into the account's velocity windows)
+        FraudRuleScorer.Assessment assessment = rulesTimer.record(() -> ruleScorer.score(cmd));
+        FraudRuleScorer.Risk risk = assessment.risk();
+        if (risk == FraudRuleScorer.Risk.SAFE) {
+            rulesSafe.increment();
+            return false;
+        }
+        if (risk == FraudRuleScorer.Risk.FRAUD) {
+            log.info("Rule tier blocked transaction: Account {} moving ${}", fromId, amount);
+            rulesFraud.increment();
+            fraudCounter.increment();
+            return true;
+        }
+
+        // 2. Verdict cache
+        VelocityFeatureStore.Features features = assessment.features();
+        VerdictKey key = new VerdictKey(fromId, amountBucket(amount), activityBucket(features));
+        CachedVerdict cached = cacheTimer.record(() -> verdictCache.get(key));
+        if (cached != null && cached.expiresAt() - System.nanoTime() > 0) {
+            cacheHit.increment();
+            if (cached.fraud()) fraudCounter.increment();
+            return cached.fraud();
+        }
+        cacheMiss.increment();
+
+        // 3. LLM tier
+        Boolean verdict = llmTimer.record(() -> askModel(amount, fromId, features));
+        if (verdict == null) return null; // Model unavailable: nothing worth caching
+        verdictCache.put(key, new CachedVerdict(verdict, System.nanoTime() + verdictTtlNanos));
+        if (verdict) {
+            llmFraud.increment();
+            fraudCounter.increment();
+        } else {
+            llmSafe.increment();
+        }
+        return verdict;
+    }
+
+    // Returns null when the model could not be reached
+    private Boolean askModel(BigDecimal amount, UUID fromId, VelocityFeatureStore.Features features) {
+        log.info("AI Sentry analyzing transaction: Account {} moving ${}", fromId, amount);
 
-            // LOGIC FIX: Check for fraud, increment counter, THEN return
-            if (response.contains("FRAUD")) {
-                fraudCounter.increment();
-                return true;
+        try {
+            if (promptBatcher.isEnabled()) {
+                boolean fraud = promptBatcher.submit(amount, fromId, features).join();
+                log.info("AI Analysis Result (batched): {}", fraud ? "FRAUD" : "SAFE");
+                return fraud;
             }
 
-            return false; // It was safe
+            String response = chatModel.call(FraudPrompts.single(amount, fromId, features)).trim().toUpperCase();
+            log.info("AI Analysis Result: {}", response);
+            return FraudPrompts.isFraud(response);
 
         } catch (Exception e) {
-            log.error("AI Sentry offline! Defaulting to Safe Mode: {}", e.getMessage());
-            return false;
+            log.error("AI Sentry could not be reached: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    // Power-of-two buckets: 64..127, 128..255, ... share a verdict for the same account.
+    // $1000 is a hard line in the prompt, so it must never share a bucket with smaller amounts.
+    static int amountBucket(BigDecimal amount) {
+        if (amount.compareTo(BigDecimal.valueOf(1000)) > 0) {
+            return 1000 + (64 - Long.numberOfLeadingZeros(amount.longValue()));
         }
+        return 64 - Long.numberOfLeadingZeros(amount.longValue());
+    }
+
+    // Power-of-two buckets of the last hour's transfer count: a verdict given to a quiet account is not
+    // reused once it starts bursting
+    static int activityBucket(VelocityFeatureStore.Features features) {
+        return 32 - Integer.numberOfLeadingZeros(features.count1h());
+    }
+
+    private static Timer tierTimer(MeterRegistry registry, String tier) {
+        return Timer.builder("ledger.fraud.tier.latency")
+                .description("Time spent in each fraud screening tier")
+                .tag("tier", tier)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private static Counter decisionCounter(MeterRegistry registry, String tier, String outcome) {
+        return Counter.builder("ledger.fraud.tier.decisions")
+                .description("Fraud screening decisions per tier")
+                .tag("tier", tier)
+                .tag("outcome", outcome)
+                .register(registry);
     }
 }
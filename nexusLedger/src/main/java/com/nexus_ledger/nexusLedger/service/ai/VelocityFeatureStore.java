@@ -0,0 +1,169 @@
+package com.nexus_ledger.nexusLedger.service.ai;
+
+import com.nexus_ledger.nexusLedger.dto.TransferCommand;
+import com.nexus_ledger.nexusLedger.util.LruCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Streaming per-account velocity features for the fraud tiers: count, sum and max of the account's
+ * outgoing transfers over the last minute, hour and day, plus counterparty fan-out (distinct
+ * recipients over the last hour and day). Updated once per consumed transfer, by {@link FraudRuleScorer}.
+ *
+ * Each account keeps fixed-size primitive ring buffers of time buckets, so memory per account is
+ * constant (~1.6 KB) whatever its volume, and the number of accounts is bounded by an LRU. The windows
+ * slide one bucket at a time: the minute in 5 s steps, the hour in 5 min steps, the day in 1 h steps.
+ * Amounts are in the transfer's minor units.
+ */
+@Component
+public class VelocityFeatureStore {
+
+    // Window layout: the buckets of all three windows share one set of arrays per account
+    private static final int MINUTE = 0;
+    private static final int HOUR = 1;
+    private static final int DAY = 2;
+    private static final long[] BUCKET_MILLIS = {5_000, 300_000, 3_600_000};
+    private static final int[] BUCKETS = {12, 12, 24};
+    private static final int[] OFFSETS = {0, 12, 24};
+    private static final int TOTAL_BUCKETS = 48;
+
+    private static final long MINUTE_MILLIS = 60_000;
+
+    public record Features(String currency,
+                           int count1m, long sum1m, long max1m,
+                           int count1h, long sum1h, long max1h,
+                           int count24h, long sum24h, long max24h,
+                           int fanOut1h, int fanOut24h) { }
+
+    private final LruCache<UUID, Windows> accounts;
+    private final int counterparties;
+
+    public VelocityFeatureStore(@Value("${nexus.fraud.features.tracked-accounts:20000}") int trackedAccounts,
+                                @Value("${nexus.fraud.features.counterparties:32}") int counterparties) {
+        this.accounts = new LruCache<>(trackedAccounts);
+        this.counterparties = counterparties;
+    }
+
+    // Adds the transfer to the sender's windows and returns the features including it
+    public Features record(TransferCommand cmd) {
+        return record(cmd.getFromId(), cmd.getToId(), cmd.getAmountMinor(), cmd.getCurrency(),
+                System.currentTimeMillis());
+    }
+
+    // The same at an explicit wall-clock time (tests, replays)
+    public Features record(UUID fromId, UUID toId, long amountMinor, String currency, long nowMillis) {
+        Windows windows = windowsFor(fromId);
+        synchronized (windows) {
+            windows.add(toId, amountMinor, nowMillis);
+            return windows.snapshot(currency, nowMillis);
+        }
+    }
+
+    private Windows windowsFor(UUID accountId) {
+        synchronized (accounts) {
+            Windows windows = accounts.get(accountId);
+            if (windows == null) {
+                windows = new Windows(counterparties);
+                accounts.put(accountId, windows);
+            }
+            return windows;
+        }
+    }
+
+    private static final class Windows {
+
+        // Per bucket: the epoch (bucket number since 1970) it currently holds, then its aggregates.
+        // A bucket whose epoch has fallen out of its window is stale and reset on the next write.
+        private final int[] epochs = new int[TOTAL_BUCKETS];
+        private final int[] counts = new int[TOTAL_BUCKETS];
+        private final long[] sums = new long[TOTAL_BUCKETS];
+        private final long[] maxes = new long[TOTAL_BUCKETS];
+
+        // Ring of the most recent recipients (UUID bits folded to a long) and the minute each was paid,
+        // so fan-out is exact up to the ring size and saturates there
+        private final long[] peers;
+        private final int[] peerMinutes;
+        private int nextPeer;
+
+        Windows(int counterparties) {
+            this.peers = new long[counterparties];
+            this.peerMinutes = new int[counterparties];
+        }
+
+        void add(UUID toId, long amount, long now) {
+            for (int window = MINUTE; window <= DAY; window++) {
+                int epoch = (int) (now / BUCKET_MILLIS[window]);
+                int i = OFFSETS[window] + epoch % BUCKETS[window];
+                if (epochs[i] != epoch) {
+                    epochs[i] = epoch;
+                    counts[i] = 0;
+                    sums[i] = 0;
+                    maxes[i] = 0;
+                }
+                counts[i]++;
+                sums[i] += amount;
+                maxes[i] = Math.max(maxes[i], amount);
+            }
+            peers[nextPeer] = toId.getMostSignificantBits() ^ toId.getLeastSignificantBits();
+            peerMinutes[nextPeer] = (int) (now / MINUTE_MILLIS);
+            nextPeer = (nextPeer + 1) % peers.length;
+        }
+
+        Features snapshot(String currency, long now) {
+            return new Features(currency,
+                    count(MINUTE, now), sum(MINUTE, now), max(MINUTE, now),
+                    count(HOUR, now), sum(HOUR, now), max(HOUR, now),
+                    count(DAY, now), sum(DAY, now), max(DAY, now),
+                    fanOut(60, now), fanOut(24 * 60, now));
+        }
+
+        private int count(int window, long now) {
+            int oldest = oldestEpoch(window, now);
+            int total = 0;
+            for (int i = OFFSETS[window], end = i + BUCKETS[window]; i < end; i++) {
+                if (epochs[i] >= oldest) total += counts[i];
+            }
+            return total;
+        }
+
+        private long sum(int window, long now) {
+            int oldest = oldestEpoch(window, now);
+            long total = 0;
+            for (int i = OFFSETS[window], end = i + BUCKETS[window]; i < end; i++) {
+                if (epochs[i] >= oldest) total += sums[i];
+            }
+            return total;
+        }
+
+        private long max(int window, long now) {
+            int oldest = oldestEpoch(window, now);
+            long max = 0;
+            for (int i = OFFSETS[window], end = i + BUCKETS[window]; i < end; i++) {
+                if (epochs[i] >= oldest) max = Math.max(max, maxes[i]);
+            }
+            return max;
+        }
+
+        // Distinct recipients paid within the last `minutes`; the ring is small, so a quadratic scan
+        // beats allocating a set
+        private int fanOut(int minutes, long now) {
+            int oldest = (int) (now / MINUTE_MILLIS) - minutes + 1;
+            int distinct = 0;
+            for (int i = 0; i < peers.length; i++) {
+                if (peerMinutes[i] < oldest) continue;
+                boolean seen = false;
+                for (int j = 0; j < i && !seen; j++) {
+                    seen = peerMinutes[j] >= oldest && peers[j] == peers[i];
+                }
+                if (!seen) distinct++;
+            }
+            return distinct;
+        }
+
+        private static int oldestEpoch(int window, long now) {
+            return (int) (now / BUCKET_MILLIS[window]) - BUCKETS[window] + 1;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.nexus_ledger.nexusLedger.service.archive;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// One journal leg as stored in an archive file; the header's reference id and the other leg's account
+// are carried along so archived statements don't need the (dropped) transactions partition.
+// txXid is the writing transaction's id (journal_entries.tx_xid), 0 for legs written before it was recorded.
+public record ArchivedLeg(long id, long txXid, UUID transactionId, UUID accountId, BigDecimal amount,
+                          LocalDateTime createdAt, String referenceId, UUID counterparty) { }
@@ -0,0 +1,274 @@
+package com.nexus_ledger.nexusLedger.service.archive;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Read side of the journal archive: the directory of {@link JournalArchiveFile}s that old
+ * journal_entries partitions were compacted into. Replay, balance history and statements call in here
+ * for the part of the journal that is no longer in PostgreSQL. Footers are cached, so a query that
+ * touches no archived range costs nothing, and one that does only inflates the row groups whose
+ * account/id/xid statistics can match.
+ *
+ * A file becomes visible only once its partition has been dropped (see {@link #publish}), so a leg is
+ * never counted from both the database and the archive.
+ *
+ * Dropping a partition affects every instance, so the directory must be storage they all share. Each
+ * drop commits a journal_archive_partitions row; before serving a read, an instance loads any file it
+ * has not seen yet, and refuses to serve (rather than silently skipping the legs) when a registered file
+ * is missing from its directory. Archive runs hold a PostgreSQL advisory lock, so only one instance at
+ * a time exports, drops or recovers partitions.
+ */
+@Slf4j
+@Service
+public class JournalArchive {
+
+    static final String SUFFIX = ".nxa";
+    static final String PENDING_SUFFIX = ".nxa.tmp";
+    public static final long LOCK_KEY = 0x4e58_4152_4348_4956L; // pg advisory lock held by archive runs ("NXARCHIV")
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Path directory;
+    // Keyed by partition name (journal_entries_pYYYY_MM, or journal_entries_legacy for the pre-partitioning rows)
+    private final Map<String, Loaded> files = new ConcurrentSkipListMap<>();
+
+    private record Loaded(Path path, JournalArchiveFile.Footer footer) { }
+
+    // Taking the EntityManagerFactory orders us after Hibernate has created journal_archive_partitions
+    public JournalArchive(JdbcTemplate jdbcTemplate,
+                          EntityManagerFactory entityManagerFactory,
+                          @Value("${nexus.ledger.archive.dir:./ledger-archive}") String directory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.directory = Path.of(directory);
+    }
+
+    @PostConstruct
+    void load() throws IOException {
+        if (Files.isDirectory(directory)) {
+            // 1. Finish archive runs interrupted between writing the file and publishing it. Only under the
+            //    lock: a pending file may belong to a run another instance is in the middle of.
+            withLock(this::recoverPending);
+
+            // 2. Cache every footer; files archived before the registry existed are registered now
+            try (DirectoryStream<Path> archived = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+                for (Path path : archived) {
+                    Loaded file = new Loaded(path, JournalArchiveFile.readFooter(path));
+                    String partition = partitionOf(path, SUFFIX);
+                    files.put(partition, file);
+                    register(partition, file.footer().rows(), file.footer().total());
+                }
+            }
+        }
+
+        // 3. Everything any instance archived must be here
+        sync();
+        log.info("Journal archive {}: {} partitions, {} legs", directory, files.size(),
+                files.values().stream().mapToLong(f -> f.footer().rows()).sum());
+    }
+
+    // Runs `work` if no other instance holds the archive lock; false if one does. The lock is session-level,
+    // held on a connection of its own for the duration.
+    public boolean withLock(Runnable work) {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) con -> {
+            if (!advisory(con, "SELECT pg_try_advisory_lock(?)")) return false;
+            try {
+                work.run();
+                return true;
+            } finally {
+                advisory(con, "SELECT pg_advisory_unlock(?)");
+            }
+        }));
+    }
+
+    private static boolean advisory(Connection con, String sql) throws SQLException {
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setLong(1, LOCK_KEY);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+
+    private void recoverPending() {
+        try (DirectoryStream<Path> pending = Files.newDirectoryStream(directory, "*" + PENDING_SUFFIX)) {
+            for (Path path : pending) {
+                String partition = partitionOf(path, PENDING_SUFFIX);
+                Boolean exists = jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, partition);
+                if (Boolean.TRUE.equals(exists)) {
+                    Files.delete(path); // Partition still in the DB; the next archive run writes it again
+                } else {
+                    Files.move(path, directory.resolve(partition + SUFFIX), StandardCopyOption.ATOMIC_MOVE);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot recover pending archives in " + directory, e);
+        }
+    }
+
+    // Partition rows are written with the drop (JournalPartitionManager); this is only for older files
+    private void register(String partition, long legs, BigDecimal total) {
+        jdbcTemplate.update("""
+                INSERT INTO journal_archive_partitions (partition_name, legs, total, archived_at)
+                VALUES (?, ?, ?, now()) ON CONFLICT (partition_name) DO NOTHING
+                """, partition, legs, total);
+    }
+
+    // Picks up files other instances have published (and forgets unregistered ones). One count query when
+    // nothing changed.
+    private void sync() {
+        Integer registered = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM journal_archive_partitions", Integer.class);
+        if (registered == null || registered == files.size()) return;
+        synchronized (files) {
+            List<String> partitions = jdbcTemplate.queryForList("SELECT partition_name FROM journal_archive_partitions", String.class);
+            files.keySet().retainAll(partitions); // Unregistered by hand: the registry is what counts
+            for (String partition : partitions) {
+                if (files.containsKey(partition)) continue;
+                Path path = directory.resolve(partition + SUFFIX);
+                if (Files.exists(path)) {
+                    try {
+                        files.put(partition, new Loaded(path, JournalArchiveFile.readFooter(path)));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException("Cannot read journal archive " + path, e);
+                    }
+                    log.info("Journal archive {}: loaded {} published by another instance", directory, partition);
+                } else if (!Files.exists(directory.resolve(partition + PENDING_SUFFIX))) {
+                    // (A pending file is a run between drop and publish: its legs are missing only for that moment)
+                    throw new IllegalStateException("Archived partition " + partition + " is not in " + directory
+                            + "; nexus.ledger.archive.dir must be storage shared by every instance");
+                }
+            }
+        }
+    }
+
+    public boolean isEmpty() {
+        sync();
+        return files.isEmpty();
+    }
+
+    // Where the archiver writes a partition before it is published
+    Path pendingFile(String partition) throws IOException {
+        Files.createDirectories(directory);
+        return directory.resolve(partition + PENDING_SUFFIX);
+    }
+
+    // Called once the partition has been dropped: from here on its legs are served from the file
+    void publish(String partition, Path pending) throws IOException {
+        Path path = directory.resolve(partition + SUFFIX);
+        Files.move(pending, path, StandardCopyOption.ATOMIC_MOVE);
+        files.put(partition, new Loaded(path, JournalArchiveFile.readFooter(path)));
+    }
+
+    // Every archived leg written by a transaction with fromXid <= tx_xid < toXid, any account (replay)
+    public void forEachLeg(long fromXid, long toXid, Consumer<ArchivedLeg> sink) {
+        sync();
+        for (Loaded file : files.values()) {
+            if (file.footer().maxXid() < fromXid || file.footer().minXid() >= toXid) continue;
+            scan(file, group -> group.maxXid() >= fromXid && group.minXid() < toXid, leg -> {
+                if (leg.txXid() >= fromXid && leg.txXid() < toXid) sink.accept(leg);
+            });
+        }
+    }
+
+    // Sum of one account's archived legs not covered by a checkpoint at (afterId, markXid) and with
+    // created_at <= upTo (balance history tail)
+    public BigDecimal sumAfter(UUID accountId, long afterId, long markXid, LocalDateTime upTo) {
+        sync();
+        BigDecimal[] sum = {BigDecimal.ZERO};
+        for (Loaded file : files.values()) {
+            if (file.footer().maxId() <= afterId && file.footer().maxXid() < markXid) continue;
+            scan(file, group -> group.mayContain(accountId)
+                    && (group.maxId() > afterId || group.maxXid() >= markXid)
+                    && !group.minCreatedAt().isAfter(upTo), leg -> {
+                if (leg.accountId().equals(accountId) && (leg.id() > afterId || leg.txXid() >= markXid)
+                        && !leg.createdAt().isAfter(upTo)) {
+                    sum[0] = sum[0].add(leg.amount());
+                }
+            });
+        }
+        return sum[0];
+    }
+
+    // Sum of one account's archived legs with created_at > after (balance history without a checkpoint)
+    public BigDecimal sumCreatedAfter(UUID accountId, LocalDateTime after) {
+        sync();
+        BigDecimal[] sum = {BigDecimal.ZERO};
+        for (Loaded file : files.values()) {
+            scan(file, group -> group.mayContain(accountId) && group.maxCreatedAt().isAfter(after), leg -> {
+                if (leg.accountId().equals(accountId) && leg.createdAt().isAfter(after)) {
+                    sum[0] = sum[0].add(leg.amount());
+                }
+            });
+        }
+        return sum[0];
+    }
+
+    // Up to `limit` of one account's archived legs with id < beforeId, newest first (statement pages).
+    // Files are visited by descending maxId and only the best `limit` legs are kept, so a page stops
+    // once no remaining file or row group can hold a newer leg than the oldest one it already has.
+    public List<ArchivedLeg> page(UUID accountId, long beforeId, int limit) {
+        sync();
+        if (limit <= 0) return List.of();
+        PriorityQueue<ArchivedLeg> best = new PriorityQueue<>(limit + 1, Comparator.comparingLong(ArchivedLeg::id));
+        List<Loaded> newestFirst = files.values().stream()
+                .sorted(Comparator.comparingLong((Loaded file) -> file.footer().maxId()).reversed())
+                .toList();
+        for (Loaded file : newestFirst) {
+            if (best.size() == limit && file.footer().maxId() <= best.peek().id()) break;
+            if (file.footer().minId() >= beforeId) continue;
+            scan(file, group -> group.mayContain(accountId) && group.minId() < beforeId
+                    && (best.size() < limit || group.maxId() > best.peek().id()), leg -> {
+                if (!leg.accountId().equals(accountId) || leg.id() >= beforeId) return;
+                if (best.size() < limit) {
+                    best.add(leg);
+                } else if (leg.id() > best.peek().id()) {
+                    best.poll();
+                    best.add(leg);
+                }
+            });
+        }
+        List<ArchivedLeg> legs = new ArrayList<>(best);
+        legs.sort(Comparator.comparingLong(ArchivedLeg::id).reversed());
+        return legs;
+    }
+
+    private static void scan(Loaded file, Predicate<JournalArchiveFile.GroupStats> groups,
+                             Consumer<ArchivedLeg> sink) {
+        try {
+            JournalArchiveFile.scan(file.path(), file.footer(), groups, sink);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read journal archive " + file.path(), e);
+        }
+    }
+
+    private static String partitionOf(Path path, String suffix) {
+        String name = path.getFileName().toString();
+        return name.substring(0, name.length() - suffix.length());
+    }
+}
@@ -0,0 +1,423 @@
+package com.nexus_ledger.nexusLedger.service.archive;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Columnar, compressed file holding one archived journal partition. Rows are written sorted by
+ * (account_id, id) in row groups. Each column of a group is encoded on its own and deflated:
+ * account ids are run-length encoded, ids, transaction xids and timestamps are delta-encoded varints,
+ * amounts are unscaled bytes plus scale. A footer lists every group with its offset and min/max
+ * statistics, so a reader looking for one account or one id or xid range only inflates the groups that
+ * can match.
+ *
+ * <pre>
+ * "NXA2" | group* | footer | footer offset (8) | "NXA2"
+ * group  := 8 x (raw length, deflated length, deflated bytes)
+ * footer := group count, per group stats, total rows, total amount
+ * </pre>
+ * Version 1 files ("NXA1": 7 columns, no xid column or statistics) are still read; their legs report txXid 0.
+ */
+public final class JournalArchiveFile {
+
+    private static final byte[] MAGIC = "NXA2".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] MAGIC_V1 = "NXA1".getBytes(StandardCharsets.US_ASCII);
+    private static final int COLUMNS = 8;
+    private static final int COLUMNS_V1 = 7;
+
+    // PostgreSQL orders uuids bytewise; UUID.compareTo compares signed longs. Stats must use the DB order.
+    public static final Comparator<UUID> UUID_ORDER = (a, b) -> {
+        int c = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return c != 0 ? c : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    };
+
+    public record GroupStats(long offset, int rows, UUID minAccount, UUID maxAccount,
+                             long minId, long maxId, LocalDateTime minCreatedAt, LocalDateTime maxCreatedAt,
+                             long minXid, long maxXid) {
+
+        public boolean mayContain(UUID accountId) {
+            return UUID_ORDER.compare(accountId, minAccount) >= 0 && UUID_ORDER.compare(accountId, maxAccount) <= 0;
+        }
+    }
+
+    public record Footer(List<GroupStats> groups, long rows, BigDecimal total, int version) {
+
+        public long minId() {
+            return groups.stream().mapToLong(GroupStats::minId).min().orElse(Long.MAX_VALUE);
+        }
+
+        public long maxId() {
+            return groups.stream().mapToLong(GroupStats::maxId).max().orElse(Long.MIN_VALUE);
+        }
+
+        public long minXid() {
+            return groups.stream().mapToLong(GroupStats::minXid).min().orElse(Long.MAX_VALUE);
+        }
+
+        public long maxXid() {
+            return groups.stream().mapToLong(GroupStats::maxXid).max().orElse(Long.MIN_VALUE);
+        }
+    }
+
+    private JournalArchiveFile() { }
+
+    /**
+     * Streams rows into a new file. Callers must append in (account_id, id) order (UUID_ORDER for the
+     * account) for the group statistics to prune well; out-of-order rows are still read back correctly.
+     */
+    public static final class Writer implements AutoCloseable {
+
+        private final OutputStream out;
+        private final int groupSize;
+        private final List<ArchivedLeg> group;
+        private final List<GroupStats> stats = new ArrayList<>();
+        private long offset;
+        private long rows;
+        private BigDecimal total = BigDecimal.ZERO;
+
+        public Writer(Path path, int groupSize) throws IOException {
+            this.out = new BufferedOutputStream(Files.newOutputStream(path), 1 << 16);
+            this.groupSize = groupSize;
+            this.group = new ArrayList<>(groupSize);
+            write(MAGIC);
+        }
+
+        public void append(ArchivedLeg leg) throws IOException {
+            group.add(leg);
+            rows++;
+            total = total.add(leg.amount());
+            if (group.size() == groupSize) flushGroup();
+        }
+
+        public long rows() {
+            return rows;
+        }
+
+        public BigDecimal total() {
+            return total;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flushGroup();
+                long footerOffset = offset;
+                ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+                DataOutputStream footer = new DataOutputStream(buffer);
+                footer.writeInt(stats.size());
+                for (GroupStats s : stats) {
+                    footer.writeLong(s.offset());
+                    footer.writeInt(s.rows());
+                    writeUuid(footer, s.minAccount());
+                    writeUuid(footer, s.maxAccount());
+                    footer.writeLong(s.minId());
+                    footer.writeLong(s.maxId());
+                    footer.writeLong(micros(s.minCreatedAt()));
+                    footer.writeLong(micros(s.maxCreatedAt()));
+                    footer.writeLong(s.minXid());
+                    footer.writeLong(s.maxXid());
+                }
+                footer.writeLong(rows);
+                writeDecimal(footer, total);
+                footer.writeLong(footerOffset);
+                footer.write(MAGIC);
+                write(buffer.toByteArray());
+            } finally {
+                out.close();
+            }
+        }
+
+        private void flushGroup() throws IOException {
+            if (group.isEmpty()) return;
+
+            ByteArrayOutputStream[] buffers = new ByteArrayOutputStream[COLUMNS];
+            DataOutputStream[] columns = new DataOutputStream[COLUMNS];
+            for (int c = 0; c < COLUMNS; c++) {
+                buffers[c] = new ByteArrayOutputStream();
+                columns[c] = new DataOutputStream(buffers[c]);
+            }
+
+            UUID minAccount = null, maxAccount = null;
+            long minId = Long.MAX_VALUE, maxId = Long.MIN_VALUE;
+            long minAt = Long.MAX_VALUE, maxAt = Long.MIN_VALUE;
+            long minXid = Long.MAX_VALUE, maxXid = Long.MIN_VALUE;
+            long previousId = 0, previousAt = 0, previousXid = 0;
+            UUID runAccount = null;
+            int runLength = 0;
+
+            for (ArchivedLeg leg : group) {
+                // 1. account_id, run-length encoded
+                if (leg.accountId().equals(runAccount)) {
+                    runLength++;
+                } else {
+                    if (runAccount != null) writeRun(columns[0], runAccount, runLength);
+                    runAccount = leg.accountId();
+                    runLength = 1;
+                }
+                // 2. id, delta
+                writeVarLong(columns[1], zigzag(leg.id() - previousId));
+                previousId = leg.id();
+                // 3. transaction_id
+                writeUuid(columns[2], leg.transactionId());
+                // 4. amount
+                writeDecimal(columns[3], leg.amount());
+                // 5. created_at (epoch micros), delta
+                long at = micros(leg.createdAt());
+                writeVarLong(columns[4], zigzag(at - previousAt));
+                previousAt = at;
+                // 6. reference_id, length + 1 (0 = null)
+                writeString(columns[5], leg.referenceId());
+                // 7. counterparty, presence byte + uuid
+                columns[6].writeBoolean(leg.counterparty() != null);
+                if (leg.counterparty() != null) writeUuid(columns[6], leg.counterparty());
+                // 8. tx_xid, delta
+                writeVarLong(columns[7], zigzag(leg.txXid() - previousXid));
+                previousXid = leg.txXid();
+
+                if (minAccount == null || UUID_ORDER.compare(leg.accountId(), minAccount) < 0) minAccount = leg.accountId();
+                if (maxAccount == null || UUID_ORDER.compare(leg.accountId(), maxAccount) > 0) maxAccount = leg.accountId();
+                minId = Math.min(minId, leg.id());
+                maxId = Math.max(maxId, leg.id());
+                minAt = Math.min(minAt, at);
+                maxAt = Math.max(maxAt, at);
+                minXid = Math.min(minXid, leg.txXid());
+                maxXid = Math.max(maxXid, leg.txXid());
+            }
+            writeRun(columns[0], runAccount, runLength);
+
+            stats.add(new GroupStats(offset, group.size(), minAccount, maxAccount, minId, maxId,
+                    fromMicros(minAt), fromMicros(maxAt), minXid, maxXid));
+
+            ByteArrayOutputStream chunk = new ByteArrayOutputStream();
+            DataOutputStream data = new DataOutputStream(chunk);
+            for (ByteArrayOutputStream column : buffers) {
+                byte[] raw = column.toByteArray();
+                byte[] deflated = deflate(raw);
+                data.writeInt(raw.length);
+                data.writeInt(deflated.length);
+                data.write(deflated);
+            }
+            write(chunk.toByteArray());
+            group.clear();
+        }
+
+        private void write(byte[] bytes) throws IOException {
+            out.write(bytes);
+            offset += bytes.length;
+        }
+    }
+
+    public static Footer readFooter(Path path) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "r")) {
+            long length = file.length();
+            byte[] magic = new byte[MAGIC.length];
+            if (length >= 2L * MAGIC.length + 8) {
+                file.seek(length - MAGIC.length);
+                file.readFully(magic);
+            }
+            int version = Arrays.equals(magic, MAGIC) ? 2 : Arrays.equals(magic, MAGIC_V1) ? 1 : 0;
+            if (version == 0) {
+                throw new IOException("Not a journal archive (or truncated): " + path);
+            }
+            file.seek(length - MAGIC.length - 8);
+            long footerOffset = file.readLong();
+            byte[] bytes = new byte[(int) (length - MAGIC.length - 8 - footerOffset)];
+            file.seek(footerOffset);
+            file.readFully(bytes);
+
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+            int count = in.readInt();
+            List<GroupStats> groups = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                long offset = in.readLong();
+                int rows = in.readInt();
+                UUID minAccount = readUuid(in), maxAccount = readUuid(in);
+                long minId = in.readLong(), maxId = in.readLong();
+                LocalDateTime minAt = fromMicros(in.readLong()), maxAt = fromMicros(in.readLong());
+                long minXid = version == 1 ? 0 : in.readLong();
+                long maxXid = version == 1 ? 0 : in.readLong();
+                groups.add(new GroupStats(offset, rows, minAccount, maxAccount, minId, maxId, minAt, maxAt, minXid, maxXid));
+            }
+            return new Footer(List.copyOf(groups), in.readLong(), readDecimal(in), version);
+        }
+    }
+
+    // Inflates the groups accepted by groupFilter and hands every row of them to sink, in file order
+    public static void scan(Path path, Footer footer, Predicate<GroupStats> groupFilter,
+                            Consumer<ArchivedLeg> sink) throws IOException {
+        int count = footer.version() == 1 ? COLUMNS_V1 : COLUMNS;
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "r")) {
+            for (GroupStats group : footer.groups()) {
+                if (!groupFilter.test(group)) continue;
+                file.seek(group.offset());
+                DataInputStream[] columns = new DataInputStream[count];
+                for (int c = 0; c < count; c++) {
+                    int rawLength = file.readInt();
+                    byte[] deflated = new byte[file.readInt()];
+                    file.readFully(deflated);
+                    columns[c] = new DataInputStream(new ByteArrayInputStream(inflate(deflated, rawLength)));
+                }
+                readGroup(group.rows(), columns, sink);
+            }
+        }
+    }
+
+    private static void readGroup(int rows, DataInputStream[] columns, Consumer<ArchivedLeg> sink) throws IOException {
+        UUID account = null;
+        long runLeft = 0, id = 0, at = 0, xid = 0;
+        for (int i = 0; i < rows; i++) {
+            if (runLeft == 0) {
+                account = readUuid(columns[0]);
+                runLeft = readVarLong(columns[0]);
+            }
+            runLeft--;
+            id += unzigzag(readVarLong(columns[1]));
+            UUID transactionId = readUuid(columns[2]);
+            BigDecimal amount = readDecimal(columns[3]);
+            at += unzigzag(readVarLong(columns[4]));
+            String referenceId = readString(columns[5]);
+            UUID counterparty = columns[6].readBoolean() ? readUuid(columns[6]) : null;
+            if (columns.length > COLUMNS_V1) xid += unzigzag(readVarLong(columns[7]));
+            sink.accept(new ArchivedLeg(id, xid, transactionId, account, amount, fromMicros(at), referenceId, counterparty));
+        }
+    }
+
+    // --- encoding helpers ---
+
+    private static void writeRun(DataOutputStream out, UUID account, int length) throws IOException {
+        writeUuid(out, account);
+        writeVarLong(out, length);
+    }
+
+    private static void writeUuid(DataOutputStream out, UUID id) throws IOException {
+        out.writeLong(id.getMostSignificantBits());
+        out.writeLong(id.getLeastSignificantBits());
+    }
+
+    private static UUID readUuid(DataInputStream in) throws IOException {
+        return new UUID(in.readLong(), in.readLong());
+    }
+
+    private static void writeDecimal(DataOutputStream out, BigDecimal value) throws IOException {
+        byte[] unscaled = value.unscaledValue().toByteArray();
+        writeVarLong(out, zigzag(value.scale()));
+        writeVarLong(out, unscaled.length);
+        out.write(unscaled);
+    }
+
+    private static BigDecimal readDecimal(DataInputStream in) throws IOException {
+        int scale = (int) unzigzag(readVarLong(in));
+        byte[] unscaled = new byte[(int) readVarLong(in)];
+        in.readFully(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), scale);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            writeVarLong(out, 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length + 1L);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = (int) readVarLong(in);
+        if (length == 0) return null;
+        byte[] bytes = new byte[length - 1];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = in.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    // created_at is a timestamp without time zone; UTC here is only a fixed reference, not a conversion
+    private static long micros(LocalDateTime at) {
+        return at.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + at.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 4));
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] deflated, int rawLength) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(deflated);
+            byte[] raw = new byte[rawLength];
+            int read = 0;
+            while (read < rawLength && !inflater.finished()) {
+                read += inflater.inflate(raw, read, rawLength - read);
+            }
+            return raw;
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt archive column", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
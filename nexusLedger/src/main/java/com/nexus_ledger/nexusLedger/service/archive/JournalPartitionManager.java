@@ -0,0 +1,288 @@
+package com.nexus_ledger.nexusLedger.service.archive;
+
+import com.nexus_ledger.nexusLedger.config.SchemaMigrations;
+import com.nexus_ledger.nexusLedger.service.StatementService;
+import com.nexus_ledger.nexusLedger.service.replay.BalanceHistoryService;
+import com.nexus_ledger.nexusLedger.service.replay.ReplayEngine;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps the monthly range partitions of journal_entries and transactions (see
+ * {@link SchemaMigrations}) ahead of the clock, and moves journal partitions older than the retention
+ * window out of PostgreSQL into {@link JournalArchiveFile}s:
+ *  1. snapshots and balance checkpoints are rolled forward, so replay and history only need the
+ *     archive for explicit look-backs
+ *  2. the partition is streamed, sorted by (account_id, id), into a pending file
+ *  3. the file's row count and amount total are checked against the partition
+ *  4. the partition is detached and dropped, then the file is published to {@link JournalArchive}
+ * Header partitions are dropped one month later than the journal ones, once no remaining leg can
+ * point at them. The reference ids of their headers are already in the journal archive.
+ *
+ * Every instance schedules this, but a run only goes ahead under the archive's PostgreSQL advisory lock,
+ * so one instance at a time creates, exports and drops partitions. The drop commits the partition's
+ * journal_archive_partitions row, which is how the other instances (sharing nexus.ledger.archive.dir)
+ * learn to read the new file.
+ */
+@Slf4j
+@Service
+public class JournalPartitionManager {
+
+    public static final String[] TABLES = {"transactions", "journal_entries"};
+
+    private static final DateTimeFormatter NAME = DateTimeFormatter.ofPattern("'_p'yyyy_MM");
+    private static final DateTimeFormatter BOUND = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final Pattern RANGE = Pattern.compile("FROM \\((.+?)\\) TO \\((.+?)\\)");
+
+    private static final String PARTITIONS_SQL = """
+            SELECT c.relname, pg_get_expr(c.relpartbound, c.oid) AS bound
+            FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+            WHERE i.inhparent = to_regclass(?)
+            ORDER BY c.relname
+            """;
+
+    // The counterparty (as statements show it) and the header's reference make the archive self-contained
+    private static final String EXPORT_SQL = """
+            SELECT j.id, COALESCE(j.tx_xid, 0) AS tx_xid, j.transaction_id, j.account_id, j.amount, j.created_at, t.reference_id,
+                   %s AS counterparty
+            FROM %%s j
+            LEFT JOIN transactions t ON t.id = j.transaction_id
+            ORDER BY j.account_id, j.id
+            """.formatted(StatementService.COUNTERPARTY_SQL);
+
+    // from == null: MINVALUE (the pre-partitioning table), to == null: MAXVALUE
+    record Partition(String name, LocalDateTime from, LocalDateTime to) {
+
+        boolean covers(LocalDateTime at) {
+            return (from == null || !at.isBefore(from)) && (to == null || at.isBefore(to));
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTx;
+    private final JournalArchive archive;
+    private final ReplayEngine replayEngine;
+    private final BalanceHistoryService balanceHistoryService;
+    private final boolean enabled;
+    private final int premakeMonths;
+    private final int archiveAfterMonths;
+    private final int rowGroupSize;
+    private final int fetchSize;
+
+    // Taking SchemaMigrations orders us after the tables have been converted
+    public JournalPartitionManager(JdbcTemplate jdbcTemplate,
+                                   PlatformTransactionManager transactionManager,
+                                   JournalArchive archive,
+                                   ReplayEngine replayEngine,
+                                   BalanceHistoryService balanceHistoryService,
+                                   SchemaMigrations schemaMigrations,
+                                   @Value("${nexus.ledger.partitioning.enabled:false}") boolean enabled,
+                                   @Value("${nexus.ledger.partitioning.premake-months:3}") int premakeMonths,
+                                   @Value("${nexus.ledger.archive.after-months:0}") int archiveAfterMonths,
+                                   @Value("${nexus.ledger.archive.row-group-size:65536}") int rowGroupSize,
+                                   @Value("${nexus.ledger.replay.fetch-size:5000}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true); // PostgreSQL only honours the fetch size inside a transaction
+        this.archive = archive;
+        this.replayEngine = replayEngine;
+        this.balanceHistoryService = balanceHistoryService;
+        this.enabled = enabled;
+        this.premakeMonths = premakeMonths;
+        this.archiveAfterMonths = archiveAfterMonths;
+        this.rowGroupSize = rowGroupSize;
+        this.fetchSize = fetchSize;
+    }
+
+    // Before the Kafka listeners start: after a long downtime the current month may have no partition yet
+    @PostConstruct
+    void start() {
+        if (enabled) ensurePartitions();
+    }
+
+    @Scheduled(fixedDelayString = "${nexus.ledger.partitioning.maintenance-interval-ms:3600000}",
+            initialDelayString = "${nexus.ledger.partitioning.maintenance-interval-ms:3600000}")
+    public synchronized void maintain() {
+        if (!enabled) return;
+        boolean ran = archive.withLock(() -> {
+            ensurePartitions();
+            if (archiveAfterMonths > 0) {
+                archiveExpired(monthStart(0).minusMonths(archiveAfterMonths));
+            }
+        });
+        if (!ran) log.debug("Partition maintenance skipped: another instance holds the archive lock");
+    }
+
+    // This month and the next premakeMonths, for both tables
+    public synchronized void ensurePartitions() {
+        for (String table : TABLES) {
+            List<Partition> existing = partitions(table);
+            for (int m = 0; m <= premakeMonths; m++) {
+                LocalDateTime from = monthStart(m);
+                if (existing.stream().anyMatch(p -> p.covers(from))) continue;
+                String name = table + NAME.format(from);
+                jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + name + " PARTITION OF " + table
+                        + " FOR VALUES FROM ('" + BOUND.format(from) + "') TO ('" + BOUND.format(from.plusMonths(1)) + "')");
+                log.info("Created partition {}", name);
+            }
+        }
+    }
+
+    // Archives every journal partition that ends at or before the cutoff; returns how many (0 when another
+    // instance is archiving)
+    public synchronized int archiveOlderThan(LocalDateTime cutoff) {
+        int[] archived = {0};
+        archive.withLock(() -> archived[0] = archiveExpired(cutoff));
+        return archived[0];
+    }
+
+    // Caller holds the archive lock
+    private int archiveExpired(LocalDateTime cutoff) {
+        List<Partition> expired = partitions("journal_entries").stream()
+                .filter(p -> p.to() != null && !p.to().isAfter(cutoff))
+                .toList();
+
+        if (!expired.isEmpty()) {
+            // 1. Nothing should need to fold these legs again
+            replayEngine.takeSnapshots();
+            balanceHistoryService.checkpoint();
+            for (Partition partition : expired) {
+                archivePartition(partition);
+            }
+        }
+
+        // Headers lag a month behind, so no live leg can be left pointing at a dropped header
+        LocalDateTime headerCutoff = cutoff.minusMonths(1);
+        for (Partition partition : partitions("transactions")) {
+            if (partition.to() != null && !partition.to().isAfter(headerCutoff)) {
+                drop("transactions", partition.name());
+            }
+        }
+        return expired.size();
+    }
+
+    private void archivePartition(Partition partition) {
+        long started = System.currentTimeMillis();
+        Path pending;
+        long rows;
+        BigDecimal total;
+        try {
+            // 2. Stream the partition into the columnar file
+            pending = archive.pendingFile(partition.name());
+            try (JournalArchiveFile.Writer writer = new JournalArchiveFile.Writer(pending, rowGroupSize)) {
+                readOnlyTx.executeWithoutResult(status -> jdbcTemplate.query(con -> {
+                    PreparedStatement ps = con.prepareStatement(EXPORT_SQL.formatted(partition.name()));
+                    ps.setFetchSize(fetchSize);
+                    return ps;
+                }, rs -> {
+                    try {
+                        writer.append(new ArchivedLeg(rs.getLong("id"), rs.getLong("tx_xid"),
+                                rs.getObject("transaction_id", UUID.class),
+                                rs.getObject("account_id", UUID.class),
+                                rs.getBigDecimal("amount"),
+                                rs.getTimestamp("created_at").toLocalDateTime(),
+                                rs.getString("reference_id"),
+                                rs.getObject("counterparty", UUID.class)));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }));
+                rows = writer.rows();
+                total = writer.total();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write archive for " + partition.name(), e);
+        }
+
+        // 3. Verify before anything is dropped
+        Map<String, Object> check = jdbcTemplate.queryForMap(
+                "SELECT COUNT(*) AS legs, COALESCE(SUM(amount), 0) AS total FROM " + partition.name());
+        if (((Number) check.get("legs")).longValue() != rows || ((BigDecimal) check.get("total")).compareTo(total) != 0) {
+            deleteQuietly(pending);
+            throw new IllegalStateException("Archive of " + partition.name() + " does not match the partition: "
+                    + rows + " legs / " + total + " written, " + check.get("legs") + " / " + check.get("total") + " in DB");
+        }
+
+        // 4. Drop (registering the file in the same transaction), then publish. Between the two a reader
+        // misses these legs for a moment instead of counting them twice; snapshots and checkpoints are
+        // already past them.
+        transactionTemplate.executeWithoutResult(status -> {
+            detachAndDrop("journal_entries", partition.name());
+            jdbcTemplate.update("""
+                    INSERT INTO journal_archive_partitions (partition_name, legs, total, archived_at)
+                    VALUES (?, ?, ?, now())
+                    """, partition.name(), rows, total);
+        });
+        log.info("Dropped partition {}", partition.name());
+        try {
+            archive.publish(partition.name(), pending);
+        } catch (IOException e) {
+            // The pending file is still there; JournalArchive publishes it on the next start
+            throw new UncheckedIOException("Cannot publish archive for " + partition.name(), e);
+        }
+        log.info("Archived {}: {} legs in {} ms", partition.name(), rows, System.currentTimeMillis() - started);
+    }
+
+    private void drop(String table, String partition) {
+        transactionTemplate.executeWithoutResult(status -> detachAndDrop(table, partition));
+        log.info("Dropped partition {}", partition);
+    }
+
+    private void detachAndDrop(String table, String partition) {
+        jdbcTemplate.execute("ALTER TABLE " + table + " DETACH PARTITION " + partition);
+        jdbcTemplate.execute("DROP TABLE " + partition);
+    }
+
+    List<Partition> partitions(String table) {
+        List<Partition> partitions = new ArrayList<>();
+        jdbcTemplate.query(PARTITIONS_SQL, rs -> {
+            Matcher range = RANGE.matcher(rs.getString("bound"));
+            if (!range.find()) return; // DEFAULT partition
+            partitions.add(new Partition(rs.getString("relname"), bound(range.group(1)), bound(range.group(2))));
+        }, table);
+        return partitions;
+    }
+
+    // 'YYYY-MM-DD HH:MM:SS' literal, or MINVALUE/MAXVALUE (returned as null)
+    private static LocalDateTime bound(String literal) {
+        if (!literal.startsWith("'")) return null;
+        return Timestamp.valueOf(literal.substring(1, literal.length() - 1)).toLocalDateTime();
+    }
+
+    private static LocalDateTime monthStart(int monthsAhead) {
+        return LocalDate.now().withDayOfMonth(1).plusMonths(monthsAhead).atStartOfDay();
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete {}: {}", path, e.getMessage());
+        }
+    }
+}
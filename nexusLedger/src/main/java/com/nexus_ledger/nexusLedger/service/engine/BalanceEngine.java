@@ -0,0 +1,232 @@
+package com.nexus_ledger.nexusLedger.service.engine;
+
+import com.nexus_ledger.nexusLedger.dto.TransferCommand;
+import com.nexus_ledger.nexusLedger.module.Account;
+import com.nexus_ledger.nexusLedger.repository.AccountRepository;
+import com.nexus_ledger.nexusLedger.service.replay.ReplayEngine;
+import com.nexus_ledger.nexusLedger.util.MoneyTally;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Optional in-memory balance engine (LMAX-style single writers).
+ *
+ * Accounts are partitioned by UUID across a fixed number of single-threaded workers. Each worker
+ * owns the balances of its accounts outright, so funds checks and balance updates need no locks:
+ * a transfer is debited on the sender's partition, handed to the receiver's partition for the
+ * credit, and then queued on the {@link JournalWriter}, which makes it durable asynchronously.
+ * Balances are held as minor units ({@link MoneyTally}) and updated in place, so a transfer
+ * allocates nothing for its arithmetic; BigDecimal only appears when a result leaves the engine.
+ *
+ * Enable with nexus.ledger.engine.enabled=true.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "nexus.ledger.engine.enabled", havingValue = "true")
+public class BalanceEngine {
+
+    private final AccountRepository accountRepo;
+    private final JournalWriter journalWriter;
+    private final JdbcTemplate jdbcTemplate;
+    private final ReplayEngine replayEngine;
+    private final Partition[] partitions;
+    private final Map<UUID, String> knownAccounts = new ConcurrentHashMap<>(); // Account -> currency
+    private final Semaphore inFlight;
+
+    public BalanceEngine(AccountRepository accountRepo,
+                         JournalWriter journalWriter,
+                         JdbcTemplate jdbcTemplate,
+                         ReplayEngine replayEngine,
+                         @Value("${nexus.ledger.engine.partitions:4}") int partitionCount,
+                         @Value("${nexus.ledger.engine.queue-capacity:10000}") int queueCapacity) {
+        this.accountRepo = accountRepo;
+        this.journalWriter = journalWriter;
+        this.jdbcTemplate = jdbcTemplate;
+        this.replayEngine = replayEngine;
+        this.inFlight = new Semaphore(queueCapacity);
+        this.partitions = new Partition[partitionCount];
+        for (int i = 0; i < partitionCount; i++) {
+            partitions[i] = new Partition(i);
+        }
+    }
+
+    // Runs before the Kafka listeners start, so no transfer can observe a half-loaded engine.
+    // Balances come from the journal (latest snapshot + tail replay); accounts that have never been
+    // snapshotted fall back to the accounts projection, which the JournalWriter keeps in step with it.
+    @PostConstruct
+    public void rebuild() {
+        Map<UUID, BigDecimal> replayed = replayEngine.rebuild();
+        int[] drift = {0};
+        jdbcTemplate.query("SELECT a.id, a.currency, " + Account.TOTAL_BALANCE_SQL + " AS balance FROM accounts a", rs -> {
+            UUID id = rs.getObject("id", UUID.class);
+            String currency = rs.getString("currency");
+            BigDecimal projection = rs.getBigDecimal("balance");
+            BigDecimal balance = replayed.getOrDefault(id, projection);
+            if (balance.compareTo(projection) != 0) {
+                drift[0]++;
+                log.warn("Account {} projection {} disagrees with journal replay {}", id, projection, balance);
+            }
+            partitionFor(id).balances.put(id, MoneyTally.of(balance, currency));
+            knownAccounts.put(id, currency);
+        });
+        log.info("Balance engine rebuilt: {} accounts across {} partitions ({} replayed from journal, {} drifted)",
+                knownAccounts.size(), partitions.length, replayed.size(), drift[0]);
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        for (Partition partition : partitions) {
+            partition.executor.shutdown();
+        }
+        for (Partition partition : partitions) {
+            partition.executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    public boolean isAvailable() {
+        return !journalWriter.isFailed();
+    }
+
+    // Completes with the sender's new balance once the transfer is durable in the journal
+    public CompletableFuture<BigDecimal> submit(TransferCommand cmd) {
+        CompletableFuture<BigDecimal> future = new CompletableFuture<>();
+        if (!isAvailable()) {
+            future.completeExceptionally(new IllegalStateException("Balance engine halted after a journal write failure"));
+            return future;
+        }
+
+        // Backpressure is applied here, on the caller, and never between partitions:
+        // a partition blocked on another partition's full queue could deadlock the engine
+        try {
+            inFlight.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.completeExceptionally(e);
+            return future;
+        }
+        future.whenComplete((balance, error) -> inFlight.release());
+
+        partitionFor(cmd.getFromId()).execute(() -> debit(cmd, future), future);
+        return future;
+    }
+
+    // Runs on the sender's partition thread
+    private void debit(TransferCommand cmd, CompletableFuture<BigDecimal> future) {
+        UUID fromId = cmd.getFromId();
+        UUID toId = cmd.getToId();
+        long amount = cmd.getAmountMinor();
+        Partition partition = partitionFor(fromId);
+
+        MoneyTally balance = partition.load(fromId);
+        if (balance == null) {
+            future.completeExceptionally(new RuntimeException("Sender account not found: " + fromId));
+            return;
+        }
+        String toCurrency = currencyOf(toId);
+        if (toCurrency == null) {
+            future.completeExceptionally(new RuntimeException("Receiver account not found: " + toId));
+            return;
+        }
+        // Minor units only compare within one currency
+        if (!balance.currency().equals(cmd.getCurrency()) || !toCurrency.equals(cmd.getCurrency())) {
+            future.completeExceptionally(new RuntimeException("Currency mismatch: " + cmd.getCurrency()
+                    + " transfer between " + balance.currency() + " and " + toCurrency + " accounts"));
+            return;
+        }
+        if (!balance.covers(amount)) {
+            future.completeExceptionally(new RuntimeException("Insufficient Funds in account: " + fromId));
+            return;
+        }
+
+        balance.subtract(amount);
+        long fromBalanceAfter = balance.minor();
+        partitionFor(toId).execute(() -> credit(cmd, fromBalanceAfter, future), future);
+    }
+
+    // Runs on the receiver's partition thread; credits cannot fail once the debit succeeded
+    private void credit(TransferCommand cmd, long fromBalanceAfter, CompletableFuture<BigDecimal> future) {
+        UUID toId = cmd.getToId();
+        Partition partition = partitionFor(toId);
+
+        MoneyTally balance = partition.load(toId);
+        if (balance == null) {
+            balance = new MoneyTally(cmd.getCurrency(), 0);
+            partition.balances.put(toId, balance);
+        }
+        balance.add(cmd.getAmountMinor());
+
+        // Queued only after both sides are applied, so an account is always loaded before
+        // any journal row that touches it can reach the DB
+        journalWriter.append(new JournalWriter.Posting(cmd, fromBalanceAfter, future));
+    }
+
+    // null if there is no such account
+    private String currencyOf(UUID accountId) {
+        String currency = knownAccounts.get(accountId);
+        if (currency == null) {
+            currency = accountRepo.findById(accountId).map(Account::getCurrency).orElse(null);
+            if (currency != null) knownAccounts.put(accountId, currency);
+        }
+        return currency;
+    }
+
+    private Partition partitionFor(UUID accountId) {
+        return partitions[Math.floorMod(accountId.hashCode(), partitions.length)];
+    }
+
+    private final class Partition {
+
+        // Only ever touched by this partition's thread
+        private final Map<UUID, MoneyTally> balances = new HashMap<>();
+        private final ExecutorService executor;
+
+        Partition(int index) {
+            this.executor = Executors.newSingleThreadExecutor(r -> new Thread(r, "balance-partition-" + index));
+        }
+
+        void execute(Runnable task, CompletableFuture<BigDecimal> future) {
+            try {
+                executor.execute(() -> {
+                    try {
+                        task.run();
+                    } catch (RuntimeException e) {
+                        future.completeExceptionally(e);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                future.completeExceptionally(e);
+            }
+        }
+
+        // Accounts created after startup (e.g. OAuth2 provisioning) are pulled in on first use
+        MoneyTally load(UUID accountId) {
+            MoneyTally balance = balances.get(accountId);
+            if (balance == null) {
+                Account account = accountRepo.findById(accountId).orElse(null);
+                if (account != null) {
+                    balance = MoneyTally.of(account.getBalance(), account.getCurrency());
+                    balances.put(accountId, balance);
+                    knownAccounts.put(accountId, account.getCurrency());
+                }
+            }
+            return balance;
+        }
+    }
+}
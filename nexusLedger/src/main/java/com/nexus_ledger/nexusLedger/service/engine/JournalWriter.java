@@ -0,0 +1,155 @@
+package com.nexus_ledger.nexusLedger.service.engine;
+
+import com.nexus_ledger.nexusLedger.dto.TransferCommand;
+import com.nexus_ledger.nexusLedger.module.IdempotencyRecord;
+import com.nexus_ledger.nexusLedger.repository.IdempotencyRepository;
+import com.nexus_ledger.nexusLedger.service.IdempotencyIndex;
+import com.nexus_ledger.nexusLedger.service.LedgerService;
+import com.nexus_ledger.nexusLedger.util.Money;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Durable side of the {@link BalanceEngine}. Postings accepted in memory are queued here and
+ * group-committed by a single thread: transaction headers, journal legs, netted account
+ * projections and idempotency records all land in one DB transaction per batch.
+ * Because only this thread writes, the account rows it updates are never contended.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "nexus.ledger.engine.enabled", havingValue = "true")
+public class JournalWriter {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    record Posting(TransferCommand cmd, long fromBalanceAfter, CompletableFuture<BigDecimal> future) { }
+
+    private final LedgerService ledgerService;
+    private final IdempotencyRepository idempotencyRepo;
+    private final IdempotencyIndex idempotencyIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final BlockingQueue<Posting> queue;
+    private final Thread thread;
+
+    private volatile boolean running = true;
+    private volatile boolean failed = false;
+
+    public JournalWriter(LedgerService ledgerService,
+                         IdempotencyRepository idempotencyRepo,
+                         IdempotencyIndex idempotencyIndex,
+                         TransactionTemplate transactionTemplate,
+                         @Value("${nexus.ledger.engine.journal-batch-size:500}") int batchSize,
+                         @Value("${nexus.ledger.engine.queue-capacity:10000}") int queueCapacity) {
+        this.ledgerService = ledgerService;
+        this.idempotencyRepo = idempotencyRepo;
+        this.idempotencyIndex = idempotencyIndex;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.thread = new Thread(this::run, "journal-writer");
+    }
+
+    @PostConstruct
+    void start() {
+        thread.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        // Let the thread drain whatever is already queued before the context goes away
+        running = false;
+        thread.join(TimeUnit.SECONDS.toMillis(30));
+    }
+
+    // Once a batch could not be made durable the in-memory balances are ahead of the DB;
+    // the engine stops accepting work until it is rebuilt on restart.
+    public boolean isFailed() {
+        return failed;
+    }
+
+    void append(Posting posting) {
+        try {
+            queue.put(posting); // Blocks the partition thread when the writer falls behind (backpressure)
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            posting.future().completeExceptionally(e);
+        }
+    }
+
+    private void run() {
+        List<Posting> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Posting first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<Posting> batch) throws InterruptedException {
+        if (failed) {
+            batch.forEach(p -> p.future().completeExceptionally(
+                    new IllegalStateException("Balance engine halted after a journal write failure")));
+            return;
+        }
+
+        List<TransferCommand> commands = new ArrayList<>(batch.size());
+        List<IdempotencyRecord> records = new ArrayList<>(batch.size());
+        for (Posting posting : batch) {
+            TransferCommand cmd = posting.cmd();
+            commands.add(cmd);
+
+            IdempotencyRecord record = new IdempotencyRecord();
+            record.setIdempotencyKey(cmd.getKey());
+            record.setResponseBody("SUCCESS");
+            record.setStatusCode(200);
+            record.setFromId(cmd.getFromId().toString());
+            record.setToId(cmd.getToId().toString());
+            record.setAmount(cmd.getAmount());
+            records.add(record);
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    ledgerService.postTransfers(commands);
+                    idempotencyRepo.saveAll(records);
+                });
+                idempotencyIndex.recordAll(records);
+                batch.forEach(p -> p.future().complete(Money.toDecimal(p.fromBalanceAfter(), p.cmd().getCurrency())));
+                return;
+            } catch (RuntimeException e) {
+                if (attempt >= MAX_ATTEMPTS) {
+                    failed = true;
+                    log.error("Journal write failed {} times, halting balance engine: {}", attempt, e.getMessage());
+                    batch.forEach(p -> p.future().completeExceptionally(e));
+                    return;
+                }
+                log.warn("Journal write attempt {} failed, retrying: {}", attempt, e.getMessage());
+                Thread.sleep(100L * attempt);
+            }
+        }
+    }
+}
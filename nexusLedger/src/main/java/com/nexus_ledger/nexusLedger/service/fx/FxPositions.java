@@ -0,0 +1,58 @@
+package com.nexus_ledger.nexusLedger.service.fx;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The ledger's own position account per currency ("FX-POSITION-EUR"). A cross-currency transfer pays the
+ * sender's money into the position of the sender's currency and pays the receiver out of the position of
+ * theirs, so every leg stays in a single currency and each currency still sums to zero across the journal.
+ * Positions may go negative. Every transfer in a currency touches its position, so it is a natural
+ * candidate for nexus.ledger.sharding.accounts.
+ */
+@Slf4j
+@Component
+public class FxPositions {
+
+    public static final String NUMBER_PREFIX = "FX-POSITION-";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate ownTransaction;
+    private final Map<String, UUID> accounts = new ConcurrentHashMap<>();
+
+    public FxPositions(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ownTransaction = new TransactionTemplate(transactionManager);
+        this.ownTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public static String accountNumber(String currency) {
+        return NUMBER_PREFIX + currency;
+    }
+
+    // Created on first use, in its own transaction so a rolled-back transfer can't take the account with it.
+    // The id is derived from the currency, so every ledger instance creates (and finds) the same row.
+    public UUID accountFor(String currency) {
+        UUID cached = accounts.get(currency);
+        if (cached != null) return cached;
+
+        UUID id = UUID.nameUUIDFromBytes(accountNumber(currency).getBytes(StandardCharsets.UTF_8));
+        ownTransaction.executeWithoutResult(status -> jdbcTemplate.update("""
+                INSERT INTO accounts (id, account_number, owner_name, balance, currency, slot_count, version)
+                VALUES (?, ?, 'FX Position', 0, ?, 0, 0)
+                ON CONFLICT (id) DO NOTHING
+                """, id, accountNumber(currency), currency));
+        accounts.put(currency, id);
+        log.info("FX position account for {} is {}", currency, id);
+        return id;
+    }
+}
@@ -0,0 +1,169 @@
+package com.nexus_ledger.nexusLedger.service.fx;
+
+import com.nexus_ledger.nexusLedger.module.FxRate;
+import com.nexus_ledger.nexusLedger.util.Money;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory FX rates, copy-on-write. A refresh builds a complete new table off to the side and swaps a
+ * volatile reference, so conversions never take a lock or see a half-loaded table: a reader works on
+ * whichever snapshot it picked up, and a failed refresh leaves the previous one in place.
+ *
+ * Rates come from a CSV file (nexus.fx.rates-file, lines of "base,quote,rate") or, when none is set,
+ * the fx_rates table. Each pair is precomputed into a multiplier/divisor on minor units, so a
+ * conversion is two map lookups and one long multiply-divide (BigDecimal only if that would overflow).
+ */
+@Slf4j
+@Component
+public class FxRateTable {
+
+    private static final int RATE_DIGITS = 9; // Rates are held as long * 10^9
+    private static final long RATE_ONE = 1_000_000_000L;
+
+    // Multiply minor units of the base currency by `multiplier`, divide by `divisor`: minor units of the quote
+    record Quote(BigDecimal rate, long multiplier, long divisor) { }
+
+    private record Snapshot(Map<String, Map<String, Quote>> quotes, int pairs) { }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String ratesFile;
+    private volatile Snapshot snapshot = new Snapshot(Map.of(), 0);
+
+    // Taking the EntityManagerFactory orders us after Hibernate has created fx_rates
+    public FxRateTable(JdbcTemplate jdbcTemplate,
+                       EntityManagerFactory entityManagerFactory,
+                       @Value("${nexus.fx.rates-file:}") String ratesFile) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ratesFile = ratesFile;
+    }
+
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${nexus.fx.refresh-interval-ms:60000}",
+            initialDelayString = "${nexus.fx.refresh-interval-ms:60000}")
+    public void refresh() {
+        try {
+            List<FxRate> rates = ratesFile == null || ratesFile.isBlank() ? readTable() : readFile(Path.of(ratesFile));
+            publish(rates);
+        } catch (IOException | RuntimeException e) {
+            log.warn("FX rate refresh failed, keeping {} pairs from the last load: {}", snapshot.pairs(), e.getMessage());
+        }
+    }
+
+    // Replaces the whole table; readers switch over on their next lookup
+    public void publish(Collection<FxRate> rates) {
+        Map<String, Map<String, Quote>> quotes = new HashMap<>();
+        // 1. Listed pairs win over derived inverses
+        for (FxRate rate : rates) {
+            if (rate.getRate().signum() <= 0) throw new IllegalArgumentException("Non-positive rate " + rate);
+            put(quotes, rate.getQuoteCurrency(), rate.getBaseCurrency(),
+                    BigDecimal.ONE.divide(rate.getRate(), RATE_DIGITS + 3, RoundingMode.HALF_EVEN), false);
+        }
+        int pairs = 0;
+        for (FxRate rate : rates) {
+            put(quotes, rate.getBaseCurrency(), rate.getQuoteCurrency(), rate.getRate(), true);
+            pairs++;
+        }
+        quotes.replaceAll((base, byQuote) -> Map.copyOf(byQuote));
+        snapshot = new Snapshot(Map.copyOf(quotes), pairs);
+        log.info("FX rates loaded: {} pairs", pairs);
+    }
+
+    public boolean supports(String from, String to) {
+        return from.equals(to) || quote(from, to) != null;
+    }
+
+    // Units of `to` for one unit of `from`
+    public BigDecimal rate(String from, String to) {
+        if (from.equals(to)) return BigDecimal.ONE;
+        return require(from, to).rate();
+    }
+
+    // Minor units of `from` to minor units of `to`, rounded half-even
+    public long convert(long amountMinor, String from, String to) {
+        if (from.equals(to)) return amountMinor;
+        Quote quote = require(from, to);
+
+        long high = Math.multiplyHigh(amountMinor, quote.multiplier());
+        long low = amountMinor * quote.multiplier();
+        if ((high == 0 && low >= 0) || (high == -1 && low < 0)) {
+            return divideHalfEven(low, quote.divisor());
+        }
+        return BigDecimal.valueOf(amountMinor)
+                .multiply(BigDecimal.valueOf(quote.multiplier()))
+                .divide(BigDecimal.valueOf(quote.divisor()), 0, RoundingMode.HALF_EVEN)
+                .longValueExact();
+    }
+
+    private Quote require(String from, String to) {
+        Quote quote = quote(from, to);
+        if (quote == null) throw new RuntimeException("No FX rate for " + from + "/" + to);
+        return quote;
+    }
+
+    private Quote quote(String from, String to) {
+        Map<String, Quote> byQuote = snapshot.quotes().get(from);
+        return byQuote == null ? null : byQuote.get(to);
+    }
+
+    private static void put(Map<String, Map<String, Quote>> quotes, String base, String quote, BigDecimal rate,
+                            boolean replace) {
+        Map<String, Quote> byQuote = quotes.computeIfAbsent(base, b -> new HashMap<>());
+        if (!replace && byQuote.containsKey(quote)) return;
+
+        // minor(quote) = minor(base) * rate * 10^(digits(quote) - digits(base))
+        long scaledRate = rate.movePointRight(RATE_DIGITS).setScale(0, RoundingMode.HALF_EVEN).longValueExact();
+        int shift = Money.fractionDigits(quote) - Money.fractionDigits(base);
+        long multiplier = shift >= 0 ? Math.multiplyExact(scaledRate, pow10(shift)) : scaledRate;
+        long divisor = shift >= 0 ? RATE_ONE : Math.multiplyExact(RATE_ONE, pow10(-shift));
+        byQuote.put(quote, new Quote(rate, multiplier, divisor));
+    }
+
+    static long divideHalfEven(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long twiceRemainder = Math.abs(dividend % divisor) * 2;
+        if (twiceRemainder > divisor || (twiceRemainder == divisor && (quotient & 1) != 0)) {
+            quotient += Long.signum(dividend);
+        }
+        return quotient;
+    }
+
+    private static long pow10(int exponent) {
+        long value = 1;
+        for (int i = 0; i < exponent; i++) value *= 10;
+        return value;
+    }
+
+    private List<FxRate> readTable() {
+        return jdbcTemplate.query("SELECT base_currency, quote_currency, rate FROM fx_rates", (rs, row) ->
+                new FxRate(rs.getString("base_currency"), rs.getString("quote_currency"), rs.getBigDecimal("rate"), null));
+    }
+
+    private static List<FxRate> readFile(Path path) throws IOException {
+        List<FxRate> rates = new ArrayList<>();
+        for (String line : Files.readAllLines(path)) {
+            line = line.strip();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            String[] fields = line.split(",");
+            if (fields.length != 3) throw new IllegalArgumentException("Expected base,quote,rate: " + line);
+            rates.add(new FxRate(fields[0].strip(), fields[1].strip(), new BigDecimal(fields[2].strip()), null));
+        }
+        return rates;
+    }
+}
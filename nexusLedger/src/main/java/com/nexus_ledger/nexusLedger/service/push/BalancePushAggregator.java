@@ -0,0 +1,179 @@
+package com.nexus_ledger.nexusLedger.service.push;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Coalesces balance pushes to /topic/updates/{accountId}. Outcomes for an account are merged for up to
+ * one window and sent as a single message carrying the latest status and balance, so a burst of N
+ * transfers costs the broker one message per account per window instead of N.
+ *
+ * Backpressure:
+ *  - at most one message per account (i.e. per dashboard subscriber) per window, however fast it transacts
+ *  - the pending table is bounded; new accounts beyond it are dropped, not queued
+ *  - accounts nobody is subscribed to on this node are not sent at all (never in relay mode, where
+ *    subscribers may sit on another instance)
+ * Meters: ledger.ws.push.sent, ledger.ws.push.coalesced, ledger.ws.push.dropped{reason}, ledger.ws.push.pending.
+ */
+@Slf4j
+@Component
+public class BalancePushAggregator {
+
+    private static final String DESTINATION_PREFIX = "/topic/updates/";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final boolean enabled;
+    private final long windowMillis;
+    private final int maxPending;
+    private final boolean skipUnsubscribed;
+
+    private final ConcurrentHashMap<UUID, BalanceUpdate> pending = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, AtomicInteger> subscribers = new ConcurrentHashMap<>(); // destination -> count
+    private final ConcurrentHashMap<String, Map<String, String>> sessions = new ConcurrentHashMap<>(); // session -> sub id -> destination
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "ws-push"));
+
+    private final Counter sent;
+    private final Counter coalesced;
+    private final Counter droppedOverflow;
+    private final Counter droppedNoSubscriber;
+
+    public BalancePushAggregator(SimpMessagingTemplate messagingTemplate,
+                                 MeterRegistry registry,
+                                 @Value("${nexus.ws.push.coalesce-enabled:true}") boolean enabled,
+                                 @Value("${nexus.ws.push.window-ms:250}") long windowMillis,
+                                 @Value("${nexus.ws.push.max-pending:50000}") int maxPending,
+                                 @Value("#{${nexus.ws.push.skip-unsubscribed:true} and '${nexus.ws.broker.mode:simple}' != 'relay'}")
+                                 boolean skipUnsubscribed) {
+        this.messagingTemplate = messagingTemplate;
+        this.enabled = enabled;
+        this.windowMillis = windowMillis;
+        this.maxPending = maxPending;
+        this.skipUnsubscribed = skipUnsubscribed;
+
+        this.sent = Counter.builder("ledger.ws.push.sent")
+                .description("Balance messages handed to the broker")
+                .register(registry);
+        this.coalesced = Counter.builder("ledger.ws.push.coalesced")
+                .description("Transfer outcomes merged into a later message for the same account")
+                .register(registry);
+        this.droppedOverflow = droppedCounter(registry, "overflow");
+        this.droppedNoSubscriber = droppedCounter(registry, "no_subscriber");
+        Gauge.builder("ledger.ws.push.pending", pending, Map::size).register(registry);
+    }
+
+    @PostConstruct
+    void start() {
+        if (enabled) {
+            flusher.scheduleWithFixedDelay(this::flush, windowMillis, windowMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        flusher.shutdown();
+        flush(); // Last window's outcomes still go out
+    }
+
+    public void publish(UUID accountId, String status, BigDecimal amount, BigDecimal newBalance) {
+        BalanceUpdate update = BalanceUpdate.of(status, amount, newBalance);
+        if (!enabled) {
+            send(accountId, update);
+            return;
+        }
+
+        if (pending.size() >= maxPending && !pending.containsKey(accountId)) {
+            droppedOverflow.increment();
+            return;
+        }
+        pending.merge(accountId, update, (older, newer) -> {
+            coalesced.increment();
+            return older.mergeNewer(newer);
+        });
+    }
+
+    // Sends every pending account now; runs once per window on the ws-push thread
+    public void flush() {
+        for (UUID accountId : pending.keySet()) {
+            BalanceUpdate update = pending.remove(accountId);
+            if (update == null) continue;
+            try {
+                send(accountId, update);
+            } catch (Exception e) {
+                log.warn("Balance push for {} failed: {}", accountId, e.getMessage());
+            }
+        }
+    }
+
+    private void send(UUID accountId, BalanceUpdate update) {
+        String destination = DESTINATION_PREFIX + accountId;
+        if (skipUnsubscribed && !hasSubscribers(destination)) {
+            droppedNoSubscriber.increment();
+            return;
+        }
+        messagingTemplate.convertAndSend(destination, update);
+        sent.increment();
+    }
+
+    private boolean hasSubscribers(String destination) {
+        AtomicInteger count = subscribers.get(destination);
+        return count != null && count.get() > 0;
+    }
+
+    // Subscription bookkeeping for skip-unsubscribed (works without an authenticated principal)
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        String destination = headers.getDestination();
+        if (destination == null || !destination.startsWith(DESTINATION_PREFIX)) return;
+        sessions.computeIfAbsent(headers.getSessionId(), id -> new ConcurrentHashMap<>())
+                .put(headers.getSubscriptionId(), destination);
+        subscribers.computeIfAbsent(destination, d -> new AtomicInteger()).incrementAndGet();
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        Map<String, String> subscriptions = sessions.get(headers.getSessionId());
+        if (subscriptions == null) return;
+        release(subscriptions.remove(headers.getSubscriptionId()));
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        Map<String, String> subscriptions = sessions.remove(event.getSessionId());
+        if (subscriptions != null) subscriptions.values().forEach(this::release);
+    }
+
+    private void release(String destination) {
+        if (destination == null) return;
+        subscribers.computeIfPresent(destination, (d, count) -> count.decrementAndGet() <= 0 ? null : count);
+    }
+
+    private static Counter droppedCounter(MeterRegistry registry, String reason) {
+        return Counter.builder("ledger.ws.push.dropped")
+                .description("Balance messages not sent")
+                .tag("reason", reason)
+                .register(registry);
+    }
+}
@@ -0,0 +1,22 @@
+package com.nexus_ledger.nexusLedger.service.push;
+
+import java.math.BigDecimal;
+
+/**
+ * Payload pushed to /topic/updates/{accountId}. Same fields the dashboard always read; {@code coalesced}
+ * is how many transfer outcomes this one message stands for (1 when nothing was merged).
+ */
+public record BalanceUpdate(String type, String status, BigDecimal amount, BigDecimal newBalance,
+                            long timestamp, int coalesced) {
+
+    public static BalanceUpdate of(String status, BigDecimal amount, BigDecimal newBalance) {
+        return new BalanceUpdate("TRANSACTION_UPDATE", status, amount, newBalance, System.currentTimeMillis(), 1);
+    }
+
+    // Newer outcome wins, but a FRAUD/FAILED event (no balance) must not hide the last known balance
+    BalanceUpdate mergeNewer(BalanceUpdate newer) {
+        return new BalanceUpdate(type, newer.status, newer.amount,
+                newer.newBalance != null ? newer.newBalance : newBalance,
+                newer.timestamp, coalesced + newer.coalesced);
+    }
+}
@@ -0,0 +1,225 @@
+package com.nexus_ledger.nexusLedger.service.replay;
+
+import com.nexus_ledger.nexusLedger.module.Account;
+import com.nexus_ledger.nexusLedger.service.archive.JournalArchive;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+/**
+ * Point-in-time balances from running-balance checkpoints (balance_checkpoints). A query for time T is
+ * one index seek for the account's last checkpoint at or before T, plus a sum over the journal legs
+ * that checkpoint does not cover and that were written no later than T, which is at most one
+ * checkpoint interval of legs.
+ *
+ * A checkpoint covers the account's legs with tx_xid below its mark_xid and id up to its
+ * last_journal_id. The mark is {@link ReplayEngine#commitMark}, so the covered set is final when the row
+ * is written: a leg that commits later, whatever its id, is picked up by the next checkpoint and by every
+ * tail sum in the meantime. as_of is the latest created_at among the covered legs.
+ *
+ * Checkpoints are appended by a scheduled job for every account that moved since its last one. Accounts
+ * without any checkpoint are backfilled from their whole history: an opening row (projection balance
+ * minus everything journalled), then a running-balance row every few hundred legs, computed with window
+ * functions in parallel hash partitions of account_id. An account queried before its first checkpoint
+ * is answered by folding its journal backwards from the projection.
+ *
+ * Checkpoints are never archived. When T falls in an archived month, the tail comes from the
+ * {@link JournalArchive} instead of, or as well as, journal_entries.
+ */
+@Slf4j
+@Service
+public class BalanceHistoryService {
+
+    private static final Timestamp OPENING = Timestamp.valueOf("1970-01-01 00:00:00");
+
+    private static final String SEEK_SQL = """
+            SELECT last_journal_id, mark_xid, balance FROM balance_checkpoints
+            WHERE account_id = ? AND as_of <= ?
+            ORDER BY as_of DESC, mark_xid DESC, last_journal_id DESC
+            LIMIT 1
+            """;
+
+    // Legs the checkpoint does not cover (legs from before tx_xid was recorded are NULL: id decides)
+    private static final String TAIL_SQL = """
+            SELECT COALESCE(SUM(j.amount), 0) FROM journal_entries j
+            JOIN transactions t ON t.id = j.transaction_id
+            WHERE j.account_id = ? AND (j.id > ? OR j.tx_xid >= ?) AND COALESCE(j.created_at, t.created_at) <= ?
+            """;
+
+    // No checkpoint yet: the projection minus every leg written after T, in one MVCC snapshot
+    private static final String FOLD_SQL = """
+            SELECT %s - COALESCE((SELECT SUM(j.amount) FROM journal_entries j
+                                  JOIN transactions t ON t.id = j.transaction_id
+                                  WHERE j.account_id = a.id AND COALESCE(j.created_at, t.created_at) > ?), 0)
+            FROM accounts a WHERE a.id = ?
+            """.formatted(Account.TOTAL_BALANCE_SQL);
+
+    // Accounts with no checkpoint yet: opening row + running balance every N legs (and at the last leg),
+    // over the legs below the mark
+    private static final String BACKFILL_SQL = """
+            INSERT INTO balance_checkpoints (account_id, last_journal_id, mark_xid, balance, as_of)
+            WITH fresh AS (
+                SELECT a.id, %s - COALESCE((SELECT SUM(j.amount) FROM journal_entries j
+                                                   WHERE j.account_id = a.id), 0) AS opening
+                FROM accounts a
+                WHERE mod(abs(hashtext(a.id::text)), ?) = ?
+                  AND NOT EXISTS (SELECT 1 FROM balance_checkpoints c WHERE c.account_id = a.id)
+            ),
+            legs AS (
+                SELECT j.account_id, j.id,
+                       SUM(j.amount) OVER w AS running,
+                       MAX(COALESCE(j.created_at, t.created_at)) OVER w AS as_of,
+                       ROW_NUMBER() OVER w AS n,
+                       COUNT(*) OVER (PARTITION BY j.account_id) AS total
+                FROM journal_entries j
+                JOIN transactions t ON t.id = j.transaction_id
+                JOIN fresh f ON f.id = j.account_id
+                WHERE COALESCE(j.tx_xid, 0) < ?
+                WINDOW w AS (PARTITION BY j.account_id ORDER BY j.id)
+            )
+            SELECT f.id, 0, ?, f.opening, CAST(? AS timestamp) FROM fresh f
+            UNION ALL
+            SELECT l.account_id, l.id, ?, f.opening + l.running, l.as_of
+            FROM legs l JOIN fresh f ON f.id = l.account_id
+            WHERE l.n %% ? = 0 OR l.n = l.total
+            """.formatted(Account.TOTAL_BALANCE_SQL);
+
+    // Accounts that already have checkpoints: one new row covering everything below the new mark. The
+    // latest row (highest mark, then highest id) covers every leg below its own mark, so the new legs are
+    // exactly those between the two marks. as_of never moves backwards: a late leg may be older than
+    // legs the previous row already covers.
+    private static final String EXTEND_SQL = """
+            INSERT INTO balance_checkpoints (account_id, last_journal_id, mark_xid, balance, as_of)
+            SELECT c.account_id, GREATEST(c.last_journal_id, MAX(j.id)), ?, c.balance + SUM(j.amount),
+                   GREATEST(c.as_of, MAX(COALESCE(j.created_at, t.created_at)))
+            FROM (SELECT DISTINCT ON (account_id) account_id, last_journal_id, mark_xid, balance, as_of
+                  FROM balance_checkpoints
+                  WHERE mod(abs(hashtext(account_id::text)), ?) = ?
+                  ORDER BY account_id, mark_xid DESC, last_journal_id DESC) c
+            JOIN journal_entries j ON j.account_id = c.account_id AND j.tx_xid >= c.mark_xid AND j.tx_xid < ?
+            JOIN transactions t ON t.id = j.transaction_id
+            GROUP BY c.account_id, c.last_journal_id, c.balance, c.as_of
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ReplayEngine replayEngine;
+    private final JournalArchive archive;
+    private final int partitions;
+    private final int legsPerCheckpoint;
+    private final boolean backfillOnStartup;
+
+    public BalanceHistoryService(JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 ReplayEngine replayEngine,
+                                 JournalArchive archive,
+                                 @Value("${nexus.ledger.replay.partitions:4}") int partitions,
+                                 @Value("${nexus.ledger.history.legs-per-checkpoint:500}") int legsPerCheckpoint,
+                                 @Value("${nexus.ledger.history.backfill-on-startup:true}") boolean backfillOnStartup) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.replayEngine = replayEngine;
+        this.archive = archive;
+        this.partitions = partitions;
+        this.legsPerCheckpoint = legsPerCheckpoint;
+        this.backfillOnStartup = backfillOnStartup;
+    }
+
+    // Empty when the account does not exist
+    public Optional<BigDecimal> balanceAsOf(UUID accountId, LocalDateTime asOf) {
+        Timestamp at = Timestamp.valueOf(asOf);
+
+        // 1. Seek: last checkpoint at or before T
+        List<Map<String, Object>> checkpoint = jdbcTemplate.queryForList(SEEK_SQL, accountId, at);
+        if (checkpoint.isEmpty()) {
+            return fold(accountId, asOf);
+        }
+        long lastJournalId = ((Number) checkpoint.get(0).get("last_journal_id")).longValue();
+        long markXid = ((Number) checkpoint.get(0).get("mark_xid")).longValue();
+        BigDecimal balance = (BigDecimal) checkpoint.get(0).get("balance");
+
+        // 2. Tail: uncovered legs up to T, from the live journal and the archive
+        BigDecimal tail = jdbcTemplate.queryForObject(TAIL_SQL, BigDecimal.class, accountId, lastJournalId, markXid, at);
+        return Optional.of(balance.add(tail).add(archive.sumAfter(accountId, lastJournalId, markXid, asOf)));
+    }
+
+    // Not backfilled yet (a new account, or the startup backfill still running): walk back from the projection
+    private Optional<BigDecimal> fold(UUID accountId, LocalDateTime asOf) {
+        List<BigDecimal> projected = jdbcTemplate.queryForList(FOLD_SQL, BigDecimal.class, Timestamp.valueOf(asOf), accountId);
+        if (projected.isEmpty()) return Optional.empty();
+        return Optional.of(projected.get(0).subtract(archive.sumCreatedAfter(accountId, asOf)));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (!backfillOnStartup) return;
+        Thread.ofPlatform().name("balance-history-backfill").daemon().start(() -> {
+            try {
+                backfill();
+            } catch (RuntimeException e) {
+                log.error("Balance history backfill failed: {}", e.getMessage());
+            }
+        });
+    }
+
+    // Checkpoints for every account that has none, from its whole journal history
+    public synchronized int backfill() {
+        long mark = replayEngine.commitMark();
+        int rows = inPartitions(p -> jdbcTemplate.update(BACKFILL_SQL,
+                partitions, p, mark, mark, OPENING, mark, legsPerCheckpoint));
+        log.info("Backfilled {} balance checkpoints at transaction id {}", rows, mark);
+        return rows;
+    }
+
+    // Rolls every account forward to the commit mark; new accounts get their opening row here too
+    @Scheduled(fixedDelayString = "${nexus.ledger.history.checkpoint-interval-ms:60000}",
+            initialDelayString = "${nexus.ledger.history.checkpoint-interval-ms:60000}")
+    public synchronized void checkpoint() {
+        long mark = replayEngine.commitMark();
+        int extended = inPartitions(p -> jdbcTemplate.update(EXTEND_SQL, mark, partitions, p, mark));
+        int created = inPartitions(p -> jdbcTemplate.update(BACKFILL_SQL,
+                partitions, p, mark, mark, OPENING, mark, legsPerCheckpoint));
+        log.info("Balance checkpoints at transaction id {}: {} extended, {} new", mark, extended, created);
+    }
+
+    // One worker and one transaction per hash partition; partitions never share an account
+    private int inPartitions(IntFunction<Integer> work) {
+        try (ExecutorService pool = Executors.newFixedThreadPool(partitions)) {
+            List<Future<Integer>> parts = new ArrayList<>(partitions);
+            for (int p = 0; p < partitions; p++) {
+                int partition = p;
+                parts.add(pool.submit(() -> transactionTemplate.execute(status -> work.apply(partition))));
+            }
+            int rows = 0;
+            for (Future<Integer> part : parts) {
+                rows += part.get();
+            }
+            return rows;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Balance checkpointing interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Balance checkpointing failed", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.nexus_ledger.nexusLedger.service.replay;
+
+import com.nexus_ledger.nexusLedger.module.Account;
+import com.nexus_ledger.nexusLedger.service.archive.JournalArchive;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Event-sourced view of account state: balances are rebuilt by folding journal_entries per account
+ * on top of the latest per-account snapshot, so a cold start or an audit only reads the snapshot
+ * table plus the journal tail written since its high-water mark.
+ *
+ * The journal is streamed over JDBC cursors (fetch size, no entity loading) and the fold runs in
+ * parallel, one worker per hash partition of account_id. Legs older than the snapshots may already
+ * have been moved to the {@link JournalArchive}; they are folded from there.
+ *
+ * Watermarks are transaction ids (journal_entries.tx_xid, see {@link #commitMark}), not journal ids:
+ * ids are drawn before commit and in pooled blocks per instance, so a leg can commit long after a
+ * higher id. A snapshot covers exactly the legs with tx_xid below its mark, and nothing can commit
+ * below a mark once it has been taken.
+ */
+@Slf4j
+@Service
+public class ReplayEngine {
+
+    private static final String TAIL_SQL = """
+            SELECT account_id, amount, tx_xid FROM journal_entries
+            WHERE tx_xid >= ? AND tx_xid < ? AND mod(abs(hashtext(account_id::text)), ?) = ?
+            """;
+
+    // Accounts that have never been snapshotted are seeded from the accounts projection, backing out
+    // journal rows at or past the mark (legs from before tx_xid was recorded are NULL: always covered). The projection is updated in the same commit as the journal, and this
+    // is a single statement, so both sides come from the same MVCC snapshot.
+    private static final String BOOTSTRAP_SQL = """
+            SELECT a.id, %s - COALESCE(SUM(j.amount), 0) AS balance
+            FROM accounts a
+            LEFT JOIN journal_entries j ON j.account_id = a.id AND j.tx_xid >= ?
+            WHERE NOT EXISTS (SELECT 1 FROM account_snapshots s WHERE s.account_id = a.id)
+            GROUP BY a.id, a.balance
+            """.formatted(Account.TOTAL_BALANCE_SQL);
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO account_snapshots (account_id, balance, mark_xid, taken_at) VALUES (?, ?, ?, ?)
+            ON CONFLICT (account_id) DO UPDATE
+            SET balance = EXCLUDED.balance, mark_xid = EXCLUDED.mark_xid, taken_at = EXCLUDED.taken_at
+            """;
+
+    public record Snapshot(BigDecimal balance, long markXid) { }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTx;
+    private final JournalArchive archive;
+    private final int partitions;
+    private final int fetchSize;
+
+    public ReplayEngine(JdbcTemplate jdbcTemplate,
+                        PlatformTransactionManager transactionManager,
+                        JournalArchive archive,
+                        @Value("${nexus.ledger.replay.partitions:4}") int partitions,
+                        @Value("${nexus.ledger.replay.fetch-size:5000}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true); // PostgreSQL only honours the fetch size inside a transaction
+        this.archive = archive;
+        this.partitions = partitions;
+        this.fetchSize = fetchSize;
+    }
+
+    // Current balance of every snapshotted account: snapshot + journal tail.
+    // Accounts without a snapshot yet are absent from the result.
+    public Map<UUID, BigDecimal> rebuild() {
+        Map<UUID, Snapshot> snapshots = loadSnapshots();
+        Map<UUID, BigDecimal> balances = fold(snapshots, Long.MAX_VALUE); // Everything committed so far
+        log.info("Replayed {} accounts", balances.size());
+        return balances;
+    }
+
+    // Periodically rolls every snapshot forward to the current commit mark
+    @Scheduled(fixedDelayString = "${nexus.ledger.replay.snapshot-interval-ms:300000}",
+            initialDelayString = "${nexus.ledger.replay.snapshot-interval-ms:300000}")
+    public void takeSnapshots() {
+        long mark = commitMark();
+        Map<UUID, Snapshot> snapshots = loadSnapshots();
+
+        Map<UUID, BigDecimal> balances = fold(snapshots, mark);
+        jdbcTemplate.query(BOOTSTRAP_SQL,
+                rs -> { balances.put(rs.getObject("id", UUID.class), rs.getBigDecimal("balance")); },
+                mark);
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(balances.size());
+        balances.forEach((accountId, balance) -> {
+            Snapshot previous = snapshots.get(accountId);
+            // Never move a mark backwards, or the tail between the two marks would be folded twice
+            long markXid = previous == null ? mark : Math.max(mark, previous.markXid());
+            rows.add(new Object[]{accountId, balance, markXid, now});
+        });
+        jdbcTemplate.batchUpdate(UPSERT_SQL, rows);
+
+        log.info("Snapshotted {} accounts at transaction id {}", rows.size(), mark);
+    }
+
+    // The oldest transaction id still running (xmin of a fresh snapshot). Every transaction below it has
+    // committed or aborted, and xids are handed out in increasing order at a transaction's first write, so
+    // whatever commits from now on has tx_xid >= mark. "tx_xid < mark" is therefore a set of legs that is
+    // complete and will never grow, however ids were allocated and whatever order commits happened in.
+    public long commitMark() {
+        return jdbcTemplate.queryForObject("SELECT pg_snapshot_xmin(pg_current_snapshot())::text::bigint", Long.class);
+    }
+
+    private Map<UUID, Snapshot> loadSnapshots() {
+        Map<UUID, Snapshot> snapshots = new HashMap<>();
+        jdbcTemplate.query("SELECT account_id, balance, mark_xid FROM account_snapshots", rs -> {
+            snapshots.put(rs.getObject("account_id", UUID.class),
+                    new Snapshot(rs.getBigDecimal("balance"), rs.getLong("mark_xid")));
+        });
+        return snapshots;
+    }
+
+    // Folds the journal tail (from each account's own mark, below upTo) onto its snapshot, one worker per partition
+    private Map<UUID, BigDecimal> fold(Map<UUID, Snapshot> snapshots, long upTo) {
+        Map<UUID, BigDecimal> balances = new HashMap<>();
+        if (snapshots.isEmpty()) return balances;
+
+        long from = snapshots.values().stream().mapToLong(Snapshot::markXid).min().orElse(0);
+
+        try (ExecutorService pool = Executors.newFixedThreadPool(partitions)) {
+            List<Future<Map<UUID, BigDecimal>>> parts = new ArrayList<>(partitions);
+            for (int p = 0; p < partitions; p++) {
+                int partition = p;
+                parts.add(pool.submit(() -> foldPartition(partition, from, upTo, snapshots)));
+            }
+            // Partitions are disjoint by account, so the partial results never overlap
+            for (Future<Map<UUID, BigDecimal>> part : parts) {
+                balances.putAll(part.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Journal replay interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Journal replay failed", e.getCause());
+        }
+
+        // Archived legs past a snapshot's mark (only when snapshots are older than the archived range)
+        archive.forEachLeg(from, upTo, leg -> {
+            Snapshot snapshot = snapshots.get(leg.accountId());
+            if (snapshot != null && leg.txXid() >= snapshot.markXid()) {
+                balances.merge(leg.accountId(), leg.amount(), BigDecimal::add);
+            }
+        });
+
+        snapshots.forEach((accountId, snapshot) -> balances.merge(accountId, snapshot.balance(), BigDecimal::add));
+        return balances;
+    }
+
+    private Map<UUID, BigDecimal> foldPartition(int partition, long from, long upTo, Map<UUID, Snapshot> snapshots) {
+        Map<UUID, BigDecimal> deltas = new HashMap<>();
+        readOnlyTx.executeWithoutResult(status -> jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(TAIL_SQL);
+            ps.setFetchSize(fetchSize);
+            ps.setLong(1, from);
+            ps.setLong(2, upTo);
+            ps.setInt(3, partitions);
+            ps.setInt(4, partition);
+            return ps;
+        }, rs -> {
+            UUID accountId = rs.getObject(1, UUID.class);
+            Snapshot snapshot = snapshots.get(accountId);
+            // Skip accounts without a snapshot and rows already folded into this account's snapshot
+            if (snapshot == null || rs.getLong(3) < snapshot.markXid()) return;
+            deltas.merge(accountId, rs.getBigDecimal(2), BigDecimal::add);
+        }));
+        return deltas;
+    }
+}
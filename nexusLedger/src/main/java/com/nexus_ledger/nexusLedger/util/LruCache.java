@@ -0,0 +1,47 @@
+package com.nexus_ledger.nexusLedger.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Small bounded, thread-safe LRU map. Once {@code maxSize} entries are held, inserting a new key
+ * evicts the least recently accessed one.
+ */
+public class LruCache<K, V> {
+
+    private final LinkedHashMap<K, V> map;
+    private long evictions;
+
+    public LruCache(int maxSize) {
+        this.map = new LinkedHashMap<>(16, 0.75f, true) { // access order = LRU
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                if (size() > maxSize) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public synchronized V get(K key) {
+        return map.get(key);
+    }
+
+    public synchronized void put(K key, V value) {
+        map.put(key, value);
+    }
+
+    public synchronized V remove(K key) {
+        return map.remove(key);
+    }
+
+    public synchronized int size() {
+        return map.size();
+    }
+
+    public synchronized long evictions() {
+        return evictions;
+    }
+}
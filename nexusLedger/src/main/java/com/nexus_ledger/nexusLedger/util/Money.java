@@ -0,0 +1,84 @@
+package com.nexus_ledger.nexusLedger.util;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+import java.util.Objects;
+
+/**
+ * Fixed-point money: a long count of the currency's minor units (cents for USD, yen for JPY, fils for
+ * BHD) plus its ISO 4217 code. Arithmetic is exact and overflow-checked, and none of it allocates
+ * beyond the result, unlike BigDecimal where every add, negate and compare goes through objects.
+ *
+ * Hot loops use the static helpers on bare longs; BigDecimal only appears at the JPA/JSON boundary,
+ * where toMinor/toDecimal convert exactly (toMinor throws ArithmeticException rather than round).
+ */
+public record Money(long minor, String currency) implements Comparable<Money> {
+
+    public Money {
+        Objects.requireNonNull(currency, "currency");
+    }
+
+    public static Money of(BigDecimal amount, String currency) {
+        return new Money(toMinor(amount, currency), currency);
+    }
+
+    public static Money zero(String currency) {
+        return new Money(0, currency);
+    }
+
+    // Minor-unit digits of an ISO 4217 code (2 for USD, 0 for JPY, 3 for BHD)
+    public static int fractionDigits(String currency) {
+        return Math.max(Currency.getInstance(currency).getDefaultFractionDigits(), 0);
+    }
+
+    // Whether toMinor would accept it: 12.50 USD yes, 12.505 USD and 12.5 JPY no
+    public static boolean fitsMinorUnit(BigDecimal amount, String currency) {
+        return amount.stripTrailingZeros().scale() <= fractionDigits(currency);
+    }
+
+    // Exact: 12.5 USD -> 1250, 12.505 USD -> ArithmeticException
+    public static long toMinor(BigDecimal amount, String currency) {
+        return amount.movePointRight(fractionDigits(currency)).longValueExact();
+    }
+
+    public static BigDecimal toDecimal(long minor, String currency) {
+        return BigDecimal.valueOf(minor, fractionDigits(currency));
+    }
+
+    public BigDecimal toBigDecimal() {
+        return toDecimal(minor, currency);
+    }
+
+    public Money plus(Money other) {
+        return new Money(Math.addExact(minor, sameCurrency(other).minor), currency);
+    }
+
+    public Money minus(Money other) {
+        return new Money(Math.subtractExact(minor, sameCurrency(other).minor), currency);
+    }
+
+    public Money negate() {
+        return new Money(Math.negateExact(minor), currency);
+    }
+
+    public int signum() {
+        return Long.signum(minor);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minor, sameCurrency(other).minor);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString() + " " + currency;
+    }
+
+    private Money sameCurrency(Money other) {
+        if (!currency.equals(other.currency)) {
+            throw new IllegalArgumentException("Currency mismatch: " + currency + " vs " + other.currency);
+        }
+        return other;
+    }
+}
@@ -0,0 +1,50 @@
+package com.nexus_ledger.nexusLedger.util;
+
+import java.math.BigDecimal;
+
+/**
+ * A running balance in minor units, updated in place: one object per account for the whole batch or
+ * engine lifetime instead of a new BigDecimal per add. Not thread-safe; owned by one loop or thread.
+ */
+public final class MoneyTally {
+
+    private final String currency;
+    private long minor;
+
+    public MoneyTally(String currency, long minor) {
+        this.currency = currency;
+        this.minor = minor;
+    }
+
+    public static MoneyTally of(BigDecimal amount, String currency) {
+        return new MoneyTally(currency, Money.toMinor(amount, currency));
+    }
+
+    public String currency() {
+        return currency;
+    }
+
+    public long minor() {
+        return minor;
+    }
+
+    public boolean covers(long amountMinor) {
+        return minor >= amountMinor;
+    }
+
+    public void add(long amountMinor) {
+        minor = Math.addExact(minor, amountMinor);
+    }
+
+    public void subtract(long amountMinor) {
+        minor = Math.subtractExact(minor, amountMinor);
+    }
+
+    public BigDecimal toBigDecimal() {
+        return Money.toDecimal(minor, currency);
+    }
+
+    public Money toMoney() {
+        return new Money(minor, currency);
+    }
+}
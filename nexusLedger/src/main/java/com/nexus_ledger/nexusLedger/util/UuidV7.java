@@ -0,0 +1,41 @@
+package com.nexus_ledger.nexusLedger.util;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+
+/**
+ * Time-ordered UUIDs (RFC 9562 version 7): 48-bit Unix milliseconds, then a 12-bit counter that keeps
+ * ids generated in the same millisecond strictly increasing within this JVM, then 62 random bits.
+ * New keys land at the right-hand edge of a B-tree index instead of on a random leaf page.
+ */
+public final class UuidV7 {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private static long lastMillis = -1;
+    private static int counter;
+
+    private UuidV7() { }
+
+    public static UUID next() {
+        long millis;
+        int sequence;
+        synchronized (UuidV7.class) {
+            long now = System.currentTimeMillis();
+            if (now > lastMillis) {
+                lastMillis = now;
+                counter = RANDOM.nextInt(1 << 11); // Random start, leaving headroom before overflow
+            } else if (++counter > 0xFFF) {
+                // Counter exhausted (or clock went back): borrow the next millisecond
+                lastMillis++;
+                counter = 0;
+            }
+            millis = lastMillis;
+            sequence = counter;
+        }
+
+        long msb = (millis << 16) | 0x7000L | sequence;
+        long lsb = (RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L; // IETF variant
+        return new UUID(msb, lsb);
+    }
+}
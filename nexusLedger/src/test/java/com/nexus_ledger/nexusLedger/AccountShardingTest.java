@@ -0,0 +1,137 @@
+package com.nexus_ledger.nexusLedger;
+
+import com.nexus_ledger.nexusLedger.repository.AccountRepository;
+import com.nexus_ledger.nexusLedger.service.AccountSharding;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+public class AccountShardingTest {
+
+    @Autowired private AccountSharding sharding;
+    @Autowired private AccountRepository accountRepo;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private TransactionTemplate transactionTemplate;
+
+    @Test
+    void testShardedCreditsLandOnTheSlots() {
+        UUID id = TestAccounts.create(jdbcTemplate, "0.00", "USD");
+        sharding.shard(id, 4);
+
+        for (int i = 0; i < 8; i++) assertEquals(1, updateBalance(id, "25.00"));
+
+        assertEquals(0, new BigDecimal("200.00").compareTo(TestAccounts.balance(jdbcTemplate, id)));
+        assertEquals(0, BigDecimal.ZERO.compareTo(row(id)));
+    }
+
+    @Test
+    void testShardedDebitsTakeOneSlotThenDrainAcrossThem() {
+        UUID id = TestAccounts.create(jdbcTemplate, "400.00", "USD");
+        sharding.shard(id, 4);
+
+        // 1. 100 per slot: one slot covers 50, and the balance handed back is the account's, not the slot's
+        assertEquals(0, new BigDecimal("350.00").compareTo(debitIfFunded(id, "50.00").orElseThrow()));
+        assertEquals(0, new BigDecimal("350.00").compareTo(TestAccounts.balance(jdbcTemplate, id)));
+
+        // 2. No slot covers 250, the account does
+        assertEquals(0, new BigDecimal("100.00").compareTo(debitIfFunded(id, "250.00").orElseThrow()));
+        assertEquals(0, new BigDecimal("100.00").compareTo(TestAccounts.balance(jdbcTemplate, id)));
+        assertNoNegativeBalances(id);
+
+        // 3. Nothing covers 500: no change
+        assertTrue(debitIfFunded(id, "500.00").isEmpty());
+        assertEquals(0, new BigDecimal("100.00").compareTo(TestAccounts.balance(jdbcTemplate, id)));
+    }
+
+    @Test
+    void testPlainDebitReturnsTheBalanceItLeft() {
+        UUID id = TestAccounts.create(jdbcTemplate, "100.00", "USD");
+
+        assertEquals(0, new BigDecimal("60.00").compareTo(debitIfFunded(id, "40.00").orElseThrow()));
+        assertTrue(debitIfFunded(id, "60.01").isEmpty());
+        assertTrue(debitIfFunded(UUID.randomUUID(), "1.00").isEmpty());
+        assertEquals(0, new BigDecimal("60.00").compareTo(row(id)));
+    }
+
+    @Test
+    void testAccountShardedByAnotherInstanceIsDebitedFromItsSlots() {
+        UUID id = TestAccounts.create(jdbcTemplate, "0.00", "USD");
+        shardBehindOurBack(id, "100.00", "100.00", "100.00", "100.00");
+        assertEquals(0, sharding.slotsOf(id));
+
+        // 1. The emptied row alone can't cover it, the slots can
+        assertEquals(0, new BigDecimal("250.00").compareTo(debitIfFunded(id, "150.00").orElseThrow()));
+        assertEquals(0, new BigDecimal("250.00").compareTo(TestAccounts.balance(jdbcTemplate, id)));
+        assertEquals(4, sharding.slotsOf(id));
+
+        // 2. Credits go to the slots from now on
+        assertEquals(1, updateBalance(id, "10.00"));
+        assertEquals(0, BigDecimal.ZERO.compareTo(row(id)));
+        assertNoNegativeBalances(id);
+    }
+
+    @Test
+    void testNettedDebitLargerThanAnySlotNeverTakesASlotNegative() {
+        UUID id = TestAccounts.create(jdbcTemplate, "400.00", "USD");
+        sharding.shard(id, 4);
+
+        assertEquals(1, updateBalance(id, "-250.00"));
+
+        assertEquals(0, new BigDecimal("150.00").compareTo(TestAccounts.balance(jdbcTemplate, id)));
+        assertNoNegativeBalances(id);
+    }
+
+    @Test
+    void testRebalanceEvensSkewedSlotsOfAccountsShardedElsewhere() {
+        UUID id = TestAccounts.create(jdbcTemplate, "0.00", "USD");
+        shardBehindOurBack(id, "400.00", "0.00", "0.00", "0.00");
+
+        sharding.rebalance();
+
+        assertEquals(4, sharding.slotsOf(id));
+        for (BigDecimal slot : slots(id)) assertEquals(0, new BigDecimal("100.00").compareTo(slot));
+        assertEquals(0, new BigDecimal("400.00").compareTo(TestAccounts.balance(jdbcTemplate, id)));
+    }
+
+    private int updateBalance(UUID id, String amount) {
+        return transactionTemplate.execute(status -> accountRepo.updateBalance(id, new BigDecimal(amount)));
+    }
+
+    private Optional<BigDecimal> debitIfFunded(UUID id, String amount) {
+        return transactionTemplate.execute(status -> accountRepo.debitIfFunded(id, new BigDecimal(amount)));
+    }
+
+    // What AccountSharding.shard does on another instance: this one's shard map never hears of it
+    private void shardBehindOurBack(UUID id, String... slotBalances) {
+        List<Object[]> rows = new ArrayList<>();
+        for (int slot = 0; slot < slotBalances.length; slot++) rows.add(new Object[]{id, slot, new BigDecimal(slotBalances[slot])});
+        jdbcTemplate.batchUpdate("INSERT INTO account_slots (account_id, slot, balance) VALUES (?, ?, ?)", rows);
+        jdbcTemplate.update("UPDATE accounts SET balance = 0, slot_count = ? WHERE id = ?", slotBalances.length, id);
+    }
+
+    private void assertNoNegativeBalances(UUID id) {
+        assertTrue(row(id).signum() >= 0, "row");
+        for (BigDecimal slot : slots(id)) assertTrue(slot.signum() >= 0, "slot " + slot);
+    }
+
+    private BigDecimal row(UUID id) {
+        return jdbcTemplate.queryForObject("SELECT balance FROM accounts WHERE id = ?", BigDecimal.class, id);
+    }
+
+    private List<BigDecimal> slots(UUID id) {
+        return jdbcTemplate.queryForList(
+                "SELECT balance FROM account_slots WHERE account_id = ? ORDER BY slot", BigDecimal.class, id);
+    }
+}
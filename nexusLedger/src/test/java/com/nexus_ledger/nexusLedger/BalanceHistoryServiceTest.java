@@ -0,0 +1,127 @@
+package com.nexus_ledger.nexusLedger;
+
+import com.nexus_ledger.nexusLedger.module.JournalEntry;
+import com.nexus_ledger.nexusLedger.service.replay.BalanceHistoryService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+public class BalanceHistoryServiceTest {
+
+    private static final LocalDateTime T1 = LocalDateTime.of(2026, 1, 10, 9, 0);
+    private static final LocalDateTime T2 = LocalDateTime.of(2026, 1, 20, 9, 0);
+    private static final LocalDateTime T3 = LocalDateTime.of(2026, 2, 5, 9, 0);
+    private static final LocalDateTime T4 = LocalDateTime.of(2026, 2, 15, 9, 0);
+
+    @Autowired private BalanceHistoryService balanceHistoryService;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private DataSource dataSource;
+
+    @Test
+    void testBackfillExtendAndSeekAgainstAKnownJournal() {
+        // 1. Opening balance 100, then +10, +20, -5
+        UUID account = TestAccounts.create(jdbcTemplate, "100.00", "USD");
+        post(account, "10.00", T1);
+        post(account, "20.00", T2);
+        post(account, "-5.00", T3);
+
+        // 2. No checkpoint yet: answered by folding the journal back from the projection
+        assertBalance("100.00", account, T1.minusDays(1));
+        assertBalance("130.00", account, T2);
+        assertBalance("125.00", account, T3.plusDays(1));
+
+        // 3. BACKFILL, then the same answers from a seek + tail
+        balanceHistoryService.backfill();
+        assertBalance("100.00", account, T1.minusDays(1));
+        assertBalance("110.00", account, T1);
+        assertBalance("130.00", account, T2.plusHours(1));
+        assertBalance("125.00", account, T3.plusDays(1));
+
+        // 4. EXTEND covers a new leg; history before it is unchanged
+        post(account, "40.00", T4);
+        balanceHistoryService.checkpoint();
+        assertBalance("165.00", account, T4);
+        assertBalance("125.00", account, T4.minusSeconds(1));
+        assertBalance("110.00", account, T1.plusDays(1));
+    }
+
+    @Test
+    void testLegCommittedAfterACheckpointIsCountedOnce() throws Exception {
+        UUID account = TestAccounts.create(jdbcTemplate, "50.00", "USD");
+        balanceHistoryService.backfill();
+
+        try (Connection slow = dataSource.getConnection()) {
+            // 1. A leg stays uncommitted across a checkpoint...
+            slow.setAutoCommit(false);
+            post(slow, account, "25.00", T1);
+            balanceHistoryService.checkpoint();
+            assertBalance("50.00", account, T3);
+
+            slow.commit();
+        }
+
+        // 2. ...and is in the tail until the next checkpoint takes it in, exactly once
+        assertBalance("75.00", account, T3);
+        balanceHistoryService.checkpoint();
+        assertBalance("75.00", account, T3);
+        assertBalance("50.00", account, T1.minusDays(1));
+    }
+
+    @Test
+    void testUnknownAccountHasNoBalance() {
+        assertTrue(balanceHistoryService.balanceAsOf(UUID.randomUUID(), T1).isEmpty());
+    }
+
+    private void assertBalance(String expected, UUID account, LocalDateTime asOf) {
+        Optional<BigDecimal> balance = balanceHistoryService.balanceAsOf(account, asOf);
+        assertTrue(balance.isPresent());
+        assertEquals(0, new BigDecimal(expected).compareTo(balance.get()), "balance as of " + asOf);
+    }
+
+    private void post(UUID account, String amount, LocalDateTime at) {
+        try (Connection connection = dataSource.getConnection()) {
+            post(connection, account, amount, at);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    // One leg against nowhere, with the projection moved in the same transaction
+    private static void post(Connection connection, UUID account, String amount, LocalDateTime at) throws Exception {
+        UUID txId = UUID.randomUUID();
+        try (PreparedStatement header = connection.prepareStatement(
+                "INSERT INTO transactions (id, description, reference_id, created_at) VALUES (?, 'TEST', ?, ?)");
+             PreparedStatement leg = connection.prepareStatement(
+                     "INSERT INTO journal_entries (id, transaction_id, account_id, amount, created_at) "
+                             + "VALUES (nextval('" + JournalEntry.ID_SEQUENCE + "'), ?, ?, ?, ?)");
+             PreparedStatement projection = connection.prepareStatement(
+                     "UPDATE accounts SET balance = balance + ? WHERE id = ?")) {
+            header.setObject(1, txId);
+            header.setString(2, "TEST-" + txId);
+            header.setTimestamp(3, Timestamp.valueOf(at));
+            header.executeUpdate();
+            leg.setObject(1, txId);
+            leg.setObject(2, account);
+            leg.setBigDecimal(3, new BigDecimal(amount));
+            leg.setTimestamp(4, Timestamp.valueOf(at));
+            leg.executeUpdate();
+            projection.setBigDecimal(1, new BigDecimal(amount));
+            projection.setObject(2, account);
+            projection.executeUpdate();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.nexus_ledger.nexusLedger;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nexus_ledger.nexusLedger.service.push.BalancePushAggregator;
+import com.nexus_ledger.nexusLedger.service.push.BalanceUpdate;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class BalancePushAggregatorTest {
+
+    @Test
+    void testBurstIsCoalescedToLatestBalance() throws Exception {
+        // 1. Capture what would reach the broker (window never fires on its own: flushed by hand below)
+        List<Message<?>> sent = new ArrayList<>();
+        SimpMessagingTemplate template = new SimpMessagingTemplate((message, timeout) -> sent.add(message));
+        template.setMessageConverter(new MappingJackson2MessageConverter());
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        BalancePushAggregator aggregator = new BalancePushAggregator(template, registry, true, 60_000, 1000, false);
+
+        // 2. A burst of 100 transfers, the last one a fraud block (no balance)
+        UUID account = UUID.randomUUID();
+        for (int i = 1; i < 100; i++) {
+            aggregator.publish(account, "SUCCESS", BigDecimal.ONE, BigDecimal.valueOf(1000 - i));
+        }
+        aggregator.publish(account, "FRAUD", BigDecimal.TEN, null);
+        aggregator.flush();
+
+        // 3. One message: latest status, last known balance
+        assertEquals(1, sent.size());
+        assertEquals(99, registry.get("ledger.ws.push.coalesced").counter().count());
+        BalanceUpdate update = new ObjectMapper().readValue((byte[]) sent.get(0).getPayload(), BalanceUpdate.class);
+        assertEquals("FRAUD", update.status());
+        assertEquals(0, new BigDecimal("901").compareTo(update.newBalance()));
+        assertEquals(100, update.coalesced());
+    }
+}
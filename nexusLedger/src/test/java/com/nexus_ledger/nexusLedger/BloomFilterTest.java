@@ -0,0 +1,34 @@
+package com.nexus_ledger.nexusLedger;
+
+import com.nexus_ledger.nexusLedger.util.BloomFilter;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BloomFilterTest {
+
+    @Test
+    void testNoFalseNegativesAndBoundedFalsePositives() {
+        BloomFilter filter = new BloomFilter(50_000, 0.01);
+
+        // 1. Every stored key must be reported (a miss would let a duplicate transfer through)
+        String[] stored = new String[50_000];
+        for (int i = 0; i < stored.length; i++) {
+            stored[i] = UUID.randomUUID().toString();
+            filter.put(stored[i]);
+        }
+        for (String key : stored) {
+            assertTrue(filter.mightContain(key));
+        }
+
+        // 2. Unseen keys should mostly be ruled out
+        int falsePositives = 0;
+        for (int i = 0; i < 50_000; i++) {
+            if (filter.mightContain(UUID.randomUUID().toString())) falsePositives++;
+        }
+        System.out.println("False positive rate: " + falsePositives / 50_000.0);
+        assertTrue(falsePositives < 50_000 * 0.02, "false positive rate too high: " + falsePositives);
+    }
+}
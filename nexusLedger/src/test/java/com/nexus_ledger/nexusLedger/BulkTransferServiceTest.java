@@ -0,0 +1,146 @@
+package com.nexus_ledger.nexusLedger;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nexus_ledger.nexusLedger.dto.TransferCommand;
+import com.nexus_ledger.nexusLedger.kafkaTransaction.TransactionProducer;
+import com.nexus_ledger.nexusLedger.service.BulkTransferService;
+import com.nexus_ledger.nexusLedger.service.IdempotencyIndex;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+public class BulkTransferServiceTest {
+
+    private static final int ITEMS = 10;
+    private static final int CHUNK = 4;
+
+    @Autowired private IdempotencyIndex idempotencyIndex;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired private ObjectMapper objectMapper;
+
+    @Test
+    void testPartialKafkaFailureAcceptsOnlyTheAckedItems() throws Exception {
+        FlakyProducer producer = new FlakyProducer(2);
+        BulkTransferService bulk = new BulkTransferService(producer, idempotencyIndex, jdbcTemplate,
+                transactionManager, objectMapper, CHUNK, 1_000);
+        UUID jobId = UUID.randomUUID();
+        UUID accountId = UUID.randomUUID();
+
+        // 1. The third record of every chunk is refused by the "broker"
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < ITEMS; i++) {
+            body.append("{\"idempotencyKey\":\"").append(key(jobId, i)).append("\",\"toId\":\"")
+                    .append(UUID.randomUUID()).append("\",\"amount\":10.00}\n");
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        bulk.submit(jobId, accountId, "USD", new ByteArrayInputStream(body.toString().getBytes(StandardCharsets.UTF_8)), out);
+
+        // 2. Streamed lines report each record's own outcome
+        Map<String, String> reported = new HashMap<>();
+        JsonNode summary = null;
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            JsonNode node = objectMapper.readTree(line);
+            if (node.has("idempotencyKey")) reported.put(node.get("idempotencyKey").asText(), node.get("status").asText());
+            else summary = node;
+        }
+        int refused = 0;
+        for (int i = 0; i < ITEMS; i++) {
+            String expected = producer.refused.contains(key(jobId, i)) ? BulkTransferService.REJECTED : BulkTransferService.ACCEPTED;
+            assertEquals(expected, reported.get(key(jobId, i)), "item " + i);
+            if (expected.equals(BulkTransferService.REJECTED)) refused++;
+        }
+        assertTrue(refused > 0);
+        assertEquals(ITEMS - refused, summary.get("accepted").asInt());
+        assertEquals(refused, summary.get("rejected").asInt());
+
+        // 3. The stored job agrees, so a resubmission only needs the refused items
+        Map<String, String> stored = new HashMap<>();
+        jdbcTemplate.query("SELECT idempotency_key, status FROM bulk_job_items WHERE job_id = ?",
+                rs -> { stored.put(rs.getString(1), rs.getString(2)); }, jobId);
+        assertEquals(reported, stored);
+
+        // 4. No DB transaction was held open while waiting for acks
+        assertFalse(producer.calledInTransaction);
+    }
+
+    @Test
+    void testItemsAreReadInTheAccountsCurrencyAndOthersRejectedAtIntake() throws Exception {
+        FlakyProducer producer = new FlakyProducer(-1);
+        BulkTransferService bulk = new BulkTransferService(producer, idempotencyIndex, jdbcTemplate,
+                transactionManager, objectMapper, CHUNK, 1_000);
+        UUID jobId = UUID.randomUUID();
+        UUID accountId = UUID.randomUUID();
+
+        // 1. A JPY account: no currency, JPY stated after the amount, an amount finer than a yen, and USD
+        String body = item(jobId, 0, "\"amount\":1500") + item(jobId, 1, "\"amount\":20,\"currency\":\"JPY\"")
+                + item(jobId, 2, "\"amount\":12.50") + item(jobId, 3, "\"amount\":12.50,\"currency\":\"USD\"");
+        bulk.submit(jobId, accountId, "JPY", new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)),
+                new ByteArrayOutputStream());
+
+        // 2. Only the yen amounts go out, converted once; the others never get to the ledger to fail there
+        assertEquals(2, producer.sent.size());
+        assertEquals(new TransferCommand(key(jobId, 0), accountId, producer.sent.get(0).getToId(), 1500, "JPY"),
+                producer.sent.get(0));
+        assertEquals(new TransferCommand(key(jobId, 1), accountId, producer.sent.get(1).getToId(), 20, "JPY"),
+                producer.sent.get(1));
+        for (int rejected : new int[]{2, 3}) {
+            assertEquals(BulkTransferService.REJECTED, jdbcTemplate.queryForObject(
+                    "SELECT status FROM bulk_job_items WHERE idempotency_key = ?", String.class, key(jobId, rejected)));
+        }
+    }
+
+    private static String item(UUID jobId, int index, String fields) {
+        return "{\"idempotencyKey\":\"" + key(jobId, index) + "\",\"toId\":\"" + UUID.randomUUID() + "\"," + fields + "}\n";
+    }
+
+    private static String key(UUID jobId, int index) {
+        return "BULK-" + jobId + "-" + index;
+    }
+
+    // Direct-mode producer whose broker refuses the record at `refuseIndex` of every send (-1: none)
+    private static class FlakyProducer extends TransactionProducer {
+
+        private final int refuseIndex;
+        private final List<String> refused = new ArrayList<>();
+        private final List<TransferCommand> sent = new ArrayList<>();
+        private boolean calledInTransaction;
+
+        FlakyProducer(int refuseIndex) {
+            super(null, null, Optional.empty(), 1_000);
+            this.refuseIndex = refuseIndex;
+        }
+
+        @Override
+        public List<String> sendEach(List<TransferCommand> events) {
+            calledInTransaction |= TransactionSynchronizationManager.isActualTransactionActive();
+            sent.addAll(events);
+            List<String> failures = new ArrayList<>(events.size());
+            for (int i = 0; i < events.size(); i++) {
+                boolean refuse = i == refuseIndex;
+                if (refuse) refused.add(events.get(i).getKey());
+                failures.add(refuse ? "NOT_ENOUGH_REPLICAS" : null);
+            }
+            return failures;
+        }
+    }
+}
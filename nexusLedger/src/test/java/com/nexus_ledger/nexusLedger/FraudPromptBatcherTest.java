@@ -0,0 +1,131 @@
+package com.nexus_ledger.nexusLedger;
+
+import com.nexus_ledger.nexusLedger.service.ai.FraudPromptBatcher;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.Prompt;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FraudPromptBatcherTest {
+
+    private static final int TRANSFERS = 120;
+    private static final int CALLERS = 32;
+
+    // Throughput and latency of the two modes are compared by FraudPromptBatcherBenchmark (benchmarks module)
+    @Test
+    void batchedPromptsCollapseModelCalls() {
+        StubChatModel single = new StubChatModel(false);
+        run(new FraudPromptBatcher(single, true, 1, 0));
+        assertEquals(TRANSFERS, single.calls.get());
+
+        StubChatModel batched = new StubChatModel(false);
+        run(new FraudPromptBatcher(batched, true, 16, 20));
+        assertTrue(batched.calls.get() < TRANSFERS / 2, "Expected batches to collapse model calls, got " + batched.calls);
+    }
+
+    @Test
+    void unparseableReplyFallsBackToOnePromptPerTransfer() {
+        StubChatModel garbled = new StubChatModel(true);
+        run(new FraudPromptBatcher(garbled, true, 8, 20));
+
+        // Every batch costs its failed batched call plus one call per transfer, and verdicts stay correct
+        assertTrue(garbled.calls.get() > TRANSFERS, "Expected per-transfer fallback calls, got " + garbled.calls);
+    }
+
+    @Test
+    void shutdownFailsTransfersStillWaiting() {
+        StubChatModel model = new StubChatModel(false);
+        FraudPromptBatcher batcher = new FraudPromptBatcher(model, true, 16, 20); // Never started: nothing dispatches
+        CompletableFuture<Boolean> waiting = batcher.submit(BigDecimal.TEN, UUID.randomUUID(), null);
+
+        batcher.shutdown();
+
+        assertTrue(waiting.isCompletedExceptionally());
+        assertTrue(batcher.submit(BigDecimal.TEN, UUID.randomUUID(), null).isCompletedExceptionally());
+        assertEquals(0, model.calls.get());
+    }
+
+    // Every verdict must match the stub's rule, whatever batch it was scored in
+    private void run(FraudPromptBatcher batcher) {
+        batcher.start();
+        try (ExecutorService callers = Executors.newFixedThreadPool(CALLERS)) {
+            List<CompletableFuture<Void>> done = new ArrayList<>();
+            for (int i = 0; i < TRANSFERS; i++) {
+                BigDecimal amount = BigDecimal.valueOf(i % 10 == 0 ? 5000 : 250);
+                done.add(CompletableFuture.runAsync(() -> {
+                    boolean fraud = batcher.submit(amount, UUID.randomUUID(), null).join();
+                    assertEquals(amount.compareTo(BigDecimal.valueOf(1000)) > 0, fraud);
+                }, callers));
+            }
+            CompletableFuture.allOf(done.toArray(CompletableFuture[]::new)).join();
+        } finally {
+            batcher.shutdown();
+        }
+    }
+
+    // Local stand-in for Ollama: serves one request at a time with a fixed per-call overhead plus a
+    // small per-transaction cost, and flags anything over $1000
+    private static class StubChatModel implements ChatModel {
+
+        private static final Pattern ITEM = Pattern.compile("(?m)^(\\d+)\\. Account \\S+ is attempting to move \\$(\\S+)\\.$");
+        private static final Pattern SINGLE = Pattern.compile("move \\$(\\S+)\\.");
+
+        private final boolean garbleBatches;
+        private final AtomicInteger calls = new AtomicInteger();
+
+        StubChatModel(boolean garbleBatches) {
+            this.garbleBatches = garbleBatches;
+        }
+
+        @Override
+        public ChatResponse call(Prompt prompt) {
+            throw new UnsupportedOperationException("String prompts only");
+        }
+
+        @Override
+        public synchronized String call(String message) {
+            calls.incrementAndGet();
+            StringBuilder reply = new StringBuilder();
+            int items = 0;
+            Matcher item = ITEM.matcher(message);
+            while (item.find()) {
+                items++;
+                reply.append(item.group(1)).append(": ").append(verdict(item.group(2))).append('\n');
+            }
+            pause(10 + Math.max(items, 1));
+
+            if (items == 0) {
+                Matcher single = SINGLE.matcher(message);
+                single.find();
+                return verdict(single.group(1));
+            }
+            return garbleBatches ? "They all look fine to me." : reply.toString();
+        }
+
+        private static String verdict(String amount) {
+            return new BigDecimal(amount).compareTo(BigDecimal.valueOf(1000)) > 0 ? "FRAUD" : "SAFE";
+        }
+
+        private static void pause(long millis) {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.nexus_ledger.nexusLedger;
+
+import com.nexus_ledger.nexusLedger.dto.TransferCommand;
+import com.nexus_ledger.nexusLedger.service.ai.FraudScoringStage;
+import com.nexus_ledger.nexusLedger.service.ai.FraudSentryService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FraudScoringStageTest {
+
+    private static final TransferCommand CMD = new TransferCommand("TX-1", UUID.randomUUID(), UUID.randomUUID(), 50_000, "USD");
+
+    @Test
+    void testModelOutageIsDecidedByTheFallbackPolicy() {
+        SimpleMeterRegistry meters = new SimpleMeterRegistry();
+        FraudScoringStage block = new FraudScoringStage(offlineModel(meters), meters, true, 4, 1_000,
+                FraudScoringStage.FallbackPolicy.BLOCK);
+        FraudScoringStage allow = new FraudScoringStage(offlineModel(meters), meters, true, 4, 1_000,
+                FraudScoringStage.FallbackPolicy.ALLOW);
+
+        assertTrue(block.score(CMD).join());
+        assertFalse(allow.score(CMD).join());
+        assertEquals(2.0, meters.counter("ledger.fraud.async.fallbacks").count());
+        assertEquals(0.0, meters.counter("ledger.fraud.async.timeouts").count());
+    }
+
+    @Test
+    void testSynchronousPathStaysInSafeMode() {
+        assertFalse(offlineModel(new SimpleMeterRegistry()).isFraudulent(CMD));
+    }
+
+    // Every transfer reaches the LLM tier and the model is down
+    private static FraudSentryService offlineModel(SimpleMeterRegistry meters) {
+        return new FraudSentryService(null, null, null, meters, 16, 1_000) {
+            @Override
+            public Boolean screen(TransferCommand cmd) {
+                return null;
+            }
+        };
+    }
+}
@@ -0,0 +1,50 @@
+package com.nexus_ledger.nexusLedger;
+
+import com.nexus_ledger.nexusLedger.module.FxRate;
+import com.nexus_ledger.nexusLedger.service.fx.FxRateTable;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FxRateTableTest {
+
+    @Test
+    void testConvertsMinorUnitsAcrossDigitCounts() {
+        FxRateTable table = new FxRateTable(null, null, "");
+        table.publish(List.of(
+                new FxRate("USD", "JPY", new BigDecimal("150.123"), null),
+                new FxRate("USD", "BHD", new BigDecimal("0.376"), null)));
+
+        // 1. 10.00 USD -> 1501.23 JPY, rounded to whole yen; -2.50 USD -> -0.940 BHD (fils)
+        assertEquals(1501, table.convert(1000, "USD", "JPY"));
+        assertEquals(-940, table.convert(-250, "USD", "BHD"));
+
+        // 2. Inverse pairs are derived; unlisted crosses are not
+        assertEquals(1000, table.convert(1501, "JPY", "USD"));
+        assertTrue(table.supports("JPY", "USD"));
+        assertFalse(table.supports("JPY", "BHD"));
+        assertThrows(RuntimeException.class, () -> table.convert(1, "JPY", "BHD"));
+
+        // 3. Amounts whose product overflows a long take the exact slow path
+        assertEquals(new BigDecimal(Long.MAX_VALUE / 2).multiply(new BigDecimal("1.50123"))
+                        .setScale(0, RoundingMode.HALF_EVEN).longValueExact(),
+                table.convert(Long.MAX_VALUE / 2, "USD", "JPY"));
+    }
+
+    @Test
+    void testRoundsHalfEven() {
+        FxRateTable table = new FxRateTable(null, null, "");
+        table.publish(List.of(new FxRate("EUR", "USD", new BigDecimal("0.5"), null)));
+
+        assertEquals(2, table.convert(5, "EUR", "USD"));   // 2.5 -> 2
+        assertEquals(4, table.convert(7, "EUR", "USD"));   // 3.5 -> 4
+        assertEquals(-2, table.convert(-5, "EUR", "USD"));
+    }
+}
@@ -0,0 +1,69 @@
+package com.nexus_ledger.nexusLedger;
+
+import com.nexus_ledger.nexusLedger.service.archive.ArchivedLeg;
+import com.nexus_ledger.nexusLedger.service.archive.JournalArchiveFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class JournalArchiveFileTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testRoundTripAndGroupPruning() throws Exception {
+        // 1. 20 accounts x 50 legs, sorted the way the archiver exports them
+        List<UUID> accounts = new ArrayList<>();
+        for (int i = 0; i < 20; i++) accounts.add(UUID.randomUUID());
+        accounts.sort(JournalArchiveFile.UUID_ORDER);
+
+        List<ArchivedLeg> legs = new ArrayList<>();
+        LocalDateTime at = LocalDateTime.of(2025, 1, 1, 0, 0);
+        long id = 1;
+        for (UUID account : accounts) {
+            for (int n = 0; n < 50; n++) {
+                legs.add(new ArchivedLeg(id += 7, 1_000 + id % 13, UUID.randomUUID(), account,
+                        new BigDecimal(n % 2 == 0 ? "-12.34" : "9999999999999999999999.99"),
+                        at.plusSeconds(id).plusNanos(123_000), n % 3 == 0 ? null : "TX-" + n,
+                        n % 5 == 0 ? null : UUID.randomUUID()));
+            }
+        }
+
+        Path file = dir.resolve("journal_entries_p2025_01.nxa");
+        try (JournalArchiveFile.Writer writer = new JournalArchiveFile.Writer(file, 100)) {
+            for (ArchivedLeg leg : legs) writer.append(leg);
+        }
+
+        // 2. Everything comes back exactly, and the footer totals match
+        JournalArchiveFile.Footer footer = JournalArchiveFile.readFooter(file);
+        List<ArchivedLeg> read = new ArrayList<>();
+        JournalArchiveFile.scan(file, footer, group -> true, read::add);
+        assertEquals(legs, read);
+        assertEquals(10, footer.groups().size());
+        assertEquals(0, legs.stream().map(ArchivedLeg::amount).reduce(BigDecimal.ZERO, BigDecimal::add)
+                .compareTo(footer.total()));
+
+        // 3. One account's lookup only inflates the groups that can hold it
+        UUID target = accounts.get(7);
+        int[] groupsRead = {0};
+        List<ArchivedLeg> targetLegs = new ArrayList<>();
+        JournalArchiveFile.scan(file, footer, group -> {
+            if (!group.mayContain(target)) return false;
+            groupsRead[0]++;
+            return true;
+        }, leg -> {
+            if (leg.accountId().equals(target)) targetLegs.add(leg);
+        });
+        assertEquals(50, targetLegs.size());
+        assertEquals(1, groupsRead[0]);
+    }
+}
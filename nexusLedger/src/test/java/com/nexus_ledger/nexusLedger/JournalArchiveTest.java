@@ -0,0 +1,149 @@
+package com.nexus_ledger.nexusLedger;
+
+import com.nexus_ledger.nexusLedger.service.archive.ArchivedLeg;
+import com.nexus_ledger.nexusLedger.service.archive.JournalArchive;
+import com.nexus_ledger.nexusLedger.service.archive.JournalArchiveFile;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "nexus.ledger.archive.dir=" + JournalArchiveTest.DIR)
+public class JournalArchiveTest {
+
+    static final String DIR = "target/journal-archive-test";
+
+    @Autowired private JournalArchive archive;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private DataSource dataSource;
+
+    @Test
+    void testOnlyOneInstanceRunsTheArchiverAtATime() throws Exception {
+        // 1. "Another instance" holds the lock on its own session
+        try (Connection other = dataSource.getConnection()) {
+            lock(other, "SELECT pg_advisory_lock(?)");
+            boolean[] ran = {false};
+            assertFalse(archive.withLock(() -> ran[0] = true));
+            assertFalse(ran[0]);
+            lock(other, "SELECT pg_advisory_unlock(?)");
+        }
+
+        // 2. Released: this one may run
+        assertTrue(archive.withLock(() -> { }));
+    }
+
+    @Test
+    void testPartitionArchivedByAnotherInstanceIsReadFromTheSharedDirectory() throws Exception {
+        String partition = "journal_entries_test_" + UUID.randomUUID().toString().replace("-", "").substring(0, 12);
+        UUID account = UUID.randomUUID();
+        Path file = Path.of(DIR, partition + ".nxa");
+        Files.createDirectories(file.getParent());
+        try {
+            // 1. Published and registered behind this instance's back
+            try (JournalArchiveFile.Writer writer = new JournalArchiveFile.Writer(file, 16)) {
+                writer.append(new ArchivedLeg(42, 7, UUID.randomUUID(), account, new BigDecimal("-5.00"),
+                        LocalDateTime.of(2020, 1, 1, 0, 0), "TX-42", UUID.randomUUID()));
+            }
+            register(partition);
+
+            // 2. The next read loads it
+            List<ArchivedLeg> legs = archive.page(account, Long.MAX_VALUE, 10);
+            assertEquals(1, legs.size());
+            assertEquals(42, legs.get(0).id());
+        } finally {
+            jdbcTemplate.update("DELETE FROM journal_archive_partitions WHERE partition_name = ?", partition);
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void testPagesAreNewestFirstAcrossFiles() throws Exception {
+        UUID account = UUID.randomUUID();
+        UUID other = UUID.randomUUID();
+        List<Path> written = new ArrayList<>();
+        List<String> partitions = new ArrayList<>();
+        try {
+            // 1. Three months of ten legs each (ids 1..30), the other account's legs in between
+            for (int month = 0; month < 3; month++) {
+                String partition = "journal_entries_test_" + UUID.randomUUID().toString().replace("-", "").substring(0, 12);
+                Path file = Path.of(DIR, partition + ".nxa");
+                Files.createDirectories(file.getParent());
+                List<ArchivedLeg> legs = new ArrayList<>();
+                for (int n = 1; n <= 10; n++) {
+                    long id = month * 10L + n;
+                    legs.add(leg(id, account));
+                    legs.add(leg(1_000 + id, other));
+                }
+                legs.sort(Comparator.comparing(ArchivedLeg::accountId, JournalArchiveFile.UUID_ORDER)
+                        .thenComparingLong(ArchivedLeg::id));
+                try (JournalArchiveFile.Writer writer = new JournalArchiveFile.Writer(file, 4)) {
+                    for (ArchivedLeg leg : legs) writer.append(leg);
+                }
+                written.add(file);
+                partitions.add(partition);
+                register(partition);
+            }
+
+            // 2. Within a file, across files, and the last page
+            assertEquals(List.of(24L, 23L, 22L, 21L), ids(archive.page(account, 25, 4)));
+            assertEquals(List.of(21L, 20L, 19L, 18L), ids(archive.page(account, 22, 4)));
+            assertEquals(List.of(2L, 1L), ids(archive.page(account, 3, 10)));
+        } finally {
+            for (String partition : partitions) {
+                jdbcTemplate.update("DELETE FROM journal_archive_partitions WHERE partition_name = ?", partition);
+            }
+            for (Path file : written) Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void testRegisteredFileMissingFromTheDirectoryFailsLoudly() {
+        String partition = "journal_entries_test_" + UUID.randomUUID().toString().replace("-", "").substring(0, 12);
+        try {
+            register(partition);
+            assertThrows(IllegalStateException.class, () -> archive.page(UUID.randomUUID(), Long.MAX_VALUE, 10));
+        } finally {
+            jdbcTemplate.update("DELETE FROM journal_archive_partitions WHERE partition_name = ?", partition);
+        }
+    }
+
+    private static ArchivedLeg leg(long id, UUID account) {
+        return new ArchivedLeg(id, 7, UUID.randomUUID(), account, new BigDecimal("-5.00"),
+                LocalDateTime.of(2020, 1, 1, 0, 0).plusMinutes(id), "TX-" + id, UUID.randomUUID());
+    }
+
+    private static List<Long> ids(List<ArchivedLeg> legs) {
+        return legs.stream().map(ArchivedLeg::id).toList();
+    }
+
+    private void register(String partition) {
+        jdbcTemplate.update("""
+                INSERT INTO journal_archive_partitions (partition_name, legs, total, archived_at)
+                VALUES (?, 1, -5.00, now())
+                """, partition);
+    }
+
+    private static void lock(Connection connection, String sql) throws Exception {
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setLong(1, JournalArchive.LOCK_KEY);
+            ps.executeQuery().close();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.nexus_ledger.nexusLedger;
+
+import com.nexus_ledger.nexusLedger.module.JournalEntry;
+import com.nexus_ledger.nexusLedger.module.Transaction;
+import com.nexus_ledger.nexusLedger.repository.JournalRepository;
+import com.nexus_ledger.nexusLedger.repository.TransactionRepository;
+import com.nexus_ledger.nexusLedger.service.LedgerJdbcWriter;
+import com.nexus_ledger.nexusLedger.service.LedgerService;
+import com.nexus_ledger.nexusLedger.util.UuidV7;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "nexus.ledger.write-path=jdbc")
+public class LedgerJdbcWriterTest {
+
+    @Autowired private LedgerService ledgerService;
+    @Autowired private LedgerJdbcWriter jdbcWriter;
+    @Autowired private JournalRepository journalRepo;
+    @Autowired private TransactionRepository txRepo;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testTransferPostsHeaderAndBothLegsInOneStatement() {
+        assertTrue(jdbcWriter.isEnabled());
+        UUID fromId = TestAccounts.create(jdbcTemplate, "100.00", "USD");
+        UUID toId = TestAccounts.create(jdbcTemplate, "0.00", "USD");
+        String ref = "JDBC-" + UUID.randomUUID();
+
+        ledgerService.executeTransfer(fromId, toId, new BigDecimal("12.34"), "USD", ref);
+
+        // 1. One header for the reference
+        List<Map<String, Object>> headers = jdbcTemplate.queryForList(
+                "SELECT id, description FROM transactions WHERE reference_id = ?", ref);
+        assertEquals(1, headers.size());
+        assertEquals("TRANSFER", headers.get(0).get("description"));
+
+        // 2. Debit and credit under it, stamped with the writing transaction's id
+        Map<UUID, BigDecimal> legs = new HashMap<>();
+        jdbcTemplate.query("SELECT account_id, amount, tx_xid FROM journal_entries WHERE transaction_id = ?", rs -> {
+            legs.put(rs.getObject("account_id", UUID.class), rs.getBigDecimal("amount"));
+            assertNotNull(rs.getObject("tx_xid"));
+        }, headers.get(0).get("id"));
+        assertEquals(2, legs.size());
+        assertEquals(0, new BigDecimal("-12.34").compareTo(legs.get(fromId)));
+        assertEquals(0, new BigDecimal("12.34").compareTo(legs.get(toId)));
+
+        // 3. Projection moved with it
+        assertEquals(0, new BigDecimal("87.66").compareTo(TestAccounts.balance(jdbcTemplate, fromId)));
+        assertEquals(0, new BigDecimal("12.34").compareTo(TestAccounts.balance(jdbcTemplate, toId)));
+    }
+
+    @Test
+    void testJdbcLegIdsNeverFallInsideAHibernateBlock() {
+        Long increment = jdbcTemplate.queryForObject(
+                "SELECT increment_by FROM pg_sequences WHERE sequencename = ?", Long.class, JournalEntry.ID_SEQUENCE);
+        assertEquals(JournalEntry.ID_ALLOCATION_SIZE, increment.intValue());
+
+        UUID fromId = TestAccounts.create(jdbcTemplate, "100.00", "USD");
+        UUID toId = TestAccounts.create(jdbcTemplate, "0.00", "USD");
+
+        // 1. Interleave the pooled JPA generator with the JDBC writer on the same sequence
+        List<Long> jpaIds = transactionTemplate.execute(status -> {
+            Transaction tx = new Transaction();
+            tx.setId(UuidV7.next());
+            tx.setDescription("TEST");
+            tx.setReferenceId("JPA-" + tx.getId());
+            Transaction header = txRepo.save(tx);
+            return journalRepo.saveAll(List.of(
+                            new JournalEntry(null, header, fromId, new BigDecimal("-1.00")),
+                            new JournalEntry(null, header, toId, new BigDecimal("1.00"))))
+                    .stream().map(JournalEntry::getId).toList();
+        });
+        String ref = "JDBC-" + UUID.randomUUID();
+        ledgerService.executeTransfer(fromId, toId, new BigDecimal("1.00"), "USD", ref);
+        List<Long> jdbcIds = jdbcTemplate.queryForList("""
+                SELECT j.id FROM journal_entries j JOIN transactions t ON t.id = j.transaction_id
+                WHERE t.reference_id = ?
+                """, Long.class, ref);
+
+        // 2. Every value the sequence hands out is on one grid of ID_ALLOCATION_SIZE (the migration moved it
+        //    onto its current one), each JDBC leg is one such value, and Hibernate's block for value N is
+        //    (N - ID_ALLOCATION_SIZE, N]. So a JDBC id sits on the grid and outside every JPA block.
+        long step = JournalEntry.ID_ALLOCATION_SIZE;
+        long last = jdbcTemplate.queryForObject("SELECT last_value FROM " + JournalEntry.ID_SEQUENCE, Long.class);
+        assertEquals(2, jdbcIds.size());
+        for (long id : jdbcIds) {
+            assertEquals(0, Math.floorMod(last - id, step), "JDBC leg " + id + " off the sequence grid");
+            for (long jpaId : jpaIds) {
+                long blockTop = jpaId + Math.floorMod(last - jpaId, step);
+                assertFalse(id > blockTop - step && id <= blockTop,
+                        "JDBC leg " + id + " inside the JPA block ending at " + blockTop);
+            }
+        }
+    }
+}
@@ -1,15 +1,32 @@
 package com.nexus_ledger.nexusLedger;
 
+import com.nexus_ledger.nexusLedger.module.FxRate;
 import com.nexus_ledger.nexusLedger.repository.AccountRepository;
 import com.nexus_ledger.nexusLedger.service.LedgerService;
+import com.nexus_ledger.nexusLedger.service.LockRetry;
+import com.nexus_ledger.nexusLedger.service.fx.FxRateTable;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @SpringBootTest
 public class LedgerServiceTest {
@@ -17,6 +34,9 @@ public class LedgerServiceTest {
     @Autowired
     private LedgerService ledgerService;
     @Autowired private AccountRepository accountRepo;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired private FxRateTable fxRates;
 
     @Test
     void testAtomicTransfer() {
@@ -26,11 +46,136 @@ public class LedgerServiceTest {
         // Save these accounts to your DB first with 1000 USD balance
 
         // 2. Try to move 500 USD
-        ledgerService.executeTransfer(fromId, toId, new BigDecimal("500"), "TX-123");
+        ledgerService.executeTransfer(fromId, toId, new BigDecimal("500"), "USD", "TX-123");
 
         // 3. Assert balances
         assertEquals(0, new BigDecimal("500").compareTo(accountRepo.findById(fromId).get().getBalance()));
         assertEquals(0, new BigDecimal("1500").compareTo(accountRepo.findById(toId).get().getBalance()));
     }
 
+    @Test
+    void testOppositeTransfersUnderContentionAllCommit() throws Exception {
+        UUID a = TestAccounts.create(jdbcTemplate, "1000.00", "USD");
+        UUID b = TestAccounts.create(jdbcTemplate, "1000.00", "USD");
+        int perDirection = 100;
+
+        // 1. A->B and B->A hammered at once: canonical lock order means neither side can deadlock the other
+        try (ExecutorService pool = Executors.newFixedThreadPool(8)) {
+            List<CompletableFuture<BigDecimal>> transfers = new ArrayList<>();
+            for (int i = 0; i < perDirection; i++) {
+                String suffix = UUID.randomUUID().toString();
+                transfers.add(CompletableFuture.supplyAsync(
+                        () -> ledgerService.executeTransfer(a, b, new BigDecimal("1.00"), "USD", "AB-" + suffix), pool));
+                transfers.add(CompletableFuture.supplyAsync(
+                        () -> ledgerService.executeTransfer(b, a, new BigDecimal("2.00"), "USD", "BA-" + suffix), pool));
+            }
+            CompletableFuture.allOf(transfers.toArray(CompletableFuture[]::new)).get(60, TimeUnit.SECONDS);
+        }
+
+        // 2. Every transfer landed exactly once
+        assertEquals(0, new BigDecimal("1100.00").compareTo(TestAccounts.balance(jdbcTemplate, a)));
+        assertEquals(0, new BigDecimal("900.00").compareTo(TestAccounts.balance(jdbcTemplate, b)));
+        Integer legs = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM journal_entries WHERE account_id IN (?, ?)", Integer.class, a, b);
+        assertEquals(4 * perDirection, legs);
+    }
+
+    @Test
+    void testDeadlockVictimIsRetriedAndBothCommit() throws Exception {
+        SimpleMeterRegistry meters = new SimpleMeterRegistry();
+        LockRetry lockRetry = new LockRetry(transactionManager, meters, 5, 5, 50);
+        UUID a = TestAccounts.create(jdbcTemplate, "0.00", "USD");
+        UUID b = TestAccounts.create(jdbcTemplate, "0.00", "USD");
+        CountDownLatch bothHoldFirstLock = new CountDownLatch(2);
+        AtomicInteger attempts = new AtomicInteger();
+
+        // 1. Two writers lock the rows in opposite order; PostgreSQL aborts one of them (40P01)
+        try (ExecutorService pool = Executors.newFixedThreadPool(2)) {
+            CompletableFuture<Void> first = CompletableFuture.runAsync(
+                    () -> lockBoth(lockRetry, a, b, bothHoldFirstLock, attempts), pool);
+            CompletableFuture<Void> second = CompletableFuture.runAsync(
+                    () -> lockBoth(lockRetry, b, a, bothHoldFirstLock, attempts), pool);
+            CompletableFuture.allOf(first, second).get(60, TimeUnit.SECONDS);
+        }
+
+        // 2. The victim was re-run in a fresh transaction, so both increments are there
+        assertEquals(0, new BigDecimal("2.00").compareTo(TestAccounts.balance(jdbcTemplate, a)));
+        assertEquals(0, new BigDecimal("2.00").compareTo(TestAccounts.balance(jdbcTemplate, b)));
+        assertEquals(3, attempts.get());
+        assertEquals(1.0, meters.counter("ledger.lock.retries", "result", "retried").count());
+    }
+
+    @Test
+    void testLockFailuresStopAfterMaxAttempts() {
+        SimpleMeterRegistry meters = new SimpleMeterRegistry();
+        LockRetry lockRetry = new LockRetry(transactionManager, meters, 3, 1, 2);
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(PessimisticLockingFailureException.class, () -> lockRetry.inTransaction(() -> {
+            attempts.incrementAndGet();
+            throw new PessimisticLockingFailureException("lock timeout");
+        }));
+        assertEquals(3, attempts.get());
+        assertEquals(1.0, meters.counter("ledger.lock.retries", "result", "exhausted").count());
+    }
+
+    @Test
+    void testFxTransferPostsFourLegsThatBalancePerCurrency() {
+        fxRates.publish(List.of(new FxRate("USD", "JPY", new BigDecimal("150.123"), null)));
+        UUID from = TestAccounts.create(jdbcTemplate, "100.00", "USD");
+        UUID to = TestAccounts.create(jdbcTemplate, "0", "JPY");
+        String ref = "FX-" + UUID.randomUUID();
+
+        ledgerService.executeTransfer(from, to, new BigDecimal("10.01"), "USD", ref);
+
+        // 1. 10.01 USD * 150.123 = 1502.73 JPY, rounded half-even to whole yen
+        assertEquals(0, new BigDecimal("89.99").compareTo(TestAccounts.balance(jdbcTemplate, from)));
+        assertEquals(0, new BigDecimal("1503").compareTo(TestAccounts.balance(jdbcTemplate, to)));
+
+        // 2. Debit, FX in, FX out, credit: each currency's legs cancel out
+        List<Map<String, Object>> legs = jdbcTemplate.queryForList("""
+                SELECT a.currency, COUNT(*) AS legs, SUM(j.amount) AS total
+                FROM journal_entries j JOIN transactions t ON t.id = j.transaction_id JOIN accounts a ON a.id = j.account_id
+                WHERE t.reference_id = ? GROUP BY a.currency ORDER BY a.currency
+                """, ref);
+        assertEquals(2, legs.size());
+        for (Map<String, Object> currency : legs) {
+            assertEquals(2, ((Number) currency.get("legs")).intValue(), currency.get("currency") + " legs");
+            assertEquals(0, ((BigDecimal) currency.get("total")).signum(), currency.get("currency") + " total");
+        }
+    }
+
+    @Test
+    void testTransferInAnotherCurrencyThanTheSendersIsRejected() {
+        UUID from = TestAccounts.create(jdbcTemplate, "1000", "JPY");
+        UUID to = TestAccounts.create(jdbcTemplate, "0", "JPY");
+
+        // 1. 12.50 read as USD, and 12.5 read as yen: neither may move fractional yen
+        assertThrows(RuntimeException.class,
+                () -> ledgerService.executeTransfer(from, to, new BigDecimal("12.50"), "USD", "CCY-" + UUID.randomUUID()));
+        assertThrows(RuntimeException.class,
+                () -> ledgerService.executeTransfer(from, to, new BigDecimal("12.5"), "JPY", "CCY-" + UUID.randomUUID()));
+
+        // 2. Nothing moved
+        assertEquals(0, new BigDecimal("1000").compareTo(TestAccounts.balance(jdbcTemplate, from)));
+        assertEquals(0, BigDecimal.ZERO.compareTo(TestAccounts.balance(jdbcTemplate, to)));
+    }
+
+    // +1 on `first`, then +1 on `second`; the first attempt of each waits until both hold their first lock
+    private void lockBoth(LockRetry lockRetry, UUID first, UUID second, CountDownLatch bothHoldFirstLock,
+                          AtomicInteger attempts) {
+        lockRetry.inTransaction(() -> {
+            attempts.incrementAndGet();
+            jdbcTemplate.update("UPDATE accounts SET balance = balance + 1 WHERE id = ?", first);
+            bothHoldFirstLock.countDown();
+            try {
+                bothHoldFirstLock.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            jdbcTemplate.update("UPDATE accounts SET balance = balance + 1 WHERE id = ?", second);
+            return null;
+        });
+    }
+
 }
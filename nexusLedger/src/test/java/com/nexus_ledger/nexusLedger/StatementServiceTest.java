@@ -0,0 +1,72 @@
+package com.nexus_ledger.nexusLedger;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nexus_ledger.nexusLedger.module.FxRate;
+import com.nexus_ledger.nexusLedger.service.LedgerService;
+import com.nexus_ledger.nexusLedger.service.StatementService;
+import com.nexus_ledger.nexusLedger.service.fx.FxPositions;
+import com.nexus_ledger.nexusLedger.service.fx.FxRateTable;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+public class StatementServiceTest {
+
+    @Autowired private StatementService statementService;
+    @Autowired private LedgerService ledgerService;
+    @Autowired private FxRateTable fxRates;
+    @Autowired private FxPositions fxPositions;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private ObjectMapper objectMapper;
+
+    @Test
+    void testSameCurrencyTransferNamesTheOtherParty() throws Exception {
+        UUID from = TestAccounts.create(jdbcTemplate, "100.00", "USD");
+        UUID to = TestAccounts.create(jdbcTemplate, "0.00", "USD");
+
+        ledgerService.executeTransfer(from, to, new BigDecimal("7.00"), "USD", "STMT-" + UUID.randomUUID());
+
+        assertOnlyEntry(from, "DEBIT", to);
+        assertOnlyEntry(to, "CREDIT", from);
+    }
+
+    @Test
+    void testFxTransferNamesTheOtherPartyNotAPosition() throws Exception {
+        fxRates.publish(List.of(new FxRate("USD", "JPY", new BigDecimal("150.123"), null)));
+        UUID from = TestAccounts.create(jdbcTemplate, "100.00", "USD");
+        UUID to = TestAccounts.create(jdbcTemplate, "0", "JPY");
+
+        ledgerService.executeTransfer(from, to, new BigDecimal("10.01"), "USD", "STMT-" + UUID.randomUUID());
+
+        // Four legs: debit, USD position in, JPY position out, credit. The parties see each other...
+        assertOnlyEntry(from, "DEBIT", to);
+        assertOnlyEntry(to, "CREDIT", from);
+
+        // ...and a position sees the customer whose money it took in
+        JsonNode position = statement(fxPositions.accountFor("USD")).get("entries").get(0);
+        assertEquals(from.toString(), position.get("counterparty").asText());
+    }
+
+    private void assertOnlyEntry(UUID account, String direction, UUID counterparty) throws Exception {
+        JsonNode entries = statement(account).get("entries");
+        assertEquals(1, entries.size());
+        assertEquals(direction, entries.get(0).get("direction").asText());
+        assertEquals(counterparty.toString(), entries.get(0).get("counterparty").asText());
+    }
+
+    private JsonNode statement(UUID account) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        statementService.writePage(account, null, 10, out);
+        return objectMapper.readTree(out.toByteArray());
+    }
+}
@@ -0,0 +1,28 @@
+package com.nexus_ledger.nexusLedger;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+// Fresh accounts for the database-backed tests, written the same way DataSeeder does
+final class TestAccounts {
+
+    private TestAccounts() { }
+
+    static UUID create(JdbcTemplate jdbcTemplate, String balance, String currency) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("""
+                INSERT INTO accounts (id, account_number, owner_name, balance, currency, slot_count, version)
+                VALUES (?, ?, 'Test Account', ?, ?, 0, 0)
+                """, id, "ACC-" + id, new BigDecimal(balance), currency);
+        return id;
+    }
+
+    static BigDecimal balance(JdbcTemplate jdbcTemplate, UUID id) {
+        return jdbcTemplate.queryForObject("""
+                SELECT a.balance + COALESCE((SELECT SUM(s.balance) FROM account_slots s WHERE s.account_id = a.id), 0)
+                FROM accounts a WHERE a.id = ?
+                """, BigDecimal.class, id);
+    }
+}
@@ -0,0 +1,73 @@
+package com.nexus_ledger.nexusLedger;
+
+import com.nexus_ledger.nexusLedger.dto.TransferCommand;
+import com.nexus_ledger.nexusLedger.kafkaTransaction.TransferEventDeserializer;
+import com.nexus_ledger.nexusLedger.kafkaTransaction.TransferEventSerializer;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TransferEventCodecTest {
+
+    private final TransferEventDeserializer deserializer = new TransferEventDeserializer();
+
+    @Test
+    void testBinaryRoundTrip() {
+        TransferEventSerializer serializer = new TransferEventSerializer();
+        serializer.configure(Map.of(), false);
+
+        // 1. UUID keys travel as 16 bytes, anything else as UTF-8
+        for (String key : new String[]{UUID.randomUUID().toString(), "TX-123", "A1B2-upper-Ç"}) {
+            TransferCommand sent = new TransferCommand(key, UUID.randomUUID(), UUID.randomUUID(),
+                    new BigDecimal("-1234.5600"), "EUR");
+            byte[] bytes = serializer.serialize("financial-transactions", sent);
+
+            // 2. Amount (as minor units) and currency survive exactly
+            TransferCommand received = deserializer.deserialize("financial-transactions", bytes);
+            assertEquals(sent, received);
+            assertEquals(-123456, received.getAmountMinor());
+        }
+    }
+
+    @Test
+    void testAmountsFinerThanMinorUnitsAreRejected() {
+        assertThrows(ArithmeticException.class, () -> new TransferCommand("TX-1", UUID.randomUUID(), UUID.randomUUID(),
+                new BigDecimal("10.005"), "USD"));
+
+        // Same decimal amount, different minor units: JPY has none
+        TransferCommand cmd = new TransferCommand("TX-2", UUID.randomUUID(), UUID.randomUUID(), new BigDecimal("12.50"), "USD");
+        assertEquals(1250, cmd.getAmountMinor());
+        assertThrows(ArithmeticException.class, () -> new TransferCommand("TX-3", UUID.randomUUID(), UUID.randomUUID(),
+                new BigDecimal("12.50"), "JPY"));
+    }
+
+    @Test
+    void testLegacyJsonStillDecodes() {
+        UUID fromId = UUID.randomUUID();
+        UUID toId = UUID.randomUUID();
+        String json = "{\"key\":\"TX-1\",\"data\":{\"fromId\":\"" + fromId + "\",\"toId\":\"" + toId
+                + "\",\"amount\":12.50}}";
+
+        TransferCommand cmd = deserializer.deserialize("financial-transactions", json.getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(new TransferCommand("TX-1", fromId, toId, new BigDecimal("12.50"), "USD"), cmd);
+    }
+
+    @Test
+    void testLegacyJsonKeepsEveryDigitOfLargeAmounts() {
+        // 17 significant digits: through a double this arrives as 900719925474099.9
+        String json = "{\"key\":\"TX-2\",\"data\":{\"fromId\":\"" + UUID.randomUUID() + "\",\"toId\":\""
+                + UUID.randomUUID() + "\",\"amount\":900719925474099.93,\"currency\":\"USD\"}}";
+
+        TransferCommand cmd = deserializer.deserialize("financial-transactions", json.getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(0, new BigDecimal("900719925474099.93").compareTo(cmd.getAmount()));
+        assertEquals(90071992547409993L, cmd.getAmountMinor());
+    }
+}
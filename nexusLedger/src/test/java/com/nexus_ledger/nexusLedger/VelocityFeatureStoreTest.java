@@ -0,0 +1,69 @@
+package com.nexus_ledger.nexusLedger;
+
+import com.nexus_ledger.nexusLedger.service.ai.VelocityFeatureStore;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class VelocityFeatureStoreTest {
+
+    private static final long MINUTE = 60_000;
+    private static final long HOUR = 60 * MINUTE;
+
+    @Test
+    void testWindowsSlideAndCountDistinctRecipients() {
+        VelocityFeatureStore store = new VelocityFeatureStore(100, 8);
+        UUID account = UUID.randomUUID();
+        UUID alice = UUID.randomUUID();
+        UUID bob = UUID.randomUUID();
+        long t0 = 1_700_000_000_000L;
+
+        // 1. Three transfers within a minute, two of them to the same recipient
+        store.record(account, alice, 1_000, "USD", t0);
+        store.record(account, bob, 5_000, "USD", t0 + 10_000);
+        VelocityFeatureStore.Features f = store.record(account, alice, 2_000, "USD", t0 + 20_000);
+        assertEquals(3, f.count1m());
+        assertEquals(8_000, f.sum1m());
+        assertEquals(5_000, f.max1m());
+        assertEquals(2, f.fanOut1h());
+
+        // 2. Two minutes later the minute window has moved on; the hour and day still hold everything
+        f = store.record(account, UUID.randomUUID(), 500, "USD", t0 + 2 * MINUTE);
+        assertEquals(1, f.count1m());
+        assertEquals(500, f.max1m());
+        assertEquals(4, f.count1h());
+        assertEquals(8_500, f.sum1h());
+        assertEquals(3, f.fanOut1h());
+
+        // 3. Two hours later only the day window remembers the earlier transfers
+        f = store.record(account, alice, 700, "USD", t0 + 2 * HOUR);
+        assertEquals(1, f.count1h());
+        assertEquals(1, f.fanOut1h());
+        assertEquals(5, f.count24h());
+        assertEquals(9_200, f.sum24h());
+        assertEquals(5_000, f.max24h());
+        assertEquals(3, f.fanOut24h());
+
+        // 4. A day and more later, nothing is left but the new transfer
+        f = store.record(account, bob, 300, "USD", t0 + 26 * HOUR);
+        assertEquals(1, f.count24h());
+        assertEquals(300, f.sum24h());
+        assertEquals(1, f.fanOut24h());
+    }
+
+    @Test
+    void testFanOutSaturatesAtTheRecipientRing() {
+        VelocityFeatureStore store = new VelocityFeatureStore(100, 8);
+        UUID account = UUID.randomUUID();
+        long t0 = 1_700_000_000_000L;
+
+        VelocityFeatureStore.Features f = null;
+        for (int i = 0; i < 20; i++) {
+            f = store.record(account, UUID.randomUUID(), 100, "USD", t0 + i);
+        }
+        assertEquals(20, f.count1m());
+        assertEquals(8, f.fanOut1h());
+    }
+}
@@ -0,0 +1,210 @@
+package com.nexus_ledger.nexusLedger;
+
+import com.nexus_ledger.nexusLedger.config.WebSocketConfig;
+import org.apache.activemq.artemis.core.config.impl.ConfigurationImpl;
+import org.apache.activemq.artemis.core.server.embedded.EmbeddedActiveMQ;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.ServletWebServerFactoryAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.autoconfigure.websocket.servlet.WebSocketMessagingAutoConfiguration;
+import org.springframework.boot.autoconfigure.websocket.servlet.WebSocketServletAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.reflect.Type;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Subscriber ramp for both broker modes: at each step N dashboards subscribe to /topic/updates/{account},
+ * every account gets a burst of messages, and we report how many arrived and how fast. The ramp stops at
+ * the first step that loses messages or cannot connect, which is the capacity of that mode on this machine.
+ * The relay mode runs against an embedded ActiveMQ Artemis standing in for the external STOMP broker.
+ *
+ * Heavy, so opt-in: mvn test -Dtest=WebSocketLoadTest -Dws.loadtest=true [-Dws.loadtest.steps=250,500,1000]
+ */
+@EnabledIfSystemProperty(named = "ws.loadtest", matches = "true")
+public class WebSocketLoadTest {
+
+    private static final int ACCOUNTS = 50;
+    private static final int MESSAGES_PER_ACCOUNT = 20;
+
+    // Just the web server and the STOMP stack: no DB, Kafka or security
+    @SpringBootConfiguration
+    @ImportAutoConfiguration({ServletWebServerFactoryAutoConfiguration.class, DispatcherServletAutoConfiguration.class,
+            WebMvcAutoConfiguration.class, JacksonAutoConfiguration.class,
+            WebSocketServletAutoConfiguration.class, WebSocketMessagingAutoConfiguration.class})
+    @Import(WebSocketConfig.class)
+    static class WebSocketOnly { }
+
+    @Nested
+    @SpringBootTest(classes = WebSocketOnly.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+            properties = "nexus.ws.broker.mode=simple")
+    class SimpleBroker {
+
+        @LocalServerPort
+        int port;
+        @Autowired
+        SimpMessagingTemplate template;
+
+        @Test
+        void testSubscriberRamp() throws Exception {
+            ramp("simple", port, template);
+        }
+    }
+
+    @Nested
+    @TestInstance(TestInstance.Lifecycle.PER_CLASS)
+    @SpringBootTest(classes = WebSocketOnly.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+            properties = "nexus.ws.broker.mode=relay")
+    class RelayBroker {
+
+        static final int STOMP_PORT = freePort();
+        static EmbeddedActiveMQ broker;
+
+        @LocalServerPort
+        int port;
+        @Autowired
+        SimpMessagingTemplate template;
+
+        @DynamicPropertySource
+        static void relay(DynamicPropertyRegistry registry) throws Exception {
+            if (broker == null) {
+                broker = new EmbeddedActiveMQ().setConfiguration(new ConfigurationImpl()
+                        .setPersistenceEnabled(false)
+                        .setSecurityEnabled(false)
+                        .addAcceptorConfiguration("stomp",
+                                "tcp://127.0.0.1:" + STOMP_PORT + "?protocols=STOMP;multicastPrefix=/topic/"));
+                broker.start();
+            }
+            registry.add("nexus.ws.broker.relay-port", () -> STOMP_PORT);
+        }
+
+        @AfterAll
+        void stopBroker() throws Exception {
+            broker.stop();
+        }
+
+        @Test
+        void testSubscriberRamp() throws Exception {
+            ramp("relay", port, template);
+        }
+    }
+
+    private static void ramp(String mode, int port, SimpMessagingTemplate template) throws Exception {
+        int[] steps = Arrays.stream(System.getProperty("ws.loadtest.steps", "250,500,1000,2000").split(","))
+                .map(String::trim).mapToInt(Integer::parseInt).toArray();
+        String[] accounts = new String[ACCOUNTS];
+        for (int i = 0; i < ACCOUNTS; i++) accounts[i] = UUID.randomUUID().toString();
+
+        WebSocketStompClient client = new WebSocketStompClient(new StandardWebSocketClient());
+        client.setMessageConverter(new MappingJackson2MessageConverter());
+        client.setDefaultHeartbeat(new long[]{0, 0}); // Measure fan-out, not heartbeat traffic
+        WebSocketHttpHeaders headers = new WebSocketHttpHeaders();
+        headers.setOrigin("http://localhost:5173"); // Must match the endpoint's allowed origins
+        String url = "ws://localhost:" + port + "/ws-ledger/websocket";
+
+        System.out.printf("%n[%s] subscribers | delivered | elapsed ms | msgs/s | p99 ms%n", mode);
+        int capacity = 0;
+        for (int subscribers : steps) {
+            // 1. Connect and subscribe
+            AtomicLong received = new AtomicLong();
+            ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+            List<StompSession> sessions = new ArrayList<>(subscribers);
+            try {
+                for (int i = 0; i < subscribers; i++) {
+                    StompSession session = client.connectAsync(url, headers, new StompSessionHandlerAdapter() { })
+                            .get(10, TimeUnit.SECONDS);
+                    session.subscribe("/topic/updates/" + accounts[i % ACCOUNTS], new StompFrameHandler() {
+                        @Override
+                        public Type getPayloadType(StompHeaders stompHeaders) {
+                            return Map.class;
+                        }
+
+                        @Override
+                        public void handleFrame(StompHeaders stompHeaders, Object payload) {
+                            long sentAt = ((Number) ((Map<?, ?>) payload).get("sentAt")).longValue();
+                            latencies.add(System.nanoTime() - sentAt);
+                            received.incrementAndGet();
+                        }
+                    });
+                    sessions.add(session);
+                }
+            } catch (Exception e) {
+                System.out.printf("[%s] %11d | connect failed after %d sessions: %s%n",
+                        mode, subscribers, sessions.size(), e.getMessage());
+                sessions.forEach(StompSession::disconnect);
+                break;
+            }
+            Thread.sleep(1_000); // Let the SUBSCRIBE frames reach the broker
+
+            // 2. Burst: every account gets MESSAGES_PER_ACCOUNT updates
+            long expected = (long) subscribers * MESSAGES_PER_ACCOUNT;
+            long start = System.nanoTime();
+            for (int m = 0; m < MESSAGES_PER_ACCOUNT; m++) {
+                for (String account : accounts) {
+                    template.convertAndSend("/topic/updates/" + account, Map.of("sentAt", System.nanoTime()));
+                }
+            }
+            long deadline = start + TimeUnit.SECONDS.toNanos(30);
+            while (received.get() < expected && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            // 3. Report
+            long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+            double p99 = sorted.length == 0 ? 0 : sorted[(int) Math.min(sorted.length - 1, sorted.length * 0.99)] / 1e6;
+            double ratio = (double) received.get() / expected;
+            System.out.printf("[%s] %11d | %8.2f%% | %10d | %6.0f | %6.1f%n", mode, subscribers, ratio * 100,
+                    elapsedMs, received.get() * 1000.0 / Math.max(1, elapsedMs), p99);
+
+            sessions.forEach(StompSession::disconnect);
+            if (ratio < 0.99) break;
+            capacity = subscribers;
+        }
+        client.stop();
+
+        System.out.printf("[%s] handled %d concurrent subscribers without loss%n", mode, capacity);
+        assertTrue(capacity > 0, mode + " broker could not serve even " + steps[0] + " subscribers");
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+}